@@ -0,0 +1,71 @@
+package com.company.benchmarks;
+
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.RateBasis;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Shared inputs for the benchmarks: the csv curves shipped in
+ * src/resources, synthetic curves with an arbitrary number of knots
+ * and query maturities.
+ * <p>
+ * The resources directory is taken from the "curves.resources" system
+ * property and defaults to src/resources or ../src/resources, so the
+ * benchmarks can be run from the project root or the benchmarks module.
+ *
+ * @author Jose Gonzalez
+ */
+final class BenchmarkCurves {
+    static final String RESOURCES_PROPERTY = "curves.resources";
+    private static final long SEED = 20160928L;
+
+    private BenchmarkCurves() {
+    }
+
+    static String getCurveFile(String currency) {
+        String fileName = currency + "Rates.csv";
+        String resources = System.getProperty(RESOURCES_PROPERTY);
+        if (resources != null) {
+            return new File(resources, fileName).getPath();
+        }
+        for (String directory : new String[]{"src/resources", "../src/resources"}) {
+            File file = new File(directory, fileName);
+            if (file.exists()) {
+                return file.getPath();
+            }
+        }
+        throw new IllegalStateException("Unable to find " + fileName + ", set -D" + RESOURCES_PROPERTY);
+    }
+
+    /**
+     * Smooth upward sloping curve with a small wiggle, knots equally
+     * spaced over 50 years (10,000 knots is roughly one knot every two days)
+     */
+    static RatesCurve getSyntheticCurve(int knots) {
+        RatesCurve ratesCurve = new RatesCurve();
+        double spacing = 50.0 / knots;
+        for (int i = 1; i <= knots; i++) {
+            double term = i * spacing;
+            double rate = 0.02 + 0.015 * (1 - Math.exp(-term / 5)) + 0.001 * Math.sin(term);
+            ratesCurve.add(new RatePoint(term, rate, RateBasis.ANNUALIZED));
+        }
+        return ratesCurve;
+    }
+
+    static double[] getQueryMaturities(int count, double lastTerm, boolean sorted) {
+        Random random = new Random(SEED);
+        double[] maturities = new double[count];
+        for (int i = 0; i < count; i++) {
+            maturities[i] = random.nextDouble() * lastTerm;
+        }
+        if (sorted) {
+            Arrays.sort(maturities);
+        }
+        return maturities;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.company.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result
+ * also reports the allocation rate (gc.alloc.rate.norm is bytes per
+ * operation).
+ * <p>
+ * Optional first argument: regular expression selecting the benchmarks,
+ * e.g. "CurveQueryBenchmark.batch".
+ *
+ * @author Jose Gonzalez
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com.company.benchmarks.*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
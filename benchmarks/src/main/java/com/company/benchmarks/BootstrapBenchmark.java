@@ -0,0 +1,49 @@
+package com.company.benchmarks;
+
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to bootstrap a full zero curve from the cash and swap
+ * rates of a csv file, excluding the file load.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BootstrapBenchmark {
+
+    @Param({"GBP", "CHF", "ZAR", "MCTestSet1"})
+    public String currency;
+
+    @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+    public ModelType modelType;
+
+    private List<DataPoint> dataPointList;
+    private BootstrapEngine bootstrapEngine;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.dataPointList = RatesCurveUtils.getDataPointsFromFile(BenchmarkCurves.getCurveFile(this.currency));
+        this.bootstrapEngine = new BootstrapEngine(this.modelType);
+    }
+
+    @Benchmark
+    public double bootstrap() throws InterpolationException {
+        Interpolation interpolation = this.bootstrapEngine.bootstrap(this.dataPointList).getInterpolation();
+        return interpolation.getModeledRate(interpolation.getLastTerm());
+    }
+}
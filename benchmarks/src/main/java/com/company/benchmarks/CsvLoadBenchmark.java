@@ -0,0 +1,55 @@
+package com.company.benchmarks;
+
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.marketdata.MarketDataColumns;
+import com.company.marketdata.MarketDataParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading one market data csv file, into DataPoints
+ * and into reused MarketDataColumns.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvLoadBenchmark {
+
+    @Param({"GBP", "CHF", "ZAR", "MCTestSet1"})
+    public String currency;
+
+    private String fileName;
+    private Path path;
+    private MarketDataParser parser;
+    private MarketDataColumns columns;
+
+    @Setup
+    public void setUp() {
+        this.fileName = BenchmarkCurves.getCurveFile(this.currency);
+        this.path = Paths.get(this.fileName);
+        this.parser = new MarketDataParser();
+        this.columns = new MarketDataColumns();
+    }
+
+    @Benchmark
+    public List<DataPoint> getDataPointsFromFile() throws IOException {
+        return RatesCurveUtils.getDataPointsFromFile(this.fileName);
+    }
+
+    @Benchmark
+    public MarketDataColumns parseIntoColumns() throws IOException {
+        this.parser.parse(this.path, this.columns);
+        return this.columns;
+    }
+}
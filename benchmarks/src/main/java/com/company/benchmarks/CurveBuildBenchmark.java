@@ -0,0 +1,74 @@
+package com.company.benchmarks;
+
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatesCurve;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calibration latency of the interpolation models, for the shipped
+ * cash curves and for synthetic curves of increasing size.
+ * <p>
+ * MonotoneConvex calibrates on the first query, so every build
+ * evaluates one rate to include the calibration in the measurement.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveBuildBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SyntheticCurve {
+        @Param({"10", "100", "1000", "10000"})
+        public int knots;
+
+        @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+        public ModelType modelType;
+
+        RatesCurve ratesCurve;
+
+        @Setup
+        public void setUp() {
+            this.ratesCurve = BenchmarkCurves.getSyntheticCurve(this.knots);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FileCurve {
+        @Param({"GBP", "CHF", "ZAR", "MCTestSet1"})
+        public String currency;
+
+        @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+        public ModelType modelType;
+
+        RatesCurve ratesCurve;
+
+        @Setup
+        public void setUp() throws IOException {
+            this.ratesCurve = new RatesCurve(RatesCurveUtils.getDataPointsFromFile(BenchmarkCurves.getCurveFile(this.currency)), RateType.CASH);
+        }
+    }
+
+    @Benchmark
+    public double buildSyntheticCurve(SyntheticCurve state) throws InterpolationException {
+        Interpolation interpolation = ModelFactory.createModel(state.modelType, state.ratesCurve);
+        return interpolation.getModeledRate(0.5);
+    }
+
+    @Benchmark
+    public double buildFileCurve(FileCurve state) throws InterpolationException {
+        Interpolation interpolation = ModelFactory.createModel(state.modelType, state.ratesCurve);
+        return interpolation.getModeledRate(0.5);
+    }
+}
@@ -0,0 +1,109 @@
+package com.company.benchmarks;
+
+import com.company.ModelFactory;
+import com.company.enums.ModelType;
+import com.company.enums.TabulationMode;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.TabulatedInterpolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query cost of calibrated curves: single point latency for rates,
+ * discount factors and forwards at random maturities, and throughput
+ * of the batch methods over sorted maturities.
+ * <p>
+ * With tabulated the curve is queried through a daily cubic Hermite
+ * TabulatedInterpolation; its accuracy is not checked here.
+ *
+ * @author Jose Gonzalez
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurveQueryBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int knots;
+
+    @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+    public ModelType modelType;
+
+    @Param({"false", "true"})
+    public boolean tabulated;
+
+    private Interpolation interpolation;
+    private double[] randomMaturities;
+    private double[] sortedMaturities;
+    private double[] results;
+    private int next;
+
+    @Setup
+    public void setUp() throws InterpolationException {
+        this.interpolation = ModelFactory.createModel(this.modelType, BenchmarkCurves.getSyntheticCurve(this.knots));
+        if (this.tabulated) {
+            this.interpolation = new TabulatedInterpolation(this.interpolation, 0, 1 / 365.0, TabulationMode.CUBIC_HERMITE, Double.POSITIVE_INFINITY);
+        }
+        this.randomMaturities = BenchmarkCurves.getQueryMaturities(QUERIES, this.interpolation.getLastTerm(), false);
+        this.sortedMaturities = BenchmarkCurves.getQueryMaturities(QUERIES, this.interpolation.getLastTerm(), true);
+        this.results = new double[QUERIES];
+        this.interpolation.getModeledRate(0.5);
+    }
+
+    private double nextMaturity() {
+        this.next = (this.next + 1) & (QUERIES - 1);
+        return this.randomMaturities[this.next];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double modeledRate() throws InterpolationException {
+        return this.interpolation.getModeledRate(this.nextMaturity());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double discountFactor() throws InterpolationException {
+        return this.interpolation.getDiscountFactor(this.nextMaturity());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double forwardRate() throws InterpolationException {
+        return this.interpolation.getForwardRate(this.nextMaturity());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double[] batchModeledRates() throws InterpolationException {
+        this.interpolation.getModeledRates(this.sortedMaturities, this.results);
+        return this.results;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double[] batchDiscountFactors() throws InterpolationException {
+        this.interpolation.getDiscountFactors(this.sortedMaturities, this.results);
+        return this.results;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double[] batchForwardRates() throws InterpolationException {
+        this.interpolation.getForwardRates(this.sortedMaturities, this.results);
+        return this.results;
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.benchmarks;
+
+import com.company.beans.RatesCurve;
+import com.company.linearequationsystem.GaussMatrix;
+import com.company.linearequationsystem.LUDecomposition;
+import com.company.linearequationsystem.TridiagonalLU;
+import com.company.linearequationsystem.TridiagonalMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of solving the natural cubic splines equation system with
+ * the dense GaussMatrix and with the TridiagonalMatrix used by
+ * CubicSplines. findSolution works in place, so every invocation
+ * copies the coefficients and the constants first; the copy is
+ * part of the measurement.
+ * <p>
+ * The solve benchmarks measure one right hand side against a matrix
+ * factored in the setup, the cost of a curve calibrated on a shared
+ * knot grid.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GaussMatrixBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int equations;
+
+    private double[][] coefficientMatrix;
+    private double[] constants;
+    private LUDecomposition luDecomposition;
+    private TridiagonalLU tridiagonalLU;
+
+    @Setup
+    public void setUp() {
+        RatesCurve ratesCurve = BenchmarkCurves.getSyntheticCurve(this.equations);
+        this.coefficientMatrix = new double[this.equations][this.equations];
+        this.constants = new double[this.equations];
+        this.coefficientMatrix[0][0] = 1;
+        this.coefficientMatrix[this.equations - 1][this.equations - 1] = 1;
+        for (int row = 1; row < this.equations - 1; row++) {
+            this.coefficientMatrix[row][row - 1] = ratesCurve.getCapitalX(row - 1);
+            this.coefficientMatrix[row][row] = 2 * (ratesCurve.getCapitalX(row - 1) + ratesCurve.getCapitalX(row));
+            this.coefficientMatrix[row][row + 1] = ratesCurve.getCapitalX(row);
+            this.constants[row] = -3 * ((ratesCurve.getRate(row) - ratesCurve.getRate(row - 1)) / ratesCurve.getCapitalX(row - 1)
+                    - (ratesCurve.getRate(row + 1) - ratesCurve.getRate(row)) / ratesCurve.getCapitalX(row));
+        }
+
+        double[] lower = new double[this.equations];
+        double[] diagonal = new double[this.equations];
+        double[] upper = new double[this.equations];
+        for (int row = 0; row < this.equations; row++) {
+            lower[row] = row > 0 ? this.coefficientMatrix[row][row - 1] : 0;
+            diagonal[row] = this.coefficientMatrix[row][row];
+            upper[row] = row < this.equations - 1 ? this.coefficientMatrix[row][row + 1] : 0;
+        }
+        this.luDecomposition = new LUDecomposition(this.coefficientMatrix);
+        this.tridiagonalLU = new TridiagonalLU(lower, diagonal, upper);
+    }
+
+    @Benchmark
+    public double[] findSolution() {
+        GaussMatrix gaussMatrix = new GaussMatrix(this.equations);
+        double[][] matrix = new double[this.equations][];
+        for (int row = 0; row < this.equations; row++) {
+            matrix[row] = this.coefficientMatrix[row].clone();
+        }
+        gaussMatrix.setCoefficientMatrix(matrix);
+        gaussMatrix.setConstants(this.constants.clone());
+        gaussMatrix.findSolution();
+        return gaussMatrix.getSolution();
+    }
+
+    @Benchmark
+    public double[] findTridiagonalSolution() {
+        TridiagonalMatrix tridiagonalMatrix = new TridiagonalMatrix(this.equations);
+        for (int row = 0; row < this.equations; row++) {
+            tridiagonalMatrix.setRow(row,
+                    row > 0 ? this.coefficientMatrix[row][row - 1] : 0,
+                    this.coefficientMatrix[row][row],
+                    row < this.equations - 1 ? this.coefficientMatrix[row][row + 1] : 0,
+                    this.constants[row]);
+        }
+        tridiagonalMatrix.findSolution();
+        return tridiagonalMatrix.getSolution();
+    }
+
+    @Benchmark
+    public double[] solveFactored() {
+        return this.luDecomposition.solve(this.constants);
+    }
+
+    @Benchmark
+    public double[] solveTridiagonalFactored() {
+        return this.tridiagonalLU.solve(this.constants);
+    }
+}
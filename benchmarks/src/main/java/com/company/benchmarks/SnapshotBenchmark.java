@@ -0,0 +1,64 @@
+package com.company.benchmarks;
+
+import com.company.ModelFactory;
+import com.company.enums.ModelType;
+import com.company.interfaces.Interpolation;
+import com.company.snapshot.CurveSnapshotReader;
+import com.company.snapshot.CurveSnapshotWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start from a curve snapshot: opening the mapped file and
+ * querying one of its curves, against recalibrating that curve.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"10", "1000"})
+    public int curves;
+
+    @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+    public ModelType modelType;
+
+    private Path path;
+    private String lastCurveId;
+
+    @Setup
+    public void setUp() throws IOException {
+        CurveSnapshotWriter writer = new CurveSnapshotWriter();
+        Interpolation interpolation = ModelFactory.createModel(this.modelType, BenchmarkCurves.getSyntheticCurve(100));
+        for (int i = 0; i < this.curves; i++) {
+            writer.add("curve" + i, interpolation);
+        }
+        this.lastCurveId = "curve" + (this.curves - 1);
+        this.path = Files.createTempFile("benchmark", ".snapshot");
+        writer.write(this.path);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(this.path);
+    }
+
+    @Benchmark
+    public double openAndQuery() throws Exception {
+        return CurveSnapshotReader.open(this.path).getCurve(this.lastCurveId).getModeledRate(7.5);
+    }
+
+    @Benchmark
+    public double calibrateAndQuery() throws Exception {
+        return ModelFactory.createModel(this.modelType, BenchmarkCurves.getSyntheticCurve(100)).getModeledRate(7.5);
+    }
+}
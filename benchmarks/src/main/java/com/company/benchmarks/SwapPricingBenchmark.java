@@ -0,0 +1,74 @@
+package com.company.benchmarks;
+
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.Swap;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.pricing.SwapPortfolio;
+import com.company.pricing.SwapPricingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reprice a book of swaps on a bootstrapped GBP curve: the
+ * SwapPricingEngine on the common pool against a loop calling
+ * Swap.getPresentValue for every swap.
+ *
+ * @author Jose Gonzalez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SwapPricingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int swaps;
+
+    @Param({"CUBIC_SPLINES", "MONOTONE_CONVEX"})
+    public ModelType modelType;
+
+    private Interpolation interpolation;
+    private List<Swap> swapList;
+    private double[] notionals;
+    private SwapPortfolio swapPortfolio;
+    private SwapPricingEngine swapPricingEngine;
+
+    @Setup
+    public void setUp() throws IOException, InterpolationException {
+        this.interpolation = new BootstrapEngine(this.modelType)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile(BenchmarkCurves.getCurveFile("GBP"))).getInterpolation();
+        Random random = new Random(20160928L);
+        this.swapList = new ArrayList<>(this.swaps);
+        this.notionals = new double[this.swaps];
+        for (int k = 0; k < this.swaps; k++) {
+            this.swapList.add(new Swap(1 + random.nextInt(30 * 12) / 12.0, 0.002 + 0.01 * random.nextDouble(), 2));
+            this.notionals[k] = (random.nextDouble() - 0.5) * 1e7;
+        }
+        this.swapPortfolio = new SwapPortfolio(this.swapList, this.notionals);
+        this.swapPricingEngine = new SwapPricingEngine();
+    }
+
+    @Benchmark
+    public double pricingEngine() throws InterpolationException {
+        return this.swapPricingEngine.price(this.swapPortfolio, this.interpolation).getTotalPresentValue();
+    }
+
+    @Benchmark
+    public double swapLoop() throws InterpolationException {
+        double totalPresentValue = 0;
+        for (int k = 0; k < this.swaps; k++) {
+            totalPresentValue += this.notionals[k] * this.swapList.get(k).getPresentValue(this.interpolation);
+        }
+        return totalPresentValue;
+    }
+}
@@ -1,17 +1,26 @@
 package com.company;
 
 import com.company.beans.RatesCurve;
+import com.company.cache.CurveKey;
+import com.company.cache.ModelCache;
 import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
 import com.company.interfaces.Interpolation;
 import com.company.interpolation.CubicSplines;
 import com.company.interpolation.MonotoneConvex;
 
 /**
  * Interpolation model factory
+ * <p>
+ * createModel calibrates a new model on every call. getModel returns
+ * the model from a shared ModelCache, keyed by the model type and the
+ * contents of the curve, and only calibrates it on a miss.
  *
  * @author Jose Gonzalez
  */
 public class ModelFactory {
+    private static final int MODEL_CACHE_SIZE = 64;
+    private static final ModelCache modelCache = new ModelCache(MODEL_CACHE_SIZE);
 
     public static Interpolation createModel(ModelType modelType, RatesCurve ratesCurve){
         if(modelType.equals(ModelType.MONOTONE_CONVEX)){
@@ -22,4 +31,15 @@ public class ModelFactory {
             return null;
         }
     }
+
+    public static Interpolation getModel(ModelType modelType, RatesCurve ratesCurve) throws InterpolationException {
+        return modelCache.getModel(new CurveKey(modelType, ratesCurve), () -> createModel(modelType, ratesCurve));
+    }
+
+    /**
+     * The cache used by getModel, for its counters and invalidation
+     */
+    public static ModelCache getModelCache() {
+        return modelCache;
+    }
 }
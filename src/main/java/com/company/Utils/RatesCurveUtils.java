@@ -6,10 +6,9 @@ import com.company.beans.RatesCurve;
 import com.company.enums.RateBasis;
 import com.company.exceptions.InterpolationException;
 import com.company.interfaces.Interpolation;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import com.company.marketdata.MarketDataParser;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -19,38 +18,14 @@ import java.util.List;
  */
 public class RatesCurveUtils {
 
+    /**
+     * Reads the data points of a market data csv file,
+     * see MarketDataParser for the accepted format
+     *
+     * @throws com.company.exceptions.MarketDataParseException with the line number of a malformed row
+     */
     public static List<DataPoint> getDataPointsFromFile(String fileName) throws IOException {
-        String line;
-        FileReader fileReader;
-        BufferedReader bufferedReader;
-        fileReader = new FileReader(fileName);
-        bufferedReader = new BufferedReader(fileReader);
-        List<DataPoint> dataPointList = new ArrayList<>();
-
-        line = bufferedReader.readLine();
-
-        int counter = 0;
-
-        while (line != null) {
-            String[] splitLine = line.split(",");
-            if (counter > 0) {
-                DataPoint dataPoint = new DataPoint.Builder()
-                        .withType(splitLine[0])
-                        .withSettle(splitLine[1])
-                        .withRollDate(splitLine[2])
-                        .withMaturity(splitLine[3])
-                        .withRate(splitLine[4])
-                        .withBasis(splitLine[5])
-                        .withFrequency(splitLine[6])
-                        .withCouponBase(splitLine[7])
-                        .build();
-                dataPointList.add(dataPoint);
-            }
-            counter++;
-            line = bufferedReader.readLine();
-        }
-        bufferedReader.close();
-        return dataPointList;
+        return new MarketDataParser().parse(Paths.get(fileName)).getDataPoints();
     }
 
 
@@ -0,0 +1,91 @@
+package com.company.Utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SearchUtils - segment lookup over the sorted knots of a curve
+ *
+ * @author Jose Gonzalez
+ */
+public class SearchUtils {
+
+    /**
+     * Binary search for the segment used to interpolate the value: the largest
+     * index in [0, lastSegment] whose knot is less than or equal to the value.
+     * Values before the first knot return 0, values after the last knot
+     * return lastSegment.
+     */
+    public static int findSegment(double[] knots, int lastSegment, double value) {
+        return findSegment(knots, 0, lastSegment, value);
+    }
+
+    /**
+     * Same as findSegment, starting from the segment found by a previous call.
+     * Checks the hinted segment and the next one before falling back to a
+     * binary search, so ascending values cost O(1) per lookup.
+     */
+    public static int findSegment(double[] knots, int lastSegment, double value, int hint) {
+        if (hint < 0 || hint > lastSegment || value < knots[hint]) {
+            return findSegment(knots, 0, lastSegment, value);
+        }
+        if (hint == lastSegment || value < knots[hint + 1]) {
+            return hint;
+        }
+        if (hint + 1 == lastSegment || value < knots[hint + 2]) {
+            return hint + 1;
+        }
+        return findSegment(knots, hint + 1, lastSegment, value);
+    }
+
+    private static int findSegment(double[] knots, int low, int high, double value) {
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (knots[middle] <= value) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * findSegment over knots stored as consecutive doubles in a buffer,
+     * starting at the byte offset knotsOffset
+     */
+    public static int findSegment(ByteBuffer buffer, int knotsOffset, int lastSegment, double value) {
+        return findSegment(buffer, knotsOffset, 0, lastSegment, value);
+    }
+
+    /**
+     * Hinted findSegment over knots stored in a buffer
+     */
+    public static int findSegment(ByteBuffer buffer, int knotsOffset, int lastSegment, double value, int hint) {
+        if (hint < 0 || hint > lastSegment || value < getKnot(buffer, knotsOffset, hint)) {
+            return findSegment(buffer, knotsOffset, 0, lastSegment, value);
+        }
+        if (hint == lastSegment || value < getKnot(buffer, knotsOffset, hint + 1)) {
+            return hint;
+        }
+        if (hint + 1 == lastSegment || value < getKnot(buffer, knotsOffset, hint + 2)) {
+            return hint + 1;
+        }
+        return findSegment(buffer, knotsOffset, hint + 1, lastSegment, value);
+    }
+
+    private static int findSegment(ByteBuffer buffer, int knotsOffset, int low, int high, double value) {
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (getKnot(buffer, knotsOffset, middle) <= value) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static double getKnot(ByteBuffer buffer, int knotsOffset, int index) {
+        return buffer.getDouble(knotsOffset + index * Double.BYTES);
+    }
+}
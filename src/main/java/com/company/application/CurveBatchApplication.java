@@ -0,0 +1,247 @@
+package com.company.application;
+
+import com.company.enums.ModelType;
+import com.company.enums.OutputFormat;
+import com.company.metrics.Metrics;
+import com.company.service.CurveBuildResult;
+import com.company.service.CurveBuildResults;
+import com.company.service.CurveBuildService;
+import com.company.service.CurveGridWriter;
+import com.company.interfaces.Interpolation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless entry point: builds the zero curve of every input file and
+ * writes it on a tenor grid, without JavaFX.
+ * <p>
+ * java com.company.application.CurveBatchApplication [options] file|directory...
+ * <p>
+ * --model CUBIC_SPLINES|MONOTONE_CONVEX (default MONOTONE_CONVEX)
+ * <p>
+ * --tenors 0.25,0.5,1,... or --step 0.25 (default): a grid from one step
+ * to the last term of every curve, the last term added when it is not a
+ * whole number of steps
+ * <p>
+ * --format CSV|BINARY (default CSV), see CurveGridWriter
+ * <p>
+ * --output directory (default the working directory)
+ * <p>
+ * --threads n (default the number of processors)
+ * <p>
+ * --verbose prints a line per curve with its timings
+ * <p>
+ * With -Dcurves.metrics=true the time per phase and the queries per
+ * model are printed after the summary line, see Metrics.
+ * <p>
+ * The csv files of a directory are all processed. Files are loaded and
+ * bootstrapped in parallel, in batches of a few files per thread so the
+ * memory does not grow with the number of files. By default only a
+ * summary line is printed; errors go to the error stream and the exit
+ * code is 1 when any curve failed, 2 for invalid arguments.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveBatchApplication {
+    private static final int FILES_PER_THREAD = 4;
+    private ModelType modelType = ModelType.MONOTONE_CONVEX;
+    private double[] tenors;
+    private double step = 0.25;
+    private OutputFormat outputFormat = OutputFormat.CSV;
+    private Path outputDirectory = Paths.get(".");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean verbose;
+    private final List<Path> inputFiles = new ArrayList<>();
+    private final Map<Path, Path> writtenFiles = new HashMap<>();
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the batch, returns the exit code
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CurveBatchApplication application = new CurveBatchApplication();
+        try {
+            application.parseArguments(args);
+        } catch (IllegalArgumentException | IOException e) {
+            err.println(e.getMessage());
+            err.println("Usage: CurveBatchApplication [--model CUBIC_SPLINES|MONOTONE_CONVEX] [--tenors t1,t2,...|--step years]"
+                    + " [--format CSV|BINARY] [--output directory] [--threads n] [--verbose] file|directory...");
+            return 2;
+        }
+        return application.process(out, err);
+    }
+
+    private void parseArguments(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--verbose")) {
+                this.verbose = true;
+            } else if (arg.startsWith("--")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--model":
+                        this.modelType = ModelType.valueOf(value.toUpperCase());
+                        break;
+                    case "--tenors":
+                        this.tenors = parseTenors(value);
+                        break;
+                    case "--step":
+                        this.step = Double.parseDouble(value);
+                        if (!(this.step > 0)) {
+                            throw new IllegalArgumentException("Invalid step " + value);
+                        }
+                        break;
+                    case "--format":
+                        this.outputFormat = OutputFormat.valueOf(value.toUpperCase());
+                        break;
+                    case "--output":
+                        this.outputDirectory = Paths.get(value);
+                        break;
+                    case "--threads":
+                        this.threads = Integer.parseInt(value);
+                        if (this.threads < 1) {
+                            throw new IllegalArgumentException("Invalid number of threads " + value);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            } else {
+                this.addInput(Paths.get(arg));
+            }
+        }
+        if (this.modelType.equals(ModelType.LINEAR)) {
+            throw new IllegalArgumentException("The LINEAR model does not build zero curves");
+        }
+        if (this.inputFiles.isEmpty()) {
+            throw new IllegalArgumentException("No input files");
+        }
+    }
+
+    private void addInput(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> paths = Files.list(input)) {
+                this.inputFiles.addAll(paths.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".csv"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        } else if (Files.isRegularFile(input)) {
+            this.inputFiles.add(input);
+        } else {
+            throw new IllegalArgumentException("No such file " + input);
+        }
+    }
+
+    private static double[] parseTenors(String value) {
+        String[] fields = value.split(",");
+        double[] tenors = new double[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            tenors[i] = Double.parseDouble(fields[i].trim());
+            if (i > 0 && !(tenors[i] > tenors[i - 1])) {
+                throw new IllegalArgumentException("Tenors are not in ascending order: " + value);
+            }
+        }
+        return tenors;
+    }
+
+    private int process(PrintStream out, PrintStream err) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        int written = 0;
+        int failed = 0;
+        try {
+            Files.createDirectories(this.outputDirectory);
+            CurveBuildService curveBuildService = new CurveBuildService(this.modelType, executor);
+            int batchFiles = this.threads * FILES_PER_THREAD;
+            for (int from = 0; from < this.inputFiles.size(); from += batchFiles) {
+                Map<String, Path> batch = new LinkedHashMap<>();
+                for (Path inputFile : this.inputFiles.subList(from, Math.min(from + batchFiles, this.inputFiles.size()))) {
+                    batch.put(inputFile.toString(), inputFile);
+                }
+                CurveBuildResults curveBuildResults = curveBuildService.buildFromFiles(batch);
+                for (CurveBuildResult result : curveBuildResults.getResults().values()) {
+                    if (this.write(result, out, err)) {
+                        written++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return 1;
+        } finally {
+            executor.shutdown();
+        }
+        out.println(String.format("%d curves written, %d failed, %.1f ms", written, failed, (System.nanoTime() - start) / 1e6));
+        if (Metrics.ENABLED) {
+            out.print(Metrics.getRegistry().dump());
+        }
+        return failed == 0 ? 0 : 1;
+    }
+
+    private boolean write(CurveBuildResult result, PrintStream out, PrintStream err) {
+        if (!result.isSuccessful()) {
+            err.println(result.getCurveId() + ": " + result.getError());
+            return false;
+        }
+        Path inputFile = Paths.get(result.getCurveId());
+        Path outputFile = this.outputDirectory.resolve(
+                CurveGridWriter.getOutputFileName(inputFile.getFileName().toString(), this.modelType.name(), this.outputFormat));
+        Path previousInput = this.writtenFiles.putIfAbsent(outputFile, inputFile);
+        if (previousInput != null) {
+            err.println(result.getCurveId() + ": " + outputFile + " already written for " + previousInput);
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            Interpolation interpolation = result.getBootstrappedCurve().getInterpolation();
+            CurveGridWriter.write(interpolation, this.tenors != null ? this.tenors : this.getGrid(interpolation.getLastTerm()),
+                    this.outputFormat, outputFile);
+        } catch (Exception e) {
+            err.println(result.getCurveId() + ": " + e);
+            return false;
+        }
+        if (this.verbose) {
+            out.println(String.format("%s -> %s load %.3f ms, bootstrap %.3f ms, write %.3f ms", inputFile, outputFile,
+                    result.getLoadNanos() / 1e6, result.getBootstrapNanos() / 1e6, (System.nanoTime() - start) / 1e6));
+        }
+        return true;
+    }
+
+    /**
+     * One tenor every step up to the last term, the last term included
+     */
+    private double[] getGrid(double lastTerm) {
+        double steps = lastTerm / this.step;
+        int count = (int) Math.floor(steps + 1e-9);
+        boolean onGrid = steps - count < 1e-9;
+        double[] grid = new double[onGrid ? count : count + 1];
+        for (int i = 0; i < count; i++) {
+            grid[i] = (i + 1) * this.step;
+        }
+        if (!onGrid) {
+            grid[count] = lastTerm;
+        }
+        return grid;
+    }
+}
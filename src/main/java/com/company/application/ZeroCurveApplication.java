@@ -3,15 +3,19 @@ package com.company.application;
 import com.company.ModelFactory;
 import com.company.Utils.RatesCurveUtils;
 import com.company.beans.*;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.cache.CurveKey;
+import com.company.enums.CurveMeasure;
 import com.company.enums.ModelType;
-import com.company.enums.RateBasis;
 import com.company.enums.RateType;
 import com.company.exceptions.InterpolationException;
 import com.company.interfaces.Interpolation;
 import com.company.interpolation.MonotoneConvex;
+import com.company.service.CurveSampler;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -27,17 +31,26 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
 /**
+ * The chart series are sampled off the FX thread, see CurveSampler,
+ * with a point budget of one point per pixel of the chart width. A new
+ * request for a chart cancels the one still running, and only the
+ * series of the latest request is published to the chart.
+ *
  * @author Jose Gonzalez
  */
 public class ZeroCurveApplication extends Application {
     private Stage window;
     private Label rateLabel = new Label("");
     private Label fwdRateLabel = new Label("");
+    private Label labelChoiceBox = new Label("");
     private NumberAxis fwdXAxis = new NumberAxis();
     private NumberAxis fwdYAxis = new NumberAxis();
     private LineChart<Number, Number> zeroCurveLineChart = new LineChart<>(new NumberAxis(), new NumberAxis());
@@ -50,6 +63,13 @@ public class ZeroCurveApplication extends Application {
     private static LocalDate startDate;
     private LocalDate today = LocalDate.of(2016, 9, 28);
     private static Interpolation interpolator;
+    private final ExecutorService chartExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chart-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Task<XYChart.Series<Number, Number>> zeroCurveTask;
+    private Task<XYChart.Series<Number, Number>> fwdCurveTask;
 
     public static void main(String args[]) throws InterpolationException, IOException {
         launch(args); //sets up program as java fx application
@@ -64,40 +84,16 @@ public class ZeroCurveApplication extends Application {
         List<DataPoint> dataPointList = RatesCurveUtils.getDataPointsFromFile(filePath);
         updateDate(dataPointList.get(0).getMaturity());
         /**
-         * Step 2:   Initializes ZeroRates Curve. It only uses Cash Rates initially.
-         *           The Zero Curve  Interpolator is also initialize.
+         * Step 2:   Bootstraps the Zero Curve from the Cash and Swap Rates,
+         *           see BootstrapEngine for the details. The curve is kept
+         *           in the ModelFactory cache, flipping back to a curve
+         *           already shown does not bootstrap it again.
          */
-        RatesCurve zeroRateCurve = new RatesCurve(dataPointList, RateType.CASH);
-        interpolator = ModelFactory.createModel(modelType, zeroRateCurve);
-        /**
-         * Step 3:
-         *           Since there could be intermediate missing points in the Swap Curve,
-         *           the missing points need to be inferred (in order to Bootstrap).
-         *
-         *           For that purpose an Interpolator is used. Please note
-         *           that this is an interpolator for the swap curve.
-         *           Therefore it is different from the  Interpolator used to
-         *           interpolate the Zero Rate Curve.
-         */
-        RatesCurve fullSwapCurve;
-        if (dataPointList.stream().anyMatch(dataPoint -> dataPoint.getType().equals(RateType.SWAP))) {
-            RatesCurve swapsRatesCurve = new RatesCurve(dataPointList, RateType.SWAP);
-            Interpolation swapInterpolator = ModelFactory.createModel(modelType, swapsRatesCurve);
-            fullSwapCurve = RatesCurveUtils.getFullSwapsCurveAfterInterpolatingMissingMaturities(swapsRatesCurve, swapInterpolator);
-
-            /** Step 4:   Bootstraps the zero rates from the Swaps Curve and adds the new points to the Zero Curve.
-             *            It uses the Zero Curve Cubic Splines Interpolator to get the zero rates and discount the
-             *            Swap Cash Flows.
-             *            As new zero rate points are added to the zero curve, the Zero Curve Cubic Splines Interpolator
-             *            is updated iteratively.
-             */
-            for (int index = 0; index < fullSwapCurve.size(); index++) {
-                Swap swap = new Swap(fullSwapCurve.getMaturity(index), fullSwapCurve.getRate(index), fullSwapCurve.getCashFlowYearlyFrequency());
-                RatePoint zeroRatePoint = new RatePoint(swap.getSwapTermInYears(), swap.bootStrapAndGetZeroRate(interpolator), RateBasis.CONTINOUS);
-                zeroRateCurve.add(zeroRatePoint);
-                interpolator = ModelFactory.createModel(modelType, zeroRateCurve);
-            }
-        }
+        RatesCurve zeroRatesCurve = new RatesCurve(dataPointList, RateType.CASH);
+        RatesCurve swapsRatesCurve = dataPointList.stream().anyMatch(dataPoint -> dataPoint.getType().equals(RateType.SWAP)) ?
+                new RatesCurve(dataPointList, RateType.SWAP) : null;
+        interpolator = ModelFactory.getModelCache().getModel(new CurveKey(modelType, zeroRatesCurve, swapsRatesCurve),
+                () -> new BootstrapEngine(modelType).bootstrap(zeroRatesCurve, swapsRatesCurve).getInterpolation());
       //  printResults(interpolator);
 
 
@@ -107,6 +103,10 @@ public class ZeroCurveApplication extends Application {
     public void start(Stage primaryStage) throws Exception {
         window = primaryStage;
         window.setTitle("test");
+        this.zeroCurveLineChart.setCreateSymbols(false);
+        this.zeroCurveLineChart.setAnimated(false);
+        this.fwdCurveLineChart.setCreateSymbols(false);
+        this.fwdCurveLineChart.setAnimated(false);
         /// Grid Pane
         GridPane gridPane = new GridPane();
         gridPane.setPadding(new Insets(20, 5, 10, 10));
@@ -121,12 +121,11 @@ public class ZeroCurveApplication extends Application {
         modelChoiceBox.getItems().addAll("Cubic Splines", "Monotone Convex");
         modelChoiceBox.setValue("Select Model...");
         //ChoiceBoxResultLabel
-        Label labelChoiceBox = new Label("");
-        choiceBox.getSelectionModel().selectedItemProperty().addListener((v, oldValue, newValue) -> updateChartAndDisplayedData(labelChoiceBox, choiceBox.getValue(), modelChoiceBox.getValue()));
+        choiceBox.getSelectionModel().selectedItemProperty().addListener((v, oldValue, newValue) -> updateChartAndDisplayedData(this.labelChoiceBox, choiceBox.getValue(), modelChoiceBox.getValue()));
         choiceBox.setValue("GBP Zero Curve");
-        labelChoiceBox.setFont(Font.font("Verdana", 20));
+        this.labelChoiceBox.setFont(Font.font("Verdana", 20));
 
-        modelChoiceBox.getSelectionModel().selectedItemProperty().addListener((v, oldValue, newValue) -> updateChartAndDisplayedData(labelChoiceBox, choiceBox.getValue(), modelChoiceBox.getValue()));
+        modelChoiceBox.getSelectionModel().selectedItemProperty().addListener((v, oldValue, newValue) -> updateChartAndDisplayedData(this.labelChoiceBox, choiceBox.getValue(), modelChoiceBox.getValue()));
         ///Date Picker
         maturityDatePicker.setValue(startDate);
         maturityDatePicker.valueProperty().addListener((observable, oldValue, newValue) -> updateDateSelected());
@@ -167,12 +166,12 @@ public class ZeroCurveApplication extends Application {
         GridPane.setConstraints(applicationTitleLabel, 0, 0);
         GridPane.setHalignment(closeButton, HPos.RIGHT);
         GridPane.setValignment(this.rateLabel, VPos.TOP);
-        labelChoiceBox.setAlignment(Pos.CENTER);
+        this.labelChoiceBox.setAlignment(Pos.CENTER);
         GridPane.setConstraints(modelChoiceBox, 3, 0);
         GridPane.setConstraints(choiceBoxDescriptionLabel, 1, 2);
         GridPane.setConstraints(choiceBox, 1, 3);
-        GridPane.setConstraints(labelChoiceBox, 3, 3);
-        GridPane.setHalignment(labelChoiceBox, HPos.CENTER);
+        GridPane.setConstraints(this.labelChoiceBox, 3, 3);
+        GridPane.setHalignment(this.labelChoiceBox, HPos.CENTER);
         GridPane.setConstraints(termYearsLabel, 0, 2);
         GridPane.setConstraints(this.maturityDatePicker, 0, 3);
         GridPane.setConstraints(fwdChartLabel, 3, 12);
@@ -200,7 +199,7 @@ public class ZeroCurveApplication extends Application {
         GridPane.setConstraints(closeButton, 6, 13);
         //////
         gridPane.getChildren().addAll(fwdEndLabel, fwdStartLabel, this.fwdChartRateEndDatePicker, this.fwdChartRateStartDatePicker, this.fwdCurveLineChart, applicationTitleLabel,
-                this.zeroCurveLineChart, this.maturityDatePicker, this.rateLabel, choiceBox, labelChoiceBox, choiceBoxDescriptionLabel, termYearsLabel, closeButton,
+                this.zeroCurveLineChart, this.maturityDatePicker, this.rateLabel, choiceBox, this.labelChoiceBox, choiceBoxDescriptionLabel, termYearsLabel, closeButton,
                 this.fwdRateLabel, fwdChartLabel, this.fwdRateStartDatePicker, this.fwdRateEndDatePicker, fwdStartRateLabel, fwdEndRateLabel, modelChoiceBox);
 
         Scene scene = new Scene(gridPane, 1250, 850);
@@ -208,54 +207,75 @@ public class ZeroCurveApplication extends Application {
         this.window.show();
     }
 
-    private LineChart<Number, Number> getZeroCurveLineChart() throws InterpolationException {
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        series.setName("Zero Rates Curve");
-        ObservableList<XYChart.Series<Number, Number>> answer = FXCollections.observableArrayList();
-        double printStartTerm = 0;
-        double term = 0;
-        for (int i = 0; term < interpolator.getLastTerm(); i++) {
-            term = printStartTerm + i * 0.25;
-            System.out.println("Time Bucket: " + term + " Zero Rate: " + String.format("%.04f", 100 * interpolator.getModeledRate(term)) + "%");
-            series.getData().add(new XYChart.Data<>(term, 100 * interpolator.getModeledRate(term)));
-        }
-        answer.add(series);
-        this.zeroCurveLineChart.getData().clear();
-        this.zeroCurveLineChart.setData(answer);
+    @Override
+    public void stop() {
+        this.chartExecutor.shutdownNow();
+    }
 
+    private LineChart<Number, Number> getZeroCurveLineChart() {
+        if (this.zeroCurveTask != null) {
+            this.zeroCurveTask.cancel();
+        }
+        this.zeroCurveTask = this.submitSeries(this.zeroCurveLineChart, "Zero Rates Curve", CurveMeasure.ZERO_RATE, 0, interpolator.getLastTerm());
         return this.zeroCurveLineChart;
     }
 
     private LineChart<Number, Number> getForwardCurveLineChart() {
-        try {
-            XYChart.Series<Number, Number> series = new XYChart.Series<>();
-            series.setName("Fwd Rates Curve");
-            ObservableList<XYChart.Series<Number, Number>> answer = FXCollections.observableArrayList();
-            LocalDate endDate = this.fwdChartRateEndDatePicker.getValue();
-            LocalDate startDate = this.fwdChartRateStartDatePicker.getValue();
-
-            if (startDate != null && endDate != null) {
-                Double startTerm = DAYS.between(today, startDate) / 365.0;
-                Double endTerm = DAYS.between(today, endDate) / 365.0;
-                while (startTerm < endTerm) {
-                    startTerm += 0.01;
-                    series.getData().add(new XYChart.Data<>(startTerm, 100 * interpolator.getForwardRate(startTerm)));
-                }
-                ((NumberAxis) this.fwdCurveLineChart.getXAxis()).setForceZeroInRange(false);
-                ((NumberAxis) this.fwdCurveLineChart.getYAxis()).setForceZeroInRange(false);
-                this.fwdCurveLineChart.getXAxis().setAutoRanging(true);
+        LocalDate endDate = this.fwdChartRateEndDatePicker.getValue();
+        LocalDate startDate = this.fwdChartRateStartDatePicker.getValue();
 
-                answer.add(series);
-                this.fwdCurveLineChart.getData().clear();
-                this.fwdCurveLineChart.setData(answer);
-                this.fwdCurveLineChart.getXAxis().setAutoRanging(true);
-                this.fwdCurveLineChart.getYAxis().setAutoRanging(true);
+        if (startDate != null && endDate != null) {
+            if (this.fwdCurveTask != null) {
+                this.fwdCurveTask.cancel();
             }
-        } catch (InterpolationException e) {
-            e.printStackTrace();
+            double startTerm = DAYS.between(today, startDate) / 365.0;
+            double endTerm = DAYS.between(today, endDate) / 365.0;
+            ((NumberAxis) this.fwdCurveLineChart.getXAxis()).setForceZeroInRange(false);
+            ((NumberAxis) this.fwdCurveLineChart.getYAxis()).setForceZeroInRange(false);
+            this.fwdCurveTask = this.submitSeries(this.fwdCurveLineChart, "Fwd Rates Curve", CurveMeasure.FORWARD_RATE, startTerm, endTerm);
         }
         return this.fwdCurveLineChart;
+    }
 
+    /**
+     * Samples the series in the background and sets it as the only series
+     * of the chart, unless the task was cancelled or replaced in between
+     */
+    private Task<XYChart.Series<Number, Number>> submitSeries(LineChart<Number, Number> lineChart, String name, CurveMeasure curveMeasure,
+                                                              double startTerm, double endTerm) {
+        Interpolation interpolation = interpolator;
+        int pointBudget = lineChart.getWidth() > 0
+                ? Math.max((int) lineChart.getWidth(), CurveSampler.DEFAULT_POINT_BUDGET / 4) : CurveSampler.DEFAULT_POINT_BUDGET;
+        Task<XYChart.Series<Number, Number>> task = new Task<XYChart.Series<Number, Number>>() {
+            @Override
+            protected XYChart.Series<Number, Number> call() throws InterpolationException {
+                double[][] samples = new CurveSampler(pointBudget).sample(interpolation, curveMeasure, startTerm, endTerm, this::isCancelled);
+                if (samples == null) {
+                    return null;
+                }
+                List<XYChart.Data<Number, Number>> data = new ArrayList<>(samples[0].length);
+                for (int i = 0; i < samples[0].length; i++) {
+                    data.add(new XYChart.Data<>(samples[0][i], 100 * samples[1][i]));
+                }
+                return new XYChart.Series<>(name, FXCollections.observableArrayList(data));
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (task == this.zeroCurveTask || task == this.fwdCurveTask) {
+                ObservableList<XYChart.Series<Number, Number>> answer = FXCollections.observableArrayList();
+                answer.add(task.getValue());
+                lineChart.setData(answer);
+                lineChart.getXAxis().setAutoRanging(true);
+                lineChart.getYAxis().setAutoRanging(true);
+            }
+        });
+        task.setOnFailed(event -> {
+            if (task == this.zeroCurveTask || task == this.fwdCurveTask) {
+                this.labelChoiceBox.setText(name + " not available: " + task.getException().getMessage());
+            }
+        });
+        this.chartExecutor.execute(task);
+        return task;
     }
 
     private void updateDateSelected() {
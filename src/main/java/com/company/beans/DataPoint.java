@@ -19,6 +19,7 @@ public class DataPoint {
     private LocalDate rollDate;
     private LocalDate maturity;
     private double rate;
+    private double quote;
     private Basis basis;
     private double frequency;
     private double couponBase;
@@ -34,11 +35,33 @@ public class DataPoint {
         private double couponBase;
         private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
 
+        public Builder() {
+        }
+
+        /**
+         * Starts from a copy of the data point, to change some of its fields
+         */
+        public Builder(DataPoint dataPoint) {
+            this.type = dataPoint.type;
+            this.settle = dataPoint.settle;
+            this.rollDate = dataPoint.rollDate;
+            this.maturity = dataPoint.maturity;
+            this.rate = dataPoint.quote;
+            this.basis = dataPoint.basis;
+            this.frequency = dataPoint.frequency;
+            this.couponBase = dataPoint.couponBase;
+        }
+
         public Builder withType(String type) {
             this.type = RateType.fromString(type);
             return this;
         }
 
+        public Builder withType(RateType type) {
+            this.type = type;
+            return this;
+        }
+
         public Builder withSettle(String settle) {
             try {
                 this.settle = LocalDate.parse(settle, formatter);
@@ -48,6 +71,11 @@ public class DataPoint {
             return this;
         }
 
+        public Builder withSettle(LocalDate settle) {
+            this.settle = settle;
+            return this;
+        }
+
         public Builder withRollDate(String rollDate) {
             try {
                 this.rollDate = LocalDate.parse(rollDate, formatter);
@@ -57,6 +85,11 @@ public class DataPoint {
             return this;
         }
 
+        public Builder withRollDate(LocalDate rollDate) {
+            this.rollDate = rollDate;
+            return this;
+        }
+
         public Builder withMaturity(String maturity) {
             try {
                 this.maturity = LocalDate.parse(maturity, formatter);
@@ -66,16 +99,31 @@ public class DataPoint {
             return this;
         }
 
+        public Builder withMaturity(LocalDate maturity) {
+            this.maturity = maturity;
+            return this;
+        }
+
         public Builder withRate(String rate) {
             this.rate = Double.valueOf(rate);
             return this;
         }
 
+        public Builder withRate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
         public Builder withBasis(String basis) {
             this.basis = Basis.fromString(basis);
             return this;
         }
 
+        public Builder withBasis(Basis basis) {
+            this.basis = basis;
+            return this;
+        }
+
         public Builder withFrequency(String frequency) {
             try {
                 this.frequency = Double.valueOf(frequency);
@@ -85,6 +133,11 @@ public class DataPoint {
             return this;
         }
 
+        public Builder withFrequency(double frequency) {
+            this.frequency = frequency;
+            return this;
+        }
+
         public Builder withCouponBase(String couponBase) {
             try {
                 this.couponBase = Double.valueOf(couponBase);
@@ -94,6 +147,11 @@ public class DataPoint {
             return this;
         }
 
+        public Builder withCouponBase(double couponBase) {
+            this.couponBase = couponBase;
+            return this;
+        }
+
         public DataPoint build() {
             return new DataPoint(this);
         }
@@ -107,6 +165,7 @@ public class DataPoint {
         this.basis = builder.basis;
         this.frequency = builder.frequency;
         this.couponBase = builder.couponBase;
+        this.quote = builder.rate;
         this.rate = builder.rate * 1 / this.couponBase;
     }
 
@@ -131,6 +190,13 @@ public class DataPoint {
         return rate;
     }
 
+    /**
+     * The rate as quoted in the file, getRate is the quote divided by the coupon basis
+     */
+    public double getQuote() {
+        return quote;
+    }
+
     public Basis getBasis() {
         return basis;
     }
@@ -1,39 +1,118 @@
 package com.company.beans;
 
 import com.company.Utils.MathUtils;
+import com.company.enums.MetricPhase;
+import com.company.enums.RateBasis;
 import com.company.enums.RateType;
+import com.company.metrics.Metrics;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class holds the information of the
  * different points in an interest rate curve.
- * It is a wrapper class for a list of rate
- * points
+ * <p>
+ * The points are stored in parallel primitive arrays
+ * (maturities, rates and capitalX) kept sorted by maturity:
+ * a point is inserted at its binary search position, so
+ * points added in ascending order cost O(1) and there is
+ * no object per point.
  *
  * @author Jose Gonzalez
  */
 public class RatesCurve {
-    /** List with rate points in the curve*/
-    private List<RatePoint> ratePointsList = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 16;
+    /** Points closer than half a day are the same point, see RatePoint.equals */
+    private static final double MATURITY_TOLERANCE = 0.5 / 365;
+    private double[] maturities = new double[INITIAL_CAPACITY];
+    private double[] rates = new double[INITIAL_CAPACITY];
+    private double[] capitalX = new double[INITIAL_CAPACITY];
+    private int size;
     private Double cashFlowYearlyFrequency;
 
     public RatesCurve(){}
 
     public RatesCurve(List<DataPoint> dataPointList, RateType rateType){
+        long start = Metrics.start();
         this.addDataPointList(dataPointList,rateType);
+        Metrics.record(MetricPhase.RATES_CURVE_BUILD, start);
+    }
+
+    public RatesCurve(RatesCurve ratesCurve){
+        this.maturities = Arrays.copyOf(ratesCurve.maturities, Math.max(ratesCurve.size, INITIAL_CAPACITY));
+        this.rates = Arrays.copyOf(ratesCurve.rates, this.maturities.length);
+        this.capitalX = Arrays.copyOf(ratesCurve.capitalX, this.maturities.length);
+        this.size = ratesCurve.size;
+        this.cashFlowYearlyFrequency = ratesCurve.cashFlowYearlyFrequency;
     }
 
     public void add(RatePoint ratePoint){
-        int numberOfDiscretePoints= this.ratePointsList.size();
+        this.add(ratePoint.getYearsToMaturity(), ratePoint.getRate());
+    }
+
+    /**
+     * Inserts the point after any point with the same maturity
+     * and updates capitalX (distance to the next maturity) of the
+     * point and of the one before it
+     */
+    public void add(double maturity, double rate){
+        int index = this.getInsertionIndex(maturity);
+        if (this.size == this.maturities.length) {
+            int capacity = this.maturities.length * 2;
+            this.maturities = Arrays.copyOf(this.maturities, capacity);
+            this.rates = Arrays.copyOf(this.rates, capacity);
+            this.capitalX = Arrays.copyOf(this.capitalX, capacity);
+        }
+        if (index < this.size) {
+            System.arraycopy(this.maturities, index, this.maturities, index + 1, this.size - index);
+            System.arraycopy(this.rates, index, this.rates, index + 1, this.size - index);
+            System.arraycopy(this.capitalX, index, this.capitalX, index + 1, this.size - index);
+        }
+        this.maturities[index] = maturity;
+        this.rates[index] = rate;
+        this.size++;
 
-        if( numberOfDiscretePoints>0){ //firstly sets capitalX in the discrete rate point
-            double tempCapitalX = ratePoint.getYearsToMaturity()-this.ratePointsList.get( numberOfDiscretePoints-1).getYearsToMaturity();
-            this.ratePointsList.get( numberOfDiscretePoints-1).setCapitalX(tempCapitalX);
+        this.capitalX[index] = index < this.size - 1 ? this.maturities[index + 1] - maturity : 0;
+        if (index > 0) {
+            this.capitalX[index - 1] = maturity - this.maturities[index - 1];
+        }
+    }
+
+    /**
+     * Adds the point unless the curve already has a point within
+     * half a day of its maturity
+     *
+     * @return true if the point was added
+     */
+    public boolean addIfAbsent(double maturity, double rate){
+        int index = this.getInsertionIndex(maturity);
+        if ((index > 0 && maturity - this.maturities[index - 1] < MATURITY_TOLERANCE)
+                || (index < this.size && this.maturities[index] - maturity < MATURITY_TOLERANCE)) {
+            return false;
+        }
+        this.add(maturity, rate);
+        return true;
+    }
+
+    /**
+     * Index of the first point with a maturity greater than the given one
+     */
+    private int getInsertionIndex(double maturity){
+        if (this.size == 0 || maturity >= this.maturities[this.size - 1]) {
+            return this.size;
+        }
+        int low = 0;
+        int high = this.size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.maturities[middle] <= maturity) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
-        this.ratePointsList.add(ratePoint);
-        this.ratePointsList.sort(Comparator.comparing(rate->rate.getYearsToMaturity()));
+        return low;
     }
 
     public Double getCashFlowYearlyFrequency() {
@@ -41,22 +120,18 @@ public class RatesCurve {
     }
 
     public double lastTermInCurve(){
-        this.ratePointsList.sort(Comparator.comparing(ratePoint->ratePoint.getYearsToMaturity()));
-        return this.ratePointsList.get(this.ratePointsList.size()-1).getYearsToMaturity();
+        return this.maturities[this.size - 1];
     }
 
     public double firstTermInCurve(){
-        this.ratePointsList.sort(Comparator.comparing(ratePoint->ratePoint.getYearsToMaturity()));
-        return this.ratePointsList.get(0).getYearsToMaturity();
+        return this.maturities[0];
     }
 
     private void addDataPointList(List<DataPoint> dataPointList, RateType rateType){
         dataPointList.stream().filter(dataPoint -> dataPoint.getType().equals(rateType))
                 .forEach(dataPoint -> {
                     RatePoint ratePoint = new RatePoint(dataPoint);
-                    if( !this.ratePointsList.contains(ratePoint) ){
-                        this.add(ratePoint);
-                    }
+                    this.addIfAbsent(ratePoint.getYearsToMaturity(), ratePoint.getRate());
                 });
 
         if(rateType.equals(RateType.SWAP)) {
@@ -65,23 +140,47 @@ public class RatesCurve {
     }
 
     public double getMaturity(int index){
-        return this.ratePointsList.get(index).getYearsToMaturity();
+        return this.maturities[index];
     }
 
     public double getRate(int index) {
-        return this.ratePointsList.get(index).getRate();
+        return this.rates[index];
     }
 
     public double getContinousRate(int index) {
-        return this.ratePointsList.get(index).getContinousRate();
+        return Math.log(1 + this.rates[index]) / this.maturities[index];
     }
 
     public double getCapitalX(int index){
-        return this.ratePointsList.get(index).getCapitalX();
+        return this.capitalX[index];
+    }
+
+    /**
+     * Copies the maturities, in ascending order, into the destination array
+     * starting at destinationIndex
+     */
+    public void copyMaturities(double[] destination, int destinationIndex){
+        System.arraycopy(this.maturities, 0, destination, destinationIndex, this.size);
+    }
+
+    /**
+     * Copies the rates, in ascending maturity order, into the destination
+     * array starting at destinationIndex
+     */
+    public void copyRates(double[] destination, int destinationIndex){
+        System.arraycopy(this.rates, 0, destination, destinationIndex, this.size);
+    }
+
+    public double[] getMaturities(){
+        return Arrays.copyOf(this.maturities, this.size);
+    }
+
+    public double[] getRates(){
+        return Arrays.copyOf(this.rates, this.size);
     }
 
     public int size(){
-        return this.ratePointsList.size();
+        return this.size;
     }
 
     public void setCashFlowYearlyFrequency(Double cashFlowYearlyFrequency) {
@@ -89,18 +188,38 @@ public class RatesCurve {
     }
 
     public boolean negativeRatesPresent(){
-       return this.ratePointsList.stream().anyMatch(ratePoint -> ratePoint.getRate()<0);
+        for (int i = 0; i < this.size; i++) {
+            if (this.rates[i] < 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void setRate(double rate, int index){
-        this.ratePointsList.get(index).setRate(rate);
+        this.rates[index] = rate;
     }
 
     public boolean termZeroNotPresent(){
-       return this.ratePointsList.stream().anyMatch(ratePoint -> MathUtils.almostZero(ratePoint.getYearsToMaturity()));
+        for (int i = 0; i < this.size; i++) {
+            if (MathUtils.almostZero(this.maturities[i])) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * The points of the curve as RatePoints. The list is a copy:
+     * changes to it are not reflected in the curve.
+     */
     public List<RatePoint> getRatePointsList() {
+        List<RatePoint> ratePointsList = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            RatePoint ratePoint = new RatePoint(this.maturities[i], this.rates[i], RateBasis.ANNUALIZED);
+            ratePoint.setCapitalX(this.capitalX[i]);
+            ratePointsList.add(ratePoint);
+        }
         return ratePointsList;
     }
 
@@ -13,6 +13,9 @@ import static java.time.temporal.ChronoUnit.DAYS;
  * information for all the swap cash flows. That
  * way the Zero Rate for the cash flow maturity
  * can be bootstrapped.
+ * <p>
+ * Once the curve is built the swap can be valued
+ * against it, see getPresentValue.
  *
  * @author Jose Gonzalez
  */
@@ -29,6 +32,7 @@ public class Swap {
     public Swap(DataPoint dataPoint) {
         this.fixedRate = dataPoint.getRate();
         this.swapTermInYears = DAYS.between(dataPoint.getSettle(), dataPoint.getMaturity()) / DAYS_IN_YEAR;
+        this.yearlyFrequency = dataPoint.getFrequency();
         this.frequencyInYears = 1 / dataPoint.getFrequency();
         this.totalNumberOfCashFlow = Math.round(this.swapTermInYears * this.yearlyFrequency);
     }
@@ -55,8 +59,48 @@ public class Swap {
         return zeroRateSwapTerm;
     }
 
+    /**
+     * Present value per unit notional of receiving the fixed coupons and
+     * paying the floating leg, which is worth par at settlement:
+     * <p>
+     * PV = coupon.(DF(t1) + ... + DF(tn)) + DF(tn) - 1
+     * <p>
+     * The last cash flow is paid at the swap term.
+     */
+    public double getPresentValue(Interpolation interpolation) throws InterpolationException {
+        double coupon = this.fixedRate / this.yearlyFrequency;
+        double sumOfDiscountFactors = 0;
+        for (int i = 1; i < this.totalNumberOfCashFlow; i++) {
+            sumOfDiscountFactors += interpolation.getDiscountFactor(i * this.frequencyInYears);
+        }
+        double lastDiscountFactor = interpolation.getDiscountFactor(this.swapTermInYears);
+        return coupon * (sumOfDiscountFactors + lastDiscountFactor) + lastDiscountFactor - 1;
+    }
+
+    /**
+     * The terms of the fixed coupons, in ascending order: one every
+     * period and the last one at the swap term
+     */
+    public double[] getCashFlowTerms() {
+        int numberOfCashFlows = (int) Math.max(this.totalNumberOfCashFlow - 1, 0) + 1;
+        double[] cashFlowTerms = new double[numberOfCashFlows];
+        for (int i = 1; i < numberOfCashFlows; i++) {
+            cashFlowTerms[i - 1] = i * this.frequencyInYears;
+        }
+        cashFlowTerms[numberOfCashFlows - 1] = this.swapTermInYears;
+        return cashFlowTerms;
+    }
+
     public double getSwapTermInYears() {
         return swapTermInYears;
     }
 
+    public double getFixedRate() {
+        return fixedRate;
+    }
+
+    public double getYearlyFrequency() {
+        return yearlyFrequency;
+    }
+
 }
@@ -0,0 +1,98 @@
+package com.company.bootstrap;
+
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.beans.Swap;
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
+import com.company.enums.RateBasis;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.IncrementalInterpolation;
+import com.company.interfaces.Interpolation;
+import com.company.metrics.Metrics;
+
+import java.util.List;
+
+/**
+ * Bootstraps a zero rates curve from cash and swap rates.
+ * <p>
+ * Step 1: the zero curve starts with the cash rates and its interpolator
+ * is calibrated.
+ * <p>
+ * Step 2: missing maturities in the swap curve are filled in with an
+ * interpolator of the swap rates (different from the zero curve one).
+ * <p>
+ * Step 3: for every swap the zero rate at its maturity is bootstrapped by
+ * discounting its coupons with the zero curve interpolator, and the new
+ * point is added to the zero curve.
+ * <p>
+ * When the interpolator is an IncrementalInterpolation, the bootstrapped
+ * point is appended to it instead of calibrating the model again from the
+ * whole curve. Each append is an O(n) array copy; the recalibration is
+ * O(1) for MonotoneConvex, which only sets up the segments next to the
+ * new knot, and O(n) for CubicSplines, so the build cost is dominated
+ * by discounting the swap coupons.
+ * <p>
+ * The engine holds no state and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class BootstrapEngine {
+    private final ModelType modelType;
+
+    public BootstrapEngine(ModelType modelType) {
+        this.modelType = modelType;
+    }
+
+    public BootstrappedCurve bootstrap(List<DataPoint> dataPointList) throws InterpolationException {
+        RatesCurve zeroRatesCurve = new RatesCurve(dataPointList, RateType.CASH);
+        RatesCurve swapsRatesCurve = dataPointList.stream().anyMatch(dataPoint -> dataPoint.getType().equals(RateType.SWAP)) ?
+                new RatesCurve(dataPointList, RateType.SWAP) : null;
+        return this.bootstrap(zeroRatesCurve, swapsRatesCurve);
+    }
+
+    /**
+     * Bootstraps the swaps onto the zero rates curve. The bootstrapped points
+     * are added to zeroRatesCurve; swapsRatesCurve can be null when there
+     * are only cash rates.
+     */
+    public BootstrappedCurve bootstrap(RatesCurve zeroRatesCurve, RatesCurve swapsRatesCurve) throws InterpolationException {
+        long start = Metrics.start();
+        Interpolation interpolator = ModelFactory.createModel(this.modelType, zeroRatesCurve);
+
+        if (swapsRatesCurve != null) {
+            Interpolation swapInterpolator = ModelFactory.createModel(this.modelType, swapsRatesCurve);
+            RatesCurve fullSwapCurve = RatesCurveUtils.getFullSwapsCurveAfterInterpolatingMissingMaturities(swapsRatesCurve, swapInterpolator);
+
+            long swapBootstrapStart = Metrics.start();
+            for (int index = 0; index < fullSwapCurve.size(); index++) {
+                Swap swap = new Swap(fullSwapCurve.getMaturity(index), fullSwapCurve.getRate(index), fullSwapCurve.getCashFlowYearlyFrequency());
+                RatePoint zeroRatePoint = new RatePoint(swap.getSwapTermInYears(), swap.bootStrapAndGetZeroRate(interpolator), RateBasis.CONTINOUS);
+                zeroRatesCurve.add(zeroRatePoint);
+                interpolator = this.addPoint(interpolator, zeroRatesCurve, zeroRatePoint);
+            }
+            Metrics.record(MetricPhase.SWAP_BOOTSTRAP, swapBootstrapStart);
+        }
+        Metrics.record(MetricPhase.CURVE_BUILD, start);
+        return new BootstrappedCurve(this.modelType, zeroRatesCurve, interpolator);
+    }
+
+    /**
+     * Appends the point to the interpolator when possible, otherwise
+     * calibrates a new one from the zero rates curve
+     */
+    private Interpolation addPoint(Interpolation interpolator, RatesCurve zeroRatesCurve, RatePoint ratePoint) throws InterpolationException {
+        if (interpolator instanceof IncrementalInterpolation && ratePoint.getYearsToMaturity() > interpolator.getLastTerm()) {
+            return ((IncrementalInterpolation) interpolator).appendKnot(ratePoint.getYearsToMaturity(), ratePoint.getRate());
+        }
+        return ModelFactory.createModel(this.modelType, zeroRatesCurve);
+    }
+
+    public ModelType getModelType() {
+        return modelType;
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.bootstrap;
+
+import com.company.beans.RatesCurve;
+import com.company.enums.ModelType;
+import com.company.interfaces.Interpolation;
+
+/**
+ * Result of a zero curve bootstrap: the zero rates curve (cash
+ * rates plus one bootstrapped point per swap) and the interpolator
+ * calibrated on it.
+ *
+ * @author Jose Gonzalez
+ */
+public class BootstrappedCurve {
+    private final ModelType modelType;
+    private final RatesCurve zeroRatesCurve;
+    private final Interpolation interpolation;
+
+    public BootstrappedCurve(ModelType modelType, RatesCurve zeroRatesCurve, Interpolation interpolation) {
+        this.modelType = modelType;
+        this.zeroRatesCurve = zeroRatesCurve;
+        this.interpolation = interpolation;
+    }
+
+    public ModelType getModelType() {
+        return modelType;
+    }
+
+    public RatesCurve getZeroRatesCurve() {
+        return zeroRatesCurve;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+}
@@ -0,0 +1,67 @@
+package com.company.cache;
+
+import com.company.beans.RatesCurve;
+import com.company.enums.ModelType;
+
+import java.util.Arrays;
+
+/**
+ * Cache key of a calibrated curve: the model type and a copy of the
+ * maturities and rates of the curves it is calibrated from, with the
+ * cash flow frequency of the swaps curve. The hash
+ * is computed once from the contents, equality compares the contents,
+ * so two RatesCurve instances with the same points share the key and
+ * later changes to a curve do not change the key.
+ *
+ * @author Jose Gonzalez
+ */
+public final class CurveKey {
+    private final ModelType modelType;
+    private final double[][] contents;
+    private final int hash;
+
+    public CurveKey(ModelType modelType, RatesCurve ratesCurve) {
+        this(modelType, ratesCurve, null);
+    }
+
+    /**
+     * Key of a curve bootstrapped from a zero rates curve and a swaps
+     * rates curve, which can be null. The swaps frequency is part of the
+     * key as the bootstrap uses it for the missing maturities and the
+     * swap cash flows
+     */
+    public CurveKey(ModelType modelType, RatesCurve zeroRatesCurve, RatesCurve swapsRatesCurve) {
+        this.modelType = modelType;
+        this.contents = swapsRatesCurve == null ?
+                new double[][]{zeroRatesCurve.getMaturities(), zeroRatesCurve.getRates()} :
+                new double[][]{zeroRatesCurve.getMaturities(), zeroRatesCurve.getRates(), swapsRatesCurve.getMaturities(), swapsRatesCurve.getRates(),
+                        new double[]{getFrequency(swapsRatesCurve)}};
+        this.hash = 31 * modelType.hashCode() + Arrays.deepHashCode(this.contents);
+    }
+
+    private static double getFrequency(RatesCurve swapsRatesCurve) {
+        Double frequency = swapsRatesCurve.getCashFlowYearlyFrequency();
+        return frequency == null ? Double.NaN : frequency;
+    }
+
+    public ModelType getModelType() {
+        return this.modelType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof CurveKey)) {
+            return false;
+        }
+
+        CurveKey object = (CurveKey) o;
+
+        return this.hash == object.hash && this.modelType == object.modelType && Arrays.deepEquals(this.contents, object.contents);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
@@ -0,0 +1,103 @@
+package com.company.cache;
+
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of calibrated curves keyed by CurveKey.
+ * <p>
+ * When the cache is full the least recently used curve is evicted.
+ * A miss calibrates the curve outside the lock, so a slow calibration
+ * does not block lookups of other curves; if two threads miss the same
+ * key the first curve stored is kept and returned to both.
+ * <p>
+ * Calibrated curves are immutable, so a cached instance can be handed
+ * to any number of threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class ModelCache {
+    private final int maximumSize;
+    private final LinkedHashMap<CurveKey, Interpolation> models;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ModelCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.models = new LinkedHashMap<CurveKey, Interpolation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CurveKey, Interpolation> eldest) {
+                if (size() > ModelCache.this.maximumSize) {
+                    ModelCache.this.evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached curve of the key, calibrated with the loader on a miss.
+     * A null curve from the loader is returned but not cached.
+     */
+    public Interpolation getModel(CurveKey curveKey, ModelLoader modelLoader) throws InterpolationException {
+        synchronized (this.models) {
+            Interpolation model = this.models.get(curveKey);
+            if (model != null) {
+                this.hits.incrementAndGet();
+                return model;
+            }
+        }
+        this.misses.incrementAndGet();
+        Interpolation model = modelLoader.load();
+        if (model == null) {
+            return null;
+        }
+        synchronized (this.models) {
+            Interpolation cachedModel = this.models.putIfAbsent(curveKey, model);
+            return cachedModel == null ? model : cachedModel;
+        }
+    }
+
+    public void invalidate(CurveKey curveKey) {
+        synchronized (this.models) {
+            this.models.remove(curveKey);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this.models) {
+            this.models.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (this.models) {
+            return this.models.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.cache;
+
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+/**
+ * Calibrates the curve of a CurveKey missing from a ModelCache
+ *
+ * @author Jose Gonzalez
+ */
+public interface ModelLoader {
+    Interpolation load() throws InterpolationException;
+}
@@ -0,0 +1,5 @@
+package com.company.enums;
+
+public enum CurveMeasure {
+    ZERO_RATE, FORWARD_RATE
+}
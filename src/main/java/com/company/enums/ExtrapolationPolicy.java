@@ -0,0 +1,5 @@
+package com.company.enums;
+
+public enum ExtrapolationPolicy {
+    FLAT_FORWARD, FLAT_RATE
+}
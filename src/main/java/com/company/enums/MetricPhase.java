@@ -0,0 +1,5 @@
+package com.company.enums;
+
+public enum MetricPhase {
+    CSV_LOAD, RATES_CURVE_BUILD, EQUATION_SOLVE, CALIBRATION, SWAP_BOOTSTRAP, CURVE_BUILD
+}
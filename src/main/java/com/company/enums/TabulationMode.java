@@ -0,0 +1,5 @@
+package com.company.enums;
+
+public enum TabulationMode {
+    LINEAR, CUBIC_HERMITE
+}
@@ -0,0 +1,38 @@
+package com.company.exceptions;
+
+import java.io.IOException;
+
+/**
+ * A row of a market data file that can not be parsed,
+ * lineNumber is the 1-based line in the file
+ *
+ * @author Jose Gonzalez
+ */
+public class MarketDataParseException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int lineNumber;
+
+    public MarketDataParseException(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public MarketDataParseException(int lineNumber, String message) {
+        super("Line " + lineNumber + ": " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    public MarketDataParseException(int lineNumber, Throwable cause) {
+        super(cause);
+        this.lineNumber = lineNumber;
+    }
+
+    public MarketDataParseException(int lineNumber, String message, Throwable cause) {
+        super("Line " + lineNumber + ": " + message, cause);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+}
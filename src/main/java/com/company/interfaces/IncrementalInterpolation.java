@@ -0,0 +1,18 @@
+package com.company.interfaces;
+
+import com.company.exceptions.InterpolationException;
+
+/**
+ * Interpolation that can be extended with a new knot after its last
+ * term without being calibrated again from scratch.
+ */
+public interface IncrementalInterpolation extends Interpolation {
+
+    /**
+     * Returns an interpolation with the knot (maturity, rate) appended.
+     * The maturity must be greater than getLastTerm(); this instance is
+     * left unchanged, so the knot arrays are copied and an append costs at
+     * least O(n) even when the recalibration is O(1).
+     */
+    IncrementalInterpolation appendKnot(double maturity, double rate) throws InterpolationException;
+}
@@ -8,4 +8,34 @@ public interface Interpolation {
     double getLastTerm();
     double getForwardRate(double xValue) throws InterpolationException;
     double getForwardRate(double startTerm, double endTerm) throws InterpolationException;
+
+    /**
+     * Batch version of getModeledRate. The rate for maturities[i] is written
+     * into rates[i]; rates must be at least as long as maturities.
+     * Implementations search each segment only once when the maturities are
+     * sorted in ascending order.
+     */
+    default void getModeledRates(double[] maturities, double[] rates) throws InterpolationException {
+        for (int i = 0; i < maturities.length; i++) {
+            rates[i] = this.getModeledRate(maturities[i]);
+        }
+    }
+
+    /**
+     * Batch version of getDiscountFactor, see getModeledRates
+     */
+    default void getDiscountFactors(double[] maturities, double[] discountFactors) throws InterpolationException {
+        for (int i = 0; i < maturities.length; i++) {
+            discountFactors[i] = this.getDiscountFactor(maturities[i]);
+        }
+    }
+
+    /**
+     * Batch version of getForwardRate(double), see getModeledRates
+     */
+    default void getForwardRates(double[] maturities, double[] forwardRates) throws InterpolationException {
+        for (int i = 0; i < maturities.length; i++) {
+            forwardRates[i] = this.getForwardRate(maturities[i]);
+        }
+    }
 }
@@ -1,10 +1,14 @@
 package com.company.interpolation;
 
+import com.company.Utils.SearchUtils;
 import com.company.beans.RatesCurve;
-import com.company.interfaces.Interpolation;
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
+import com.company.interfaces.IncrementalInterpolation;
 import com.company.exceptions.InterpolationException;
-import com.company.linearequationsystem.GaussMatrix;
-import com.company.beans.TimeBucket;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
 
 /**
  * Natural Cubic Splines interpolator class.
@@ -33,152 +37,282 @@ import com.company.beans.TimeBucket;
  * also follows the specifications of the above mentioned paper. For
  * further details review pp 16.
  * <p>
- * The linear system of equations is solved using a Gauss elimination
- * algorithm.
+ * The linear system of equations is tridiagonal, it is solved with
+ * the Thomas algorithm in O(n) time and memory.
+ * <p>
+ * The calibration stores the knots and the a, b, c and d coefficients
+ * of every segment in flat arrays. A query is a binary search (or a
+ * SegmentCursor hinted lookup) followed by a Horner evaluation.
+ * <p>
+ * Forward rates are annually compounded, like the modeled rates. With
+ * F(t) = (1 + r(t))^t the instantaneous forward is exp(d ln F / dt) - 1,
+ * which is evaluated in closed form from the derivative of the segment
+ * polynomial:
+ * <p>
+ * f(t) = (1 + r).exp(t.r' / (1 + r)) - 1
+ * <p>
+ * The equation system is factored by a SplineKnotGrid. Curves built on
+ * the same grid share the factorisation, see calibrate; appendKnot keeps
+ * the factorisation of the rows that do not change, so a knot added
+ * after the last term costs one substitution, O(n).
  *
  * @author Jose Gonzalez
  */
-public class CubicSplines implements Interpolation {
-    private RatesCurve ratesCurve;
-    private double[] bValues;
-    private TimeBucket[] timeBuckets;
-    private double lastTerm;
-    private final double SECONDS_IN_YEAR = 525600;
+public class CubicSplines implements IncrementalInterpolation {
+    private final double[] knots;
+    private final double[] aValues;
+    private final double[] bValues;
+    private final double[] cValues;
+    private final double[] dValues;
+    private final int lastSegment;
+    private final double lastTerm;
+    private final SplineKnotGrid knotGrid;
 
     public CubicSplines(RatesCurve ratesCurve) {
-        this.ratesCurve = ratesCurve;
-        this.timeBuckets = new TimeBucket[this.ratesCurve.size()];
-        this.setTimeBuckets();
-        this.lastTerm = this.ratesCurve.lastTermInCurve();
+        this(new SplineKnotGrid(ratesCurve.getMaturities()), ratesCurve.getRates(), null);
+    }
 
-        this.solveLinearEquationSystem();
+    /**
+     * Calibrates the splines through the rates of the knots of the grid,
+     * reusing the factorisation of the grid
+     */
+    public CubicSplines(SplineKnotGrid knotGrid, double[] rates) throws InterpolationException {
+        this(knotGrid, checkLength(knotGrid, rates).clone(), null);
     }
 
-    public void solveLinearEquationSystem() {
-        GaussMatrix gaussMatrix = new GaussMatrix(this.ratesCurve.size());
-        gaussMatrix.setCoefficientMatrix(this.getCoefficientMatrix());
-        gaussMatrix.setConstants(this.getConstantsVector());
-        gaussMatrix.findSolution();
-        this.bValues = gaussMatrix.getSolution();
+    /**
+     * Calibrates the splines through the d values, the b values are solved
+     * by the grid unless they are given
+     */
+    private CubicSplines(SplineKnotGrid knotGrid, double[] dValues, double[] bValues) {
+        long start = Metrics.start();
+        int size = knotGrid.size();
+        this.knotGrid = knotGrid;
+        this.knots = knotGrid.knots();
+        this.dValues = dValues;
+        this.bValues = bValues == null ? knotGrid.solve(dValues) : bValues;
+        this.lastSegment = Math.max(size - 2, 0);
+        this.lastTerm = this.knots[size - 1];
+
+        this.aValues = new double[size];
+        this.cValues = new double[size];
+        for (int i = 0; i < size - 1; i++) {
+            this.aValues[i] = this.getA(i);
+            this.cValues[i] = this.getC(i);
+        }
+        Metrics.record(MetricPhase.CALIBRATION, start);
     }
 
-    public double getModeledRate(double maturity) throws InterpolationException {
-        if (maturity <= this.lastTerm) {
-            int index = 0;
-            if (maturity < this.timeBuckets[0].getMinMaturity()) {
-                double capitalX = 0;
-                return this.getA(index) * Math.pow(capitalX, 3) + this.getB(index) * Math.pow(capitalX, 2) + this.getC(index) * capitalX + this.getD(index);
-            }
-            while (maturity >= this.timeBuckets[index].getMinMaturity()) {
-                index++;
-                if (maturity == this.timeBuckets[index].getMinMaturity()) break;
-            }
-            index--;
-            double capitalX = maturity - this.timeBuckets[index].getMinMaturity();
-
-            return this.getA(index) * Math.pow(capitalX, 3) + this.getB(index) * Math.pow(capitalX, 2) + this.getC(index) * capitalX + this.getD(index);
-        } else {
-            int index = this.timeBuckets.length - 2;
-            double capitalX = maturity - this.timeBuckets[index].getMinMaturity();
-            return this.getA(index) * Math.pow(capitalX, 3) + this.getB(index) * Math.pow(capitalX, 2) + this.getC(index) * capitalX + this.getD(index);
+    /**
+     * Calibrates one curve per rates scenario on the same knots: the
+     * equation system is factored once by the grid and solved for all the
+     * scenarios in one batch
+     */
+    public static CubicSplines[] calibrate(SplineKnotGrid knotGrid, double[][] rateScenarios) throws InterpolationException {
+        for (double[] rates : rateScenarios) {
+            checkLength(knotGrid, rates);
+        }
+        double[][] bValues = knotGrid.solve(rateScenarios);
+        CubicSplines[] cubicSplines = new CubicSplines[rateScenarios.length];
+        for (int i = 0; i < rateScenarios.length; i++) {
+            cubicSplines[i] = new CubicSplines(knotGrid, rateScenarios[i].clone(), bValues[i]);
+        }
+        return cubicSplines;
+    }
 
+    @Override
+    public CubicSplines appendKnot(double maturity, double rate) throws InterpolationException {
+        if (maturity <= this.lastTerm) {
+            throw new InterpolationException("Knot at " + maturity + " is not after the last term " + this.lastTerm);
         }
+        SplineKnotGrid knotGrid = this.knotGrid.append(maturity);
+        double[] dValues = Arrays.copyOf(this.dValues, this.dValues.length + 1);
+        dValues[this.dValues.length] = rate;
+        return new CubicSplines(knotGrid, dValues, null);
+    }
+
+    public double getModeledRate(double maturity) throws InterpolationException {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        return this.getModeledRate(maturity, SearchUtils.findSegment(this.knots, this.lastSegment, maturity));
+    }
+
+    /**
+     * Same as getModeledRate, starting the segment search from the cursor
+     */
+    public double getModeledRate(double maturity, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        cursor.index = SearchUtils.findSegment(this.knots, this.lastSegment, maturity, cursor.index);
+        return this.getModeledRate(maturity, cursor.index);
     }
 
     @Override
     public double getForwardRate(double maturity) throws InterpolationException {
-        double fwdValueMaturity = Math.pow((1 + this.getModeledRate(maturity)),maturity);
-        double fwdValueMaturityEpsilon = Math.pow((1 + this.getModeledRate(maturity+ 1 / SECONDS_IN_YEAR)),maturity+ 1 / SECONDS_IN_YEAR);
-        return Math.pow(fwdValueMaturityEpsilon / fwdValueMaturity, 1/(maturity+ 1 / SECONDS_IN_YEAR - maturity)) - 1;
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        return this.getForwardRate(maturity, SearchUtils.findSegment(this.knots, this.lastSegment, maturity));
     }
 
+    /**
+     * Same as getForwardRate, starting the segment search from the cursor
+     */
+    public double getForwardRate(double maturity, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        cursor.index = SearchUtils.findSegment(this.knots, this.lastSegment, maturity, cursor.index);
+        return this.getForwardRate(maturity, cursor.index);
+    }
+
+    /**
+     * Forward rate between the two terms. The search for the end term starts
+     * from the segment of the start term.
+     */
     public double getForwardRate(double startTerm, double endTerm) throws InterpolationException {
-        double fwdValueEndTerm = Math.pow((1 + this.getModeledRate(endTerm)),endTerm);
-        double fwdValueStartTerm = Math.pow((1 + this.getModeledRate(startTerm)),startTerm);
-        return Math.pow(fwdValueEndTerm / fwdValueStartTerm, 1/(endTerm - startTerm)) - 1;
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        int startIndex = SearchUtils.findSegment(this.knots, this.lastSegment, startTerm);
+        return this.getForwardRate(startTerm, startIndex, endTerm, SearchUtils.findSegment(this.knots, this.lastSegment, endTerm, startIndex));
+    }
+
+    /**
+     * Same as getForwardRate(startTerm, endTerm), starting the segment search
+     * from the cursor. The cursor is left at the segment of the end term, so
+     * a strip of consecutive periods searches every segment once.
+     */
+    public double getForwardRate(double startTerm, double endTerm, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        int startIndex = SearchUtils.findSegment(this.knots, this.lastSegment, startTerm, cursor.index);
+        cursor.index = SearchUtils.findSegment(this.knots, this.lastSegment, endTerm, startIndex);
+        return this.getForwardRate(startTerm, startIndex, endTerm, cursor.index);
     }
 
     public double getDiscountFactor(double xValue) throws InterpolationException {
-        double rate = this.getModeledRate(xValue);
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        double rate = this.getModeledRate(xValue, SearchUtils.findSegment(this.knots, this.lastSegment, xValue));
         return Math.exp(-rate * xValue);
     }
 
+    /**
+     * Same as getDiscountFactor, starting the segment search from the cursor
+     */
+    public double getDiscountFactor(double xValue, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, 1);
+        cursor.index = SearchUtils.findSegment(this.knots, this.lastSegment, xValue, cursor.index);
+        return Math.exp(-this.getModeledRate(xValue, cursor.index) * xValue);
+    }
+
+    @Override
+    public void getModeledRates(double[] maturities, double[] rates) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, maturities.length);
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.knots, this.lastSegment, maturities[i], index);
+            rates[i] = this.getModeledRate(maturities[i], index);
+        }
+    }
+
+    @Override
+    public void getDiscountFactors(double[] maturities, double[] discountFactors) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, maturities.length);
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.knots, this.lastSegment, maturities[i], index);
+            discountFactors[i] = Math.exp(-this.getModeledRate(maturities[i], index) * maturities[i]);
+        }
+    }
+
+    @Override
+    public void getForwardRates(double[] maturities, double[] forwardRates) {
+        Metrics.countQueries(ModelType.CUBIC_SPLINES, maturities.length);
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.knots, this.lastSegment, maturities[i], index);
+            forwardRates[i] = this.getForwardRate(maturities[i], index);
+        }
+    }
+
     public double getLastTerm() {
         return lastTerm;
     }
 
+    public double[] getKnots() {
+        return this.knots.clone();
+    }
+
     /**
-     * Creates the time buckets that define the piece wise
-     * interpolation of the curve
+     * The grid of the knots, to calibrate other curves on the same knots
      */
-    private void setTimeBuckets() {
-        for (int i = 0; i < this.ratesCurve.size(); i++) {
-            if (i < this.ratesCurve.size() - 1) {
-                this.timeBuckets[i] = new TimeBucket(this.ratesCurve.getMaturity(i), this.ratesCurve.getMaturity(i + 1));
-            } else {
-                this.timeBuckets[i] = new TimeBucket(this.ratesCurve.getMaturity(i), Double.MAX_VALUE);
-            }
-        }
+    public SplineKnotGrid getKnotGrid() {
+        return this.knotGrid;
     }
 
-    private double[] getConstantsVector() {
-        double[] constants = new double[this.ratesCurve.size()];
-        for (int row = 0; row < this.ratesCurve.size(); row++) {
-            if (row == 0) {
-                constants[row] = 0;
-            } else if (row == this.ratesCurve.size() - 1) {
-                constants[row] = 0;
-            } else {
-                constants[row] = constantValue(row);
-            }
-        }
-        return constants;
+    /**
+     * The coefficients of every segment, the last knot has none
+     */
+    public double[] getAValues() {
+        return this.aValues.clone();
     }
 
+    public double[] getBValues() {
+        return this.bValues.clone();
+    }
+
+    public double[] getCValues() {
+        return this.cValues.clone();
+    }
 
-    private double[][] getCoefficientMatrix() {
-        double[][] coefficientMatrix = new double[this.ratesCurve.size()][this.ratesCurve.size()];
-        int boost = 0;
-        for (int row = 0; row < this.ratesCurve.size(); row++) {
+    public double[] getDValues() {
+        return this.dValues.clone();
+    }
 
-            if (row == 0) {
-                coefficientMatrix[row][0] = 1;
-            } else if (row == this.ratesCurve.size() - 1) {
-                coefficientMatrix[row][this.ratesCurve.size() - 1] = 1;
-            } else {
-                coefficientMatrix[row][boost] = this.ratesCurve.getCapitalX(boost);
-                coefficientMatrix[row][boost + 1] = 2 * (this.ratesCurve.getCapitalX(boost) + this.ratesCurve.getCapitalX(boost + 1));
-                coefficientMatrix[row][boost + 2] = this.ratesCurve.getCapitalX(boost + 1);
-                boost++;
-            }
+    /**
+     * Evaluates the polynomial of the segment. Maturities before the first
+     * knot take the first rate.
+     */
+    private double getModeledRate(double maturity, int index) {
+        if (maturity < this.knots[0]) {
+            return this.dValues[0];
         }
-        return coefficientMatrix;
+        double capitalX = maturity - this.knots[index];
+        return ((this.aValues[index] * capitalX + this.bValues[index]) * capitalX + this.cValues[index]) * capitalX + this.dValues[index];
     }
 
-    private double constantValue(int index) {
-        double firstPart = (this.getD(index) - this.getD(index - 1)) / this.ratesCurve.getCapitalX(index - 1);
+    /**
+     * Instantaneous forward from the rate and the slope of the segment
+     * polynomial. The rate is flat before the first knot.
+     */
+    private double getForwardRate(double maturity, int index) {
+        if (maturity < this.knots[0]) {
+            return this.dValues[0];
+        }
+        double capitalX = maturity - this.knots[index];
+        double rate = ((this.aValues[index] * capitalX + this.bValues[index]) * capitalX + this.cValues[index]) * capitalX + this.dValues[index];
+        double slope = (3 * this.aValues[index] * capitalX + 2 * this.bValues[index]) * capitalX + this.cValues[index];
+        return (1 + rate) * Math.exp(maturity * slope / (1 + rate)) - 1;
+    }
 
-        double secondPart = (this.getD(index + 1) - this.getD(index)) / this.ratesCurve.getCapitalX(index);
+    private double getForwardRate(double startTerm, int startIndex, double endTerm, int endIndex) {
+        if (endTerm == startTerm) {
+            return this.getForwardRate(startTerm, startIndex);
+        }
+        double logCapitalizationEndTerm = endTerm * Math.log1p(this.getModeledRate(endTerm, endIndex));
+        double logCapitalizationStartTerm = startTerm * Math.log1p(this.getModeledRate(startTerm, startIndex));
+        return Math.exp((logCapitalizationEndTerm - logCapitalizationStartTerm) / (endTerm - startTerm)) - 1;
+    }
 
-        return -3 * (firstPart - secondPart);
+    private static double[] checkLength(SplineKnotGrid knotGrid, double[] rates) throws InterpolationException {
+        if (rates.length != knotGrid.size()) {
+            throw new InterpolationException(rates.length + " rates for a grid of " + knotGrid.size() + " knots");
+        }
+        return rates;
     }
 
-    private double getD(int index) {
-        return this.ratesCurve.getRate(index);
+    private double getCapitalX(int index) {
+        return this.knots[index + 1] - this.knots[index];
     }
 
     private double getA(int index) {
-        return (this.getB(index + 1) - this.getB(index)) / (3 * this.ratesCurve.getCapitalX(index));
+        return (this.bValues[index + 1] - this.bValues[index]) / (3 * this.getCapitalX(index));
     }
 
     private double getC(int index) {
-        return -this.ratesCurve.getCapitalX(index) * (this.getB(index + 1) + 2 * this.getB(index)) / 3
-                + (this.getD(index + 1) - this.getD(index)) / this.ratesCurve.getCapitalX(index);
+        return -this.getCapitalX(index) * (this.bValues[index + 1] + 2 * this.bValues[index]) / 3
+                + (this.dValues[index + 1] - this.dValues[index]) / this.getCapitalX(index);
     }
-
-    private double getB(int index) {
-        return this.bValues[index];
-    }
-
-
 }
@@ -61,5 +61,32 @@ public class LinearInterpolation implements Interpolation {
         return 2.0;
     }
 
+    @Override
+    public void getModeledRates(double[] maturities, double[] rates) {
+        double startTerm = this.startRatePoint.getYearsToMaturity();
+        double startRate = this.startRatePoint.getRate();
+        double slope = this.timeDifference != 0 ? this.rateDifference / this.timeDifference : 0;
+        for (int i = 0; i < maturities.length; i++) {
+            rates[i] = startRate + slope * (maturities[i] - startTerm);
+        }
+    }
+
+    @Override
+    public void getDiscountFactors(double[] maturities, double[] discountFactors) {
+        this.getModeledRates(maturities, discountFactors);
+        for (int i = 0; i < maturities.length; i++) {
+            discountFactors[i] = 1 / Math.pow((1 + discountFactors[i]), maturities[i]);
+        }
+    }
+
+    @Override
+    public void getForwardRates(double[] maturities, double[] forwardRates) {
+        double slope = this.timeDifference != 0 ? this.rateDifference / this.timeDifference : 0;
+        this.getModeledRates(maturities, forwardRates);
+        for (int i = 0; i < maturities.length; i++) {
+            forwardRates[i] += slope / SECONDS_IN_YEAR;
+        }
+    }
+
 
 }
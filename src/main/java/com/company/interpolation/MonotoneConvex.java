@@ -1,244 +1,478 @@
 package com.company.interpolation;
 
 import com.company.Utils.MathUtils;
+import com.company.Utils.SearchUtils;
 import com.company.beans.RatesCurve;
-import com.company.enums.MonotoneConvexZone;
+import com.company.enums.ExtrapolationPolicy;
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
 import com.company.exceptions.InterpolationException;
-import com.company.interfaces.Interpolation;
-
-public class MonotoneConvex implements Interpolation {
-    private double[] forwardRates;
-    private double[] terms;
-    private double[] discreteTerms;
-    private double[] discreteForwardRates;  //discrete forward rates
-    private double[] values; //rate values from data
-    private double[] discreteRatesValues;//discrete forward value
-    private double[] discreteInterpolationNode;
-    private int indexOfLastTerm; //index of last term
-    private boolean Negative_Forwards_Allowed = false;
-    private int lastIndexUsed;
-    private boolean curveSet;
+import com.company.interfaces.IncrementalInterpolation;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Monotone Convex interpolator class, following the method and the
+ * equation numbering of Patrick Hagan and Graeme West.
+ * <p>
+ * The curve is calibrated in the constructor and never changes
+ * afterwards: all the state is final and the segment search keeps
+ * no state (a SegmentCursor can be passed to hint it), so a single
+ * instance can be queried by any number of threads.
+ * <p>
+ * Everything in (25) to (34) that depends only on the segment, its
+ * zone, g0, g1, eta and A and the coefficients of the cubic pieces, is
+ * computed once at calibration and kept per segment in primitive
+ * arrays. A query looks them up and evaluates the zone's polynomial
+ * with multiplications only.
+ * <p>
+ * Beyond the last term the curve follows its ExtrapolationPolicy,
+ * FLAT_FORWARD unless given. The rate and the forward at the last term
+ * are kept at calibration, so an extrapolated query is a closed form
+ * of the term, without search or classification.
+ */
+public class MonotoneConvex implements IncrementalInterpolation {
+    private final double[] forwardRates;
+    private final double[] terms;
+    private final double[] discreteTerms;
+    private final double[] discreteForwardRates;  //discrete forward rates
+    private final double[] values; //rate values from data
+    private final double[] discreteRatesValues;//discrete forward value
+    private final double[] discreteInterpolationNode;
+    private final int indexOfLastTerm; //index of last term
+    //per segment [terms(i), terms(i+1)]
+    private final byte[] zones;
+    private final double[] gZeros;
+    private final double[] gOnes;
+    private final double[] etas;
+    private final double[] aValues;
+    private final double[] leftCoefficients; //cubic coefficient for x below eta
+    private final double[] rightCoefficients; //cubic coefficient for x above eta
+    private final double[] flatConstants; //integral of g - A up to eta
+    private final double[] inverseWidths;
+    private final ExtrapolationPolicy extrapolationPolicy;
+    private final double lastTerm;
+    private final double lastRate;
+    private final double lastForwardRate;
+    private final boolean Negative_Forwards_Allowed = false;
+    //zone tags, see getZone
+    private static final byte ZONE_ESPECIAL = 0;
+    private static final byte ZONE_ONE = 1;
+    private static final byte ZONE_TWO = 2;
+    private static final byte ZONE_THREE = 3;
+    private static final byte ZONE_FOUR = 4;
 
     public MonotoneConvex(double[] values, double[] terms) {
-        this.values = values;
-        this.terms = terms;
+        this(values, terms, ExtrapolationPolicy.FLAT_FORWARD);
+    }
+
+    public MonotoneConvex(double[] values, double[] terms, ExtrapolationPolicy extrapolationPolicy) {
+        this.extrapolationPolicy = extrapolationPolicy;
+        this.values = values.clone();
+        this.terms = terms.clone();
         this.indexOfLastTerm = terms.length - 1;
         this.discreteForwardRates = new double[terms.length];
         this.forwardRates = new double[terms.length];
         this.discreteTerms = new double[terms.length]; //discreteTerms(-1 To iIndex)
         this.discreteRatesValues = new double[terms.length];
         this.discreteInterpolationNode = new double[terms.length];
-        this.curveSet = true;
+        this.zones = new byte[terms.length];
+        this.gZeros = new double[terms.length];
+        this.gOnes = new double[terms.length];
+        this.etas = new double[terms.length];
+        this.aValues = new double[terms.length];
+        this.leftCoefficients = new double[terms.length];
+        this.rightCoefficients = new double[terms.length];
+        this.flatConstants = new double[terms.length];
+        this.inverseWidths = new double[terms.length];
+        this.calibrate(1);
+        this.lastTerm = this.terms[this.indexOfLastTerm];
+        this.lastRate = this.interpolate(this.lastTerm, this.indexOfLastTerm - 1);
+        this.lastForwardRate = this.forwardRates[this.indexOfLastTerm];
     }
 
+    /**
+     * The curve is extended to term 0 with the first rate
+     */
     public MonotoneConvex(RatesCurve spotRatesCurve) {
-        int arraySize = spotRatesCurve.size();
-        double[] values = new double[arraySize + 1];
-        double[] terms = new double[arraySize + 1];
-        values[0] = spotRatesCurve.getRate(0);
+        this(spotRatesCurve, ExtrapolationPolicy.FLAT_FORWARD);
+    }
+
+    public MonotoneConvex(RatesCurve spotRatesCurve, ExtrapolationPolicy extrapolationPolicy) {
+        this(getValues(spotRatesCurve), getTerms(spotRatesCurve), extrapolationPolicy);
+    }
+
+    /**
+     * Copy of the calibrated curve with the term appended. Only the discrete
+     * forward of the new term and the forwards of the last two nodes are
+     * calibrated.
+     */
+    private MonotoneConvex(MonotoneConvex monotoneConvex, double term, double value) {
+        int arraySize = monotoneConvex.terms.length + 1;
+        this.values = Arrays.copyOf(monotoneConvex.values, arraySize);
+        this.terms = Arrays.copyOf(monotoneConvex.terms, arraySize);
+        this.values[arraySize - 1] = value;
+        this.terms[arraySize - 1] = term;
+        this.indexOfLastTerm = arraySize - 1;
+        this.discreteForwardRates = Arrays.copyOf(monotoneConvex.discreteForwardRates, arraySize);
+        this.forwardRates = Arrays.copyOf(monotoneConvex.forwardRates, arraySize);
+        this.discreteTerms = Arrays.copyOf(monotoneConvex.discreteTerms, arraySize);
+        this.discreteRatesValues = Arrays.copyOf(monotoneConvex.discreteRatesValues, arraySize);
+        this.discreteInterpolationNode = Arrays.copyOf(monotoneConvex.discreteInterpolationNode, arraySize);
+        this.zones = Arrays.copyOf(monotoneConvex.zones, arraySize);
+        this.gZeros = Arrays.copyOf(monotoneConvex.gZeros, arraySize);
+        this.gOnes = Arrays.copyOf(monotoneConvex.gOnes, arraySize);
+        this.etas = Arrays.copyOf(monotoneConvex.etas, arraySize);
+        this.aValues = Arrays.copyOf(monotoneConvex.aValues, arraySize);
+        this.leftCoefficients = Arrays.copyOf(monotoneConvex.leftCoefficients, arraySize);
+        this.rightCoefficients = Arrays.copyOf(monotoneConvex.rightCoefficients, arraySize);
+        this.flatConstants = Arrays.copyOf(monotoneConvex.flatConstants, arraySize);
+        this.inverseWidths = Arrays.copyOf(monotoneConvex.inverseWidths, arraySize);
+        this.extrapolationPolicy = monotoneConvex.extrapolationPolicy;
+        this.calibrate(this.indexOfLastTerm);
+        this.lastTerm = term;
+        this.lastRate = this.interpolate(this.lastTerm, this.indexOfLastTerm - 1);
+        this.lastForwardRate = this.forwardRates[this.indexOfLastTerm];
+    }
+
+    private static double[] getValues(RatesCurve spotRatesCurve) {
+        double[] values = new double[spotRatesCurve.size() + 1];
+        spotRatesCurve.copyRates(values, 1);
+        values[0] = values[1];
+        return values;
+    }
+
+    private static double[] getTerms(RatesCurve spotRatesCurve) {
+        double[] terms = new double[spotRatesCurve.size() + 1];
+        spotRatesCurve.copyMaturities(terms, 1);
         terms[0] = 0.0;
+        return terms;
+    }
 
-        for (int i = 1; i <= arraySize; i++) {
-            values[i] = spotRatesCurve.getRate(i - 1);
-            terms[i] = spotRatesCurve.getMaturity(i - 1);
+    @Override
+    public MonotoneConvex appendKnot(double maturity, double rate) throws InterpolationException {
+        if (maturity <= this.lastTerm) {
+            throw new InterpolationException("Knot at " + maturity + " is not after the last term " + this.lastTerm);
         }
-
-        this.values = values;
-        this.terms = terms;
-        this.indexOfLastTerm = terms.length - 1;
-        this.discreteForwardRates = new double[terms.length];
-        this.forwardRates = new double[terms.length];
-        this.discreteTerms = new double[terms.length]; //discreteTerms(-1 To iIndex)
-        this.discreteRatesValues = new double[terms.length];
-        this.discreteInterpolationNode = new double[terms.length];
-        this.curveSet = false;
+        return new MonotoneConvex(this, maturity, rate);
     }
 
-    private MonotoneConvexZone getZone(double gZero, double gOne) {
+    private static byte getZone(double gZero, double gOne) {
         if ((gZero < 0 && -0.5 * gZero <= gOne && gOne <= -2 * gZero) || (gZero > 0 && -0.5 * gZero >= gOne && gOne >= -2 * gZero)) {
-            return MonotoneConvexZone.ZONE_ONE;
+            return ZONE_ONE;
         } else if ((gZero < 0 && gOne > -2 * gZero) || (gZero > 0 && gOne < -2 * gZero)) {
-            return MonotoneConvexZone.ZONE_TWO;
+            return ZONE_TWO;
         } else if ((gZero > 0 && 0 > gOne && gOne > -0.5 * gZero) || (gZero < 0 && 0 < gOne && gOne < -0.5 * gZero)) {
-            return MonotoneConvexZone.ZONE_THREE;
+            return ZONE_THREE;
         } else if (MathUtils.almostZero(gZero) && MathUtils.almostZero(gOne)) {
-            return MonotoneConvexZone.ZONE_ESPECIAL;
+            return ZONE_ESPECIAL;
         } else {
-            return MonotoneConvexZone.ZONE_FOUR;
+            return ZONE_FOUR;
+        }
+    }
+
+    private static double getEta(byte zone, double gZero, double gOne) {
+        switch (zone) {
+            case ZONE_TWO:
+                return (gOne + 2 * gZero) / (gOne - gZero); //(29)
+            case ZONE_THREE:
+                return 3 * gOne / (gOne - gZero); //(31)
+            case ZONE_FOUR:
+                return gOne / (gOne + gZero); //(33)
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * The level of g on the flat side of eta, the A of (34) in zone four
+     */
+    private static double getA(byte zone, double gZero, double gOne) {
+        switch (zone) {
+            case ZONE_TWO:
+                return gZero;
+            case ZONE_THREE:
+                return gOne;
+            case ZONE_FOUR:
+                return -gZero * gOne / (gZero + gOne); //(34)
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Zones two to four are, around eta, g = A + 3 * c * (x - eta)^2 with
+     * one c below eta and another above, (28), (30) and (32); the c below,
+     * only used when eta is not 0
+     */
+    private static double getLeftCoefficient(byte zone, double gZero, double eta, double a) {
+        return zone == ZONE_THREE || zone == ZONE_FOUR ? (gZero - a) / (3 * eta * eta) : 0;
+    }
+
+    /**
+     * The integral of g - A from 0 to eta, (gZero - A) * eta / 3. Kept
+     * apart from the c below eta, which is infinite when eta is 0.
+     */
+    private static double getFlatConstant(byte zone, double gZero, double eta, double a) {
+        return zone == ZONE_THREE || zone == ZONE_FOUR ? (gZero - a) * eta / 3 : 0;
+    }
+
+    /**
+     * The c above eta, see getLeftCoefficient
+     */
+    private static double getRightCoefficient(byte zone, double gOne, double eta, double a) {
+        return zone == ZONE_TWO || zone == ZONE_FOUR ? (gOne - a) / (3 * (1 - eta) * (1 - eta)) : 0;
+    }
+
+    /**
+     * The integral of g from 0 to x, (25) to (34)
+     */
+    private static double integrateG(byte zone, double x, double gZero, double gOne, double eta, double a,
+                                     double leftCoefficient, double rightCoefficient, double flatConstant) {
+        switch (zone) {
+            case ZONE_ONE:
+                double sum = gZero + gOne;
+                return x * (gZero + x * (x * sum - sum - gZero));
+            case ZONE_TWO:
+            case ZONE_THREE:
+            case ZONE_FOUR:
+                if (x <= eta) {
+                    double distance = eta - x;
+                    return a * x - leftCoefficient * distance * distance * distance + flatConstant;
+                }
+                double distance = x - eta;
+                return a * x + flatConstant + rightCoefficient * distance * distance * distance;
+            default:
+                return 0;
         }
     }
 
-    private double interpolate(double term) {
-        setUpCurves();
-        int i;
+    /**
+     * g at x, (26) to (34)
+     */
+    private static double evaluateG(byte zone, double x, double gZero, double gOne, double eta, double a,
+                                    double leftCoefficient, double rightCoefficient) {
+        switch (zone) {
+            case ZONE_ONE:
+                double sum = gZero + gOne;
+                return gZero + x * (3 * x * sum - 2 * (sum + gZero));
+            case ZONE_TWO:
+            case ZONE_THREE:
+            case ZONE_FOUR:
+                double distance = x - eta;
+                return a + 3 * (x <= eta ? leftCoefficient : rightCoefficient) * distance * distance;
+            default:
+                return 0;
+        }
+    }
+
+    private double interpolate(double term, SegmentCursor cursor) {
         if (term <= 0) {
             return this.forwardRates[0];
-        } else if (term > this.terms[indexOfLastTerm]) {
-            return interpolate(this.terms[this.indexOfLastTerm]) * this.terms[this.indexOfLastTerm] / term + forward(this.terms[this.indexOfLastTerm]) * (1 - this.terms[this.indexOfLastTerm] / term);
+        } else if (term > this.lastTerm) {
+            return extrapolate(this.extrapolationPolicy, term, this.lastTerm, this.lastRate, this.lastForwardRate);
+        } else if (cursor == null) {
+            return this.interpolate(term, this.getIndex(term));
         } else {
-            i = getIndex(term);
+            cursor.index = this.getIndex(term, cursor.index);
+            return this.interpolate(term, cursor.index);
         }
-        //the x in (25)
-        double x = (term - this.terms[i]) / (this.terms[i + 1] - this.terms[i]);
-        double gZero = this.forwardRates[i] - this.discreteForwardRates[i + 1];
-        double gOne = this.forwardRates[i + 1] - this.discreteForwardRates[i + 1];
+    }
+
+    /**
+     * Rate at a term beyond the last term from the rate and the forward at
+     * the last term. FLAT_FORWARD keeps the last forward, FLAT_RATE the
+     * last rate.
+     */
+    public static double extrapolate(ExtrapolationPolicy extrapolationPolicy, double term, double lastTerm, double lastRate,
+                                     double lastForwardRate) {
+        switch (extrapolationPolicy) {
+            case FLAT_RATE:
+                return lastRate;
+            default:
+                return lastRate * lastTerm / term + lastForwardRate * (1 - lastTerm / term);
+        }
+    }
+
+    /**
+     * Instantaneous forward beyond the last term, see extrapolate
+     */
+    public static double extrapolateForward(ExtrapolationPolicy extrapolationPolicy, double lastRate, double lastForwardRate) {
+        switch (extrapolationPolicy) {
+            case FLAT_RATE:
+                return lastRate;
+            default:
+                return lastForwardRate;
+        }
+    }
+
+    private double interpolate(double term, int i) {
+        double termStart = this.terms[i];
+        double x = (term - termStart) * this.inverseWidths[i]; //the x in (25)
+        double gFunction = x == 0.0 || x == 1.0 ? 0 : integrateG(this.zones[i], x, this.gZeros[i], this.gOnes[i], this.etas[i],
+                this.aValues[i], this.leftCoefficients[i], this.rightCoefficients[i], this.flatConstants[i]);
+        return (termStart * this.discreteInterpolationNode[i] + (term - termStart) * this.discreteForwardRates[i + 1]
+                + (this.terms[i + 1] - termStart) * gFunction) / term;
+    }
+
+    /**
+     * Rate at the term in the segment [termStart, termEnd] from the calibrated
+     * forwards of its nodes, the discrete forward of the segment and the
+     * interpolation node of its start, (25) to (34). Kept static so that
+     * curves not held in arrays (see com.company.snapshot) share it.
+     */
+    public static double interpolate(double term, double termStart, double termEnd, double forwardStart,
+                                     double forwardEnd, double discreteForward, double interpolationNode) {
+        double x = (term - termStart) * (1 / (termEnd - termStart)); //the x in (25)
+        double gZero = forwardStart - discreteForward;
+        double gOne = forwardEnd - discreteForward;
         double gFunction = 0;
 
-        if (x == 0.0 || x == 1.0) {
-            gFunction = 0;
-        } else {
-            double eta;
-            switch (getZone(gZero, gOne)) {
-                case ZONE_ONE:
-                    gFunction = gZero * (x - 2 * Math.pow(x, 2) + Math.pow(x, 3)) + gOne * (-Math.pow(x, 2) + Math.pow(x, 3));
-                    break;
-                case ZONE_TWO:
-                    eta = (gOne + 2 * gZero) / (gOne - gZero);//(29)
-                    gFunction = x <= eta ? gZero * x : gZero * x + (gOne - gZero) * Math.pow((x - eta), 3) / Math.pow((1 - eta), 2) / 3;//(28)
-                    break;
-                case ZONE_THREE:
-                    eta = 3 * gOne / (gOne - gZero);//(31)
-                    gFunction = x < eta ? gOne * x - 1.0 / 3.0 * (gZero - gOne) * (Math.pow((eta - x), 3) / Math.pow(eta, 2) - eta) : (2.0 / 3.0 * gOne + 1.0 / 3.0 * gZero) * eta + gOne * (x - eta);
-                    break;
-                case ZONE_FOUR:
-                    eta = gOne / (gOne + gZero);//(33)
-                    double A = -gZero * gOne / (gZero + gOne); //(34)
-                    //(32)
-                    gFunction = x <= eta ? A * x - 1.0 / 3.0 * (gZero - A) * (Math.pow((eta - x), 3) / Math.pow(eta, 2) - eta) : (2.0 / 3.0 * A + 1.0 / 3.0 * gZero) * eta + A * (x - eta) + (gOne - A) / 3 * Math.pow((x - eta), 3) / Math.pow((1 - eta), 2);
-                    break;
-                case ZONE_ESPECIAL:
-                    gFunction = 0;
-                    break;
-            }
+        if (x != 0.0 && x != 1.0) {
+            byte zone = getZone(gZero, gOne);
+            double eta = getEta(zone, gZero, gOne);
+            double a = getA(zone, gZero, gOne);
+            gFunction = integrateG(zone, x, gZero, gOne, eta, a, getLeftCoefficient(zone, gZero, eta, a), getRightCoefficient(zone, gOne, eta, a),
+                    getFlatConstant(zone, gZero, eta, a));
         }
 
-        return 1 / term * (this.terms[i] * this.discreteInterpolationNode[i] + (term - this.terms[i]) * this.discreteForwardRates[i + 1] + (this.terms[i + 1] - this.terms[i]) * gFunction);
+        return (termStart * interpolationNode + (term - termStart) * discreteForward + (termEnd - termStart) * gFunction) / term;
     }
 
-    private double forward(double Term) {
-        this.setUpCurves();
-        int i;
+    private double forward(double Term, SegmentCursor cursor) {
         if (Term <= 0) {
             return this.forwardRates[0];
-        } else if (Term > this.terms[this.indexOfLastTerm]) {
-            return forward(this.terms[this.indexOfLastTerm]);
+        } else if (Term > this.lastTerm) {
+            return extrapolateForward(this.extrapolationPolicy, this.lastRate, this.lastForwardRate);
+        } else if (cursor == null) {
+            return this.forward(Term, this.getIndex(Term));
         } else {
-            i = getIndex(Term);
+            cursor.index = this.getIndex(Term, cursor.index);
+            return this.forward(Term, cursor.index);
         }
+    }
 
-        double x = (Term - terms[i]) / (terms[i + 1] - terms[i]); //the x in (25)
-        double gZero = forwardRates[i] - discreteForwardRates[i + 1];
-        double gOne = forwardRates[i + 1] - discreteForwardRates[i + 1];
-        double gFunction = 0;
+    private double forward(double Term, int i) {
+        double x = (Term - this.terms[i]) * this.inverseWidths[i]; //the x in (25)
+        if (x == 0) {
+            return this.forwardRates[i];
+        } else if (x == 1) {
+            return this.forwardRates[i + 1];
+        }
+        return evaluateG(this.zones[i], x, this.gZeros[i], this.gOnes[i], this.etas[i], this.aValues[i],
+                this.leftCoefficients[i], this.rightCoefficients[i]) + this.discreteForwardRates[i + 1]; //(26)
+    }
 
+    /**
+     * Instantaneous forward at the term in the segment [termStart, termEnd],
+     * (26) to (34), see interpolate
+     */
+    public static double forward(double term, double termStart, double termEnd, double forwardStart,
+                                 double forwardEnd, double discreteForward) {
+        double x = (term - termStart) * (1 / (termEnd - termStart)); //the x in (25)
         if (x == 0) {
-            gFunction = gZero;
+            return forwardStart;
         } else if (x == 1) {
-            gFunction = gOne;
-        } else {
-            double eta;
-            switch (getZone(gZero, gOne)) {
-                case ZONE_ONE:
-                    gFunction = gZero * (1 - 4 * x + 3 * Math.pow(x, 2)) + gOne * (-2 * x + 3 * Math.pow(x, 2));
-                    break;
-                case ZONE_TWO:
-                    eta = (gOne + 2 * gZero) / (gOne - gZero); //(29)
-                    gFunction = x <= eta ? gZero : gZero + (gOne - gZero) * Math.pow(((x - eta) / (1 - eta)), 2); //(28)
-                    break;
-                case ZONE_THREE:
-                    eta = 3 * gOne / (gOne - gZero); //(31)
-                    gFunction = x < eta ? gOne + (gZero - gOne) * Math.pow(((eta - x) / eta), 2) : gOne;//(30)
-                    break;
-                case ZONE_FOUR:
-                    eta = gOne / (gOne + gZero);//(33)
-                    double A = -gZero * gOne / (gZero + gOne);//(34)
-                    gFunction = x <= eta ? A + (gZero - A) * Math.pow(((eta - x) / eta), 2) : A + (gOne - A) * Math.pow(((eta - x) / (1 - eta)), 2);
-                    break;
-                case ZONE_ESPECIAL:
-                    gFunction = 0;
-                    break;
-            }
+            return forwardEnd;
         }
-        return gFunction + this.discreteForwardRates[i + 1];//(26)
+        double gZero = forwardStart - discreteForward;
+        double gOne = forwardEnd - discreteForward;
+        byte zone = getZone(gZero, gOne);
+        double eta = getEta(zone, gZero, gOne);
+        double a = getA(zone, gZero, gOne);
+        double gFunction = evaluateG(zone, x, gZero, gOne, eta, a, getLeftCoefficient(zone, gZero, eta, a), getRightCoefficient(zone, gOne, eta, a));
+        return gFunction + discreteForward;//(26)
     }
 
+    /**
+     * Index of the segment [terms(i), terms(i+1)] containing the term
+     */
     private int getIndex(double Term) {
-        int iLastIndex;
-       // if (!this.Negative_Forwards_Allowed) {
-            iLastIndex = (int) (collar(0, this.lastIndexUsed, this.indexOfLastTerm));
-//        } else {
-//            iLastIndex = this.lastIndexUsed;
-//        }
-        while (true) {
-            if (Term >= this.terms[iLastIndex]) {
-                if (iLastIndex == this.terms.length - 1) {
-                    this.lastIndexUsed = Term == this.terms[iLastIndex] ? this.indexOfLastTerm - 1 : this.indexOfLastTerm;
-                    break;
-                } else {
-                    if (Term >= this.terms[iLastIndex + 1]) {
-                        iLastIndex = iLastIndex + 1;
-                    } else {
-                        this.lastIndexUsed = iLastIndex;
-                        break;
-                    }
-                }
-            } else {
-                if (iLastIndex == 0) {
-                    this.lastIndexUsed = 0;
-                    break;
-                } else {
-                    if (Term >= terms[iLastIndex - 1]) {
-                        this.lastIndexUsed = iLastIndex - 1;
-                        break;
-                    } else {
-                        iLastIndex = iLastIndex - 1;
-                    }
-                }
-            }
-        }
-        return this.lastIndexUsed;
+        return SearchUtils.findSegment(this.terms, this.indexOfLastTerm - 1, Term);
     }
 
-    private void setUpCurves() {
-        if (!this.curveSet) {
-            //extend the curve to time 0, for the purpose of calculating forward at time 1
-            this.discreteTerms[0] = 0.0;
-            this.discreteRatesValues[0] = discreteRatesValues[1];
+    private int getIndex(double Term, int hint) {
+        return SearchUtils.findSegment(this.terms, this.indexOfLastTerm - 1, Term, hint);
+    }
 
-            //step 1
-            for (int j = 1; j <= this.indexOfLastTerm; j++) {
-                this.discreteForwardRates[j] = (this.terms[j] * this.values[j] - this.terms[j - 1] * this.values[j - 1]) / (this.terms[j] - this.terms[j - 1]);
-                this.discreteInterpolationNode[j] = this.values[j];
-            }
+    /**
+     * Computes the discrete forwards from the term index fromIndex on, and
+     * the forwards of the nodes that depend on them. Index 1 calibrates the
+     * whole curve; a higher index updates the end of a curve whose earlier
+     * terms were already calibrated.
+     */
+    private void calibrate(int fromIndex) {
+        long start = Metrics.start();
+        if (fromIndex < 3 || this.Negative_Forwards_Allowed) {
+            fromIndex = 1;
+        }
+        int firstNode = Math.max(fromIndex - 1, 1);
 
-            for (int j = 1; j <= this.indexOfLastTerm - 1; j++) {
-                this.forwardRates[j] = (this.terms[j] - this.terms[j - 1]) / (this.terms[j + 1] - this.terms[j - 1]) * this.discreteForwardRates[j + 1]
-                        + (this.terms[j + 1] - this.terms[j]) / (this.terms[j + 1] - this.terms[j - 1]) * this.discreteForwardRates[j];
-            }
+        //extend the curve to time 0, for the purpose of calculating forward at time 1
+        this.discreteTerms[0] = 0.0;
+        this.discreteRatesValues[0] = discreteRatesValues[1];
+
+        //step 1
+        for (int j = fromIndex; j <= this.indexOfLastTerm; j++) {
+            this.discreteForwardRates[j] = (this.terms[j] * this.values[j] - this.terms[j - 1] * this.values[j - 1]) / (this.terms[j] - this.terms[j - 1]);
+            this.discreteInterpolationNode[j] = this.values[j];
+        }
+
+        for (int j = firstNode; j <= this.indexOfLastTerm - 1; j++) {
+            this.forwardRates[j] = (this.terms[j] - this.terms[j - 1]) / (this.terms[j + 1] - this.terms[j - 1]) * this.discreteForwardRates[j + 1]
+                    + (this.terms[j + 1] - this.terms[j]) / (this.terms[j + 1] - this.terms[j - 1]) * this.discreteForwardRates[j];
+        }
 
+        if (fromIndex == 1) {
             this.forwardRates[0] = this.discreteForwardRates[1] - 0.5 * (this.forwardRates[1] - this.discreteForwardRates[1]); //(23)
-            this.forwardRates[this.indexOfLastTerm] = this.discreteForwardRates[this.indexOfLastTerm] - 0.5 *
-                    (this.forwardRates[this.indexOfLastTerm - 1] - this.discreteForwardRates[this.indexOfLastTerm]); //(24)
+        }
+        this.forwardRates[this.indexOfLastTerm] = this.discreteForwardRates[this.indexOfLastTerm] - 0.5 *
+                (this.forwardRates[this.indexOfLastTerm - 1] - this.discreteForwardRates[this.indexOfLastTerm]); //(24)
 
-            if (!this.Negative_Forwards_Allowed) {
+        if (!this.Negative_Forwards_Allowed) {
+            if (fromIndex == 1) {
                 this.forwardRates[0] = this.collar(0, this.forwardRates[0], 2 * this.discreteForwardRates[1]);
+            }
 
-                for (int j = 1; j <= this.indexOfLastTerm - 1; j++) {
-                    this.forwardRates[j] = this.collar(0, forwardRates[j], 2 * Math.min(this.discreteForwardRates[j], this.discreteForwardRates[j + 1]));
-                }
+            for (int j = firstNode; j <= this.indexOfLastTerm - 1; j++) {
+                this.forwardRates[j] = this.collar(0, forwardRates[j], 2 * Math.min(this.discreteForwardRates[j], this.discreteForwardRates[j + 1]));
+            }
 
-                this.forwardRates[this.indexOfLastTerm] = this.collar(0, this.forwardRates[this.indexOfLastTerm], 2 * this.discreteForwardRates[this.indexOfLastTerm]);
-            } else {
-                double termRate = 0;
-                for (int j = 1; j < this.indexOfLastTerm - 1; j++) {
-                    this.discreteForwardRates[j] = this.values[j];
-                    termRate = termRate + this.discreteForwardRates[j] * (this.terms[j] - this.terms[j - 1]);
-                    this.discreteInterpolationNode[j] = termRate / this.terms[j];
-                }
+            this.forwardRates[this.indexOfLastTerm] = this.collar(0, this.forwardRates[this.indexOfLastTerm], 2 * this.discreteForwardRates[this.indexOfLastTerm]);
+        } else {
+            double termRate = 0;
+            for (int j = 1; j < this.indexOfLastTerm - 1; j++) {
+                this.discreteForwardRates[j] = this.values[j];
+                termRate = termRate + this.discreteForwardRates[j] * (this.terms[j] - this.terms[j - 1]);
+                this.discreteInterpolationNode[j] = termRate / this.terms[j];
             }
+        }
 
-            this.curveSet = true;
+        for (int i = Math.max(firstNode - 1, 0); i < this.indexOfLastTerm; i++) {
+            this.setUpSegment(i);
         }
+        Metrics.record(MetricPhase.CALIBRATION, start);
+    }
+
+    /**
+     * Classifies the segment and keeps what its queries need
+     */
+    private void setUpSegment(int i) {
+        double gZero = this.forwardRates[i] - this.discreteForwardRates[i + 1];
+        double gOne = this.forwardRates[i + 1] - this.discreteForwardRates[i + 1];
+        byte zone = getZone(gZero, gOne);
+        double eta = getEta(zone, gZero, gOne);
+        double a = getA(zone, gZero, gOne);
+        this.zones[i] = zone;
+        this.gZeros[i] = gZero;
+        this.gOnes[i] = gOne;
+        this.etas[i] = eta;
+        this.aValues[i] = a;
+        this.leftCoefficients[i] = getLeftCoefficient(zone, gZero, eta, a);
+        this.flatConstants[i] = getFlatConstant(zone, gZero, eta, a);
+        this.rightCoefficients[i] = getRightCoefficient(zone, gOne, eta, a);
+        this.inverseWidths[i] = 1 / (this.terms[i + 1] - this.terms[i]);
     }
 
     private double collar(double minimum, double variable, double maximum) {
@@ -252,32 +486,129 @@ public class MonotoneConvex implements Interpolation {
     }
 
     public double[] getDiscreteForwardRates(){
-        return this.discreteForwardRates;
+        return this.discreteForwardRates.clone();
+    }
+
+    /**
+     * The terms of the curve, starting with term 0
+     */
+    public double[] getTerms() {
+        return this.terms.clone();
+    }
+
+    public double[] getForwardRates() {
+        return this.forwardRates.clone();
+    }
+
+    public double[] getDiscreteInterpolationNode() {
+        return this.discreteInterpolationNode.clone();
     }
 
     @Override
     public double getDiscountFactor(double xValue) throws InterpolationException {
-        double rate = this.getModeledRate(xValue);
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        double rate = this.interpolate(xValue, null);
         return Math.exp(-rate * xValue);
     }
 
+    /**
+     * Same as getDiscountFactor, starting the segment search from the cursor
+     */
+    public double getDiscountFactor(double xValue, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return Math.exp(-this.interpolate(xValue, cursor) * xValue);
+    }
+
     @Override
     public double getModeledRate(double maturity) throws InterpolationException {
-        return this.interpolate(maturity);
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return this.interpolate(maturity, null);
+    }
+
+    /**
+     * Same as getModeledRate, starting the segment search from the cursor
+     */
+    public double getModeledRate(double maturity, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return this.interpolate(maturity, cursor);
     }
 
     @Override
     public double getLastTerm() {
-        return this.terms[this.indexOfLastTerm];
+        return this.lastTerm;
+    }
+
+    public ExtrapolationPolicy getExtrapolationPolicy() {
+        return this.extrapolationPolicy;
     }
 
     @Override
     public double getForwardRate(double xValue) throws InterpolationException {
-        return this.forward(xValue);
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return this.forward(xValue, null);
+    }
+
+    /**
+     * Same as getForwardRate, starting the segment search from the cursor
+     */
+    public double getForwardRate(double xValue, SegmentCursor cursor) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return this.forward(xValue, cursor);
     }
 
     @Override
     public double getForwardRate(double startTerm, double endTerm) throws InterpolationException {
-        return this.getForwardRate(endTerm - startTerm);
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, 1);
+        return this.forward(endTerm - startTerm, null);
+    }
+
+    @Override
+    public void getModeledRates(double[] maturities, double[] rates) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, maturities.length);
+        this.interpolate(maturities, rates);
+    }
+
+    @Override
+    public void getDiscountFactors(double[] maturities, double[] discountFactors) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, maturities.length);
+        this.interpolate(maturities, discountFactors);
+        for (int i = 0; i < maturities.length; i++) {
+            discountFactors[i] = Math.exp(-discountFactors[i] * maturities[i]);
+        }
+    }
+
+    @Override
+    public void getForwardRates(double[] maturities, double[] forwardRates) {
+        Metrics.countQueries(ModelType.MONOTONE_CONVEX, maturities.length);
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            double term = maturities[i];
+            if (term <= 0) {
+                forwardRates[i] = this.forwardRates[0];
+            } else if (term > this.lastTerm) {
+                forwardRates[i] = extrapolateForward(this.extrapolationPolicy, this.lastRate, this.lastForwardRate);
+            } else {
+                index = this.getIndex(term, index);
+                forwardRates[i] = this.forward(term, index);
+            }
+        }
+    }
+
+    /**
+     * Rates of the maturities, searching each segment once when they are sorted
+     */
+    private void interpolate(double[] maturities, double[] rates) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            double term = maturities[i];
+            if (term <= 0) {
+                rates[i] = this.forwardRates[0];
+            } else if (term > this.lastTerm) {
+                rates[i] = extrapolate(this.extrapolationPolicy, term, this.lastTerm, this.lastRate, this.lastForwardRate);
+            } else {
+                index = this.getIndex(term, index);
+                rates[i] = this.interpolate(term, index);
+            }
+        }
     }
 }
@@ -0,0 +1,18 @@
+package com.company.interpolation;
+
+/**
+ * Remembers the last segment used by an interpolator, so that
+ * consecutive queries with close maturities skip the search.
+ * <p>
+ * A cursor is owned by its caller and must not be shared between
+ * threads; the interpolators themselves keep no search state.
+ *
+ * @author Jose Gonzalez
+ */
+public class SegmentCursor {
+    int index;
+
+    public void reset() {
+        this.index = 0;
+    }
+}
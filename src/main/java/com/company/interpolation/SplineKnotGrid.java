@@ -0,0 +1,132 @@
+package com.company.interpolation;
+
+import com.company.enums.MetricPhase;
+import com.company.linearequationsystem.TridiagonalLU;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * The knots of a natural cubic splines curve and the factorised
+ * equation system of the splines.
+ * <p>
+ * The coefficient matrix of the splines equations only depends on the
+ * distances between the knots (see CubicSplines), the rates only enter
+ * the constants. The grid factors the matrix once, so every curve with
+ * the same knots - the scenarios of a risk run, the currencies quoted
+ * on the same tenors - is calibrated with one O(n) substitution.
+ * <p>
+ * A grid is immutable and can be shared between threads and curves.
+ *
+ * @author Jose Gonzalez
+ */
+public class SplineKnotGrid {
+    private final double[] knots;
+    private final TridiagonalLU factorisation;
+
+    public SplineKnotGrid(double[] knots) {
+        this(knots.clone(), null);
+    }
+
+    /**
+     * Factors the equation system of the knots. When the factorisation of a
+     * grid with the same first knots is given, only the rows of the last two
+     * knots are factored.
+     */
+    private SplineKnotGrid(double[] knots, TridiagonalLU previousFactorisation) {
+        int size = knots.length;
+        this.knots = knots;
+
+        double[] lowerDiagonal = new double[size];
+        double[] diagonal = new double[size];
+        double[] upperDiagonal = new double[size];
+        int lastRow = size - 1;
+        for (int row = 0; row <= lastRow; row++) {
+            if (row == 0 || row == lastRow) {
+                diagonal[row] = 1;
+            } else {
+                lowerDiagonal[row] = this.getCapitalX(row - 1);
+                diagonal[row] = 2 * (this.getCapitalX(row - 1) + this.getCapitalX(row));
+                upperDiagonal[row] = this.getCapitalX(row);
+            }
+        }
+        this.factorisation = previousFactorisation == null
+                ? new TridiagonalLU(lowerDiagonal, diagonal, upperDiagonal)
+                : previousFactorisation.extend(Math.max(size - 2, 0), lowerDiagonal, diagonal, upperDiagonal);
+    }
+
+    /**
+     * The grid with a knot added after the last one, it keeps the
+     * factorisation of the rows that do not change
+     */
+    SplineKnotGrid append(double knot) {
+        double[] knots = Arrays.copyOf(this.knots, this.knots.length + 1);
+        knots[this.knots.length] = knot;
+        return new SplineKnotGrid(knots, this.factorisation);
+    }
+
+    /**
+     * The b coefficients of the splines through the rates
+     */
+    double[] solve(double[] rates) {
+        long start = Metrics.start();
+        double[] constants = this.getConstants(rates);
+        this.factorisation.solve(constants, constants);
+        Metrics.record(MetricPhase.EQUATION_SOLVE, start);
+        return constants;
+    }
+
+    /**
+     * The b coefficients of the splines through every rates vector
+     */
+    double[][] solve(double[][] rateScenarios) {
+        long start = Metrics.start();
+        double[][] constants = new double[rateScenarios.length][];
+        for (int i = 0; i < rateScenarios.length; i++) {
+            constants[i] = this.getConstants(rateScenarios[i]);
+        }
+        double[][] solutions = this.factorisation.solve(constants);
+        Metrics.record(MetricPhase.EQUATION_SOLVE, start);
+        return solutions;
+    }
+
+    public int size() {
+        return this.knots.length;
+    }
+
+    public double getLastKnot() {
+        return this.knots[this.knots.length - 1];
+    }
+
+    public double[] getKnots() {
+        return this.knots.clone();
+    }
+
+    /**
+     * Direct access for CubicSplines, which never modifies the knots
+     */
+    double[] knots() {
+        return this.knots;
+    }
+
+    /**
+     * The constants of the equation system: zero on the natural boundary
+     * rows, a function of the rates of three consecutive knots otherwise
+     */
+    private double[] getConstants(double[] rates) {
+        int lastRow = this.knots.length - 1;
+        double[] constants = new double[this.knots.length];
+        for (int row = 1; row < lastRow; row++) {
+            double firstPart = (rates[row] - rates[row - 1]) / this.getCapitalX(row - 1);
+
+            double secondPart = (rates[row + 1] - rates[row]) / this.getCapitalX(row);
+
+            constants[row] = -3 * (firstPart - secondPart);
+        }
+        return constants;
+    }
+
+    private double getCapitalX(int index) {
+        return this.knots[index + 1] - this.knots[index];
+    }
+}
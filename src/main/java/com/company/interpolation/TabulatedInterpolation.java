@@ -0,0 +1,235 @@
+package com.company.interpolation;
+
+import com.company.enums.TabulationMode;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+/**
+ * Lookup table of an interpolation on a uniform grid.
+ * <p>
+ * The rates, discount factors and forward rates of the source are
+ * sampled on a uniform grid from a first term (0 by default) to its
+ * last term. A query in that range is answered from the table: the cell is found by index
+ * arithmetic, floor((term - first term) / step), and the value interpolated within
+ * it, with no search and no call to the source.
+ * <p>
+ * LINEAR joins the grid points with straight lines. CUBIC_HERMITE
+ * uses cubic Hermite polynomials with the slopes estimated by central
+ * differences of the grid values (one sided at the ends). For a smooth
+ * source and step h the error of a value v is at most
+ * <p>
+ * LINEAR: h^2 / 8 . max|v''|
+ * <p>
+ * CUBIC_HERMITE: of order h^3 . max|v'''|
+ * <p>
+ * within a cell; around a knot where the source is not smooth the
+ * error of both modes is of the order of the LINEAR one, and a jump of
+ * the source (e.g. the CubicSplines forward rate at the first knot)
+ * cannot be tabulated: start the grid after it. Since the
+ * derivatives of the source are not known, the bound is checked when
+ * the table is built: the table is compared with the source at the
+ * quarter points of every cell and rejected with an
+ * InterpolationException when any difference exceeds the tolerance.
+ * The largest differences found are kept, see getMaxRateError.
+ * <p>
+ * Terms outside the table and forward rates between two terms are
+ * delegated to the source. The table is immutable and can be shared
+ * between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class TabulatedInterpolation implements Interpolation {
+    /** 0.01 basis points */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+    private static final double[] CHECK_POINTS = {0.25, 0.5, 0.75};
+    private final Interpolation source;
+    private final TabulationMode tabulationMode;
+    private final int stride;
+    private final int cells;
+    private final double firstTerm;
+    private final double step;
+    private final double inverseStep;
+    private final double lastTerm;
+    private final double[] rateCoefficients;
+    private final double[] discountFactorCoefficients;
+    private final double[] forwardRateCoefficients;
+    private final double maxRateError;
+    private final double maxDiscountFactorError;
+    private final double maxForwardRateError;
+
+    public TabulatedInterpolation(Interpolation source, double step, TabulationMode tabulationMode) throws InterpolationException {
+        this(source, 0, step, tabulationMode, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Tabulates the source from the first term with a step of at most the
+     * given one, so that the grid ends at the last term of the source
+     *
+     * @throws InterpolationException if the table differs from the source
+     *                                by more than the tolerance
+     */
+    public TabulatedInterpolation(Interpolation source, double firstTerm, double step, TabulationMode tabulationMode, double tolerance) throws InterpolationException {
+        if (!(step > 0)) {
+            throw new InterpolationException("Invalid tabulation step " + step);
+        }
+        if (!(firstTerm >= 0 && firstTerm < source.getLastTerm())) {
+            throw new InterpolationException("First term " + firstTerm + " is not before the last term " + source.getLastTerm());
+        }
+        this.source = source;
+        this.tabulationMode = tabulationMode;
+        this.stride = tabulationMode.equals(TabulationMode.CUBIC_HERMITE) ? 4 : 2;
+        this.lastTerm = source.getLastTerm();
+        this.firstTerm = firstTerm;
+        this.cells = Math.max((int) Math.ceil((this.lastTerm - firstTerm) / step), 1);
+        this.step = (this.lastTerm - firstTerm) / this.cells;
+        this.inverseStep = this.cells / (this.lastTerm - firstTerm);
+
+        double[] rates = new double[this.cells + 1];
+        double[] discountFactors = new double[this.cells + 1];
+        double[] forwardRates = new double[this.cells + 1];
+        for (int i = 0; i <= this.cells; i++) {
+            double term = i == this.cells ? this.lastTerm : firstTerm + i * this.step;
+            rates[i] = source.getModeledRate(term);
+            discountFactors[i] = source.getDiscountFactor(term);
+            forwardRates[i] = source.getForwardRate(term);
+        }
+        this.rateCoefficients = this.getCoefficients(rates);
+        this.discountFactorCoefficients = this.getCoefficients(discountFactors);
+        this.forwardRateCoefficients = this.getCoefficients(forwardRates);
+
+        double maxRateError = 0;
+        double maxDiscountFactorError = 0;
+        double maxForwardRateError = 0;
+        for (int cell = 0; cell < this.cells; cell++) {
+            for (double checkPoint : CHECK_POINTS) {
+                double term = firstTerm + (cell + checkPoint) * this.step;
+                maxRateError = Math.max(maxRateError, Math.abs(this.getModeledRate(term) - source.getModeledRate(term)));
+                maxDiscountFactorError = Math.max(maxDiscountFactorError, Math.abs(this.getDiscountFactor(term) - source.getDiscountFactor(term)));
+                maxForwardRateError = Math.max(maxForwardRateError, Math.abs(this.getForwardRate(term) - source.getForwardRate(term)));
+            }
+        }
+        this.maxRateError = maxRateError;
+        this.maxDiscountFactorError = maxDiscountFactorError;
+        this.maxForwardRateError = maxForwardRateError;
+        if (!(Math.max(maxRateError, Math.max(maxDiscountFactorError, maxForwardRateError)) <= tolerance)) {
+            throw new InterpolationException("Tabulation error above " + tolerance + " with step " + this.step
+                    + ": rates " + maxRateError + ", discount factors " + maxDiscountFactorError + ", forward rates " + maxForwardRateError);
+        }
+    }
+
+    @Override
+    public double getModeledRate(double maturity) throws InterpolationException {
+        return this.isTabulated(maturity) ? this.evaluate(this.rateCoefficients, maturity) : this.source.getModeledRate(maturity);
+    }
+
+    @Override
+    public double getDiscountFactor(double xValue) throws InterpolationException {
+        return this.isTabulated(xValue) ? this.evaluate(this.discountFactorCoefficients, xValue) : this.source.getDiscountFactor(xValue);
+    }
+
+    @Override
+    public double getForwardRate(double xValue) throws InterpolationException {
+        return this.isTabulated(xValue) ? this.evaluate(this.forwardRateCoefficients, xValue) : this.source.getForwardRate(xValue);
+    }
+
+    @Override
+    public double getForwardRate(double startTerm, double endTerm) throws InterpolationException {
+        return this.source.getForwardRate(startTerm, endTerm);
+    }
+
+    @Override
+    public double getLastTerm() {
+        return lastTerm;
+    }
+
+    public Interpolation getSource() {
+        return source;
+    }
+
+    public TabulationMode getTabulationMode() {
+        return tabulationMode;
+    }
+
+    public double getFirstTerm() {
+        return firstTerm;
+    }
+
+    /**
+     * The step of the grid, the requested one or slightly less
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Largest difference with the source found by the build time check
+     */
+    public double getMaxRateError() {
+        return maxRateError;
+    }
+
+    public double getMaxDiscountFactorError() {
+        return maxDiscountFactorError;
+    }
+
+    public double getMaxForwardRateError() {
+        return maxForwardRateError;
+    }
+
+    private boolean isTabulated(double term) {
+        return term >= this.firstTerm && term <= this.lastTerm;
+    }
+
+    /**
+     * Horner evaluation of the polynomial of the cell, in the position
+     * within the cell (0 to 1)
+     */
+    private double evaluate(double[] coefficients, double term) {
+        double position = (term - this.firstTerm) * this.inverseStep;
+        int cell = Math.min((int) position, this.cells - 1);
+        double t = position - cell;
+        int offset = cell * this.stride;
+        if (this.stride == 2) {
+            return coefficients[offset] + t * coefficients[offset + 1];
+        }
+        return coefficients[offset] + t * (coefficients[offset + 1] + t * (coefficients[offset + 2] + t * coefficients[offset + 3]));
+    }
+
+    /**
+     * The polynomial coefficients of every cell in the position within the
+     * cell, stride values per cell. The Hermite slopes are per cell, not per
+     * year, so the step does not appear in the polynomials.
+     */
+    private double[] getCoefficients(double[] values) {
+        double[] coefficients = new double[this.cells * this.stride];
+        for (int cell = 0; cell < this.cells; cell++) {
+            int offset = cell * this.stride;
+            double difference = values[cell + 1] - values[cell];
+            coefficients[offset] = values[cell];
+            if (this.stride == 2) {
+                coefficients[offset + 1] = difference;
+            } else {
+                double startSlope = getSlope(values, cell);
+                double endSlope = getSlope(values, cell + 1);
+                coefficients[offset + 1] = startSlope;
+                coefficients[offset + 2] = 3 * difference - 2 * startSlope - endSlope;
+                coefficients[offset + 3] = startSlope + endSlope - 2 * difference;
+            }
+        }
+        return coefficients;
+    }
+
+    private static double getSlope(double[] values, int index) {
+        int last = values.length - 1;
+        if (last == 0) {
+            return 0;
+        }
+        if (index == 0) {
+            return values[1] - values[0];
+        }
+        if (index == last) {
+            return values[last] - values[last - 1];
+        }
+        return (values[index + 1] - values[index - 1]) / 2;
+    }
+}
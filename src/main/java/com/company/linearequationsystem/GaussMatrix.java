@@ -1,5 +1,8 @@
 package com.company.linearequationsystem;
 
+import com.company.enums.MetricPhase;
+import com.company.metrics.Metrics;
+
 /**
  * This class implements the algorithm to solve a
  * system of linear equations using Gaussian elimination
@@ -19,8 +22,18 @@ public class GaussMatrix {
     }
 
     public void findSolution() {
+        long start = Metrics.start();
         this.eliminate();
         this.solve();
+        Metrics.record(MetricPhase.EQUATION_SOLVE, start);
+    }
+
+    /**
+     * Factors the coefficient matrix without changing it, to solve the
+     * system for many constants vectors with a single elimination
+     */
+    public LUDecomposition factor() {
+        return new LUDecomposition(this.coefficientMatrix);
     }
 
     private void eliminate() {
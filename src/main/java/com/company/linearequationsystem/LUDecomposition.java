@@ -0,0 +1,105 @@
+package com.company.linearequationsystem;
+
+/**
+ * LU factorisation with partial pivoting of a dense system of
+ * linear equations: P.A = L.U, with L unit lower triangular.
+ * <p>
+ * The matrix is factored once in O(n^3); every right hand side is
+ * then solved in O(n^2) by forward and back substitution, so one
+ * factorisation can serve any number of constants vectors. The
+ * factorisation is immutable and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class LUDecomposition {
+    private final double[][] luMatrix;
+    private final int[] permutation;
+    private final int numberOfEquations;
+
+    /**
+     * Factors a copy of the matrix, the matrix is left unchanged
+     */
+    public LUDecomposition(double[][] coefficientMatrix) {
+        this.numberOfEquations = coefficientMatrix.length;
+        this.luMatrix = new double[this.numberOfEquations][];
+        this.permutation = new int[this.numberOfEquations];
+        for (int row = 0; row < this.numberOfEquations; row++) {
+            this.luMatrix[row] = coefficientMatrix[row].clone();
+            this.permutation[row] = row;
+        }
+        this.factor();
+    }
+
+    private void factor() {
+        for (int column = 0; column < this.numberOfEquations; column++) {
+            int pivotRow = column;
+            for (int row = column + 1; row < this.numberOfEquations; row++) {
+                if (Math.abs(this.luMatrix[row][column]) > Math.abs(this.luMatrix[pivotRow][column])) {
+                    pivotRow = row;
+                }
+            }
+            if (pivotRow != column) {
+                double[] rowValues = this.luMatrix[pivotRow];
+                this.luMatrix[pivotRow] = this.luMatrix[column];
+                this.luMatrix[column] = rowValues;
+                int index = this.permutation[pivotRow];
+                this.permutation[pivotRow] = this.permutation[column];
+                this.permutation[column] = index;
+            }
+
+            double[] pivotRowValues = this.luMatrix[column];
+            for (int row = column + 1; row < this.numberOfEquations; row++) {
+                double[] rowValues = this.luMatrix[row];
+                double factor = rowValues[column] / pivotRowValues[column];
+                rowValues[column] = factor;
+                for (int j = column + 1; j < this.numberOfEquations; j++) {
+                    rowValues[j] -= factor * pivotRowValues[j];
+                }
+            }
+        }
+    }
+
+    public double[] solve(double[] constants) {
+        double[] solution = new double[this.numberOfEquations];
+        this.solve(constants, solution);
+        return solution;
+    }
+
+    /**
+     * Solves the system for the constants into solution, which must not be
+     * the constants array
+     */
+    public void solve(double[] constants, double[] solution) {
+        for (int row = 0; row < this.numberOfEquations; row++) {
+            double value = constants[this.permutation[row]];
+            double[] rowValues = this.luMatrix[row];
+            for (int j = 0; j < row; j++) {
+                value -= rowValues[j] * solution[j];
+            }
+            solution[row] = value;
+        }
+        for (int row = this.numberOfEquations - 1; row >= 0; row--) {
+            double value = solution[row];
+            double[] rowValues = this.luMatrix[row];
+            for (int j = row + 1; j < this.numberOfEquations; j++) {
+                value -= rowValues[j] * solution[j];
+            }
+            solution[row] = value / rowValues[row];
+        }
+    }
+
+    /**
+     * Solves the system for many right hand sides, one per row of constants
+     */
+    public double[][] solve(double[][] constants) {
+        double[][] solutions = new double[constants.length][this.numberOfEquations];
+        for (int i = 0; i < constants.length; i++) {
+            this.solve(constants[i], solutions[i]);
+        }
+        return solutions;
+    }
+
+    public int getNumberOfEquations() {
+        return numberOfEquations;
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.linearequationsystem;
+
+/**
+ * LU factorisation of a tridiagonal system of linear equations, the
+ * banded counterpart of LUDecomposition.
+ * <p>
+ * The factorisation is the matrix part of the Thomas algorithm: the
+ * pivots and the normalised upper diagonal. It depends on the
+ * coefficients only, so once factored every right hand side costs one
+ * O(n) forward and back substitution. TridiagonalMatrix.findSolution
+ * is a single right hand side solved this way.
+ * <p>
+ * The factorisation is immutable and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class TridiagonalLU {
+    private final double[] lowerDiagonal;
+    private final double[] pivots;
+    private final double[] normalisedUpperDiagonal;
+    private final int numberOfEquations;
+
+    /**
+     * Factors the system with row i: lower(i).x(i-1) + diagonal(i).x(i) + upper(i).x(i+1)
+     */
+    public TridiagonalLU(double[] lowerDiagonal, double[] diagonal, double[] upperDiagonal) {
+        this(null, 0, lowerDiagonal, diagonal, upperDiagonal);
+    }
+
+    private TridiagonalLU(TridiagonalLU factored, int keptRows, double[] lowerDiagonal, double[] diagonal, double[] upperDiagonal) {
+        this.numberOfEquations = diagonal.length;
+        this.lowerDiagonal = lowerDiagonal.clone();
+        this.pivots = new double[this.numberOfEquations];
+        this.normalisedUpperDiagonal = new double[this.numberOfEquations];
+        if (factored != null) {
+            System.arraycopy(factored.pivots, 0, this.pivots, 0, keptRows);
+            System.arraycopy(factored.normalisedUpperDiagonal, 0, this.normalisedUpperDiagonal, 0, keptRows);
+        }
+        for (int row = keptRows; row < this.numberOfEquations; row++) {
+            this.pivots[row] = row == 0 ? diagonal[0] : diagonal[row] - lowerDiagonal[row] * this.normalisedUpperDiagonal[row - 1];
+            this.normalisedUpperDiagonal[row] = upperDiagonal[row] / this.pivots[row];
+        }
+    }
+
+    /**
+     * Factorisation of a system whose first keptRows rows are the rows of
+     * this one: only the other rows are factored
+     */
+    public TridiagonalLU extend(int keptRows, double[] lowerDiagonal, double[] diagonal, double[] upperDiagonal) {
+        return new TridiagonalLU(this, Math.min(keptRows, this.numberOfEquations), lowerDiagonal, diagonal, upperDiagonal);
+    }
+
+    public double[] solve(double[] constants) {
+        double[] solution = new double[this.numberOfEquations];
+        this.solve(constants, solution);
+        return solution;
+    }
+
+    /**
+     * Solves the system for the constants into solution, which can be the
+     * constants array
+     */
+    public void solve(double[] constants, double[] solution) {
+        if (this.numberOfEquations == 0) {
+            return;
+        }
+        solution[0] = constants[0] / this.pivots[0];
+        for (int row = 1; row < this.numberOfEquations; row++) {
+            solution[row] = (constants[row] - this.lowerDiagonal[row] * solution[row - 1]) / this.pivots[row];
+        }
+        for (int row = this.numberOfEquations - 2; row >= 0; row--) {
+            solution[row] = solution[row] - this.normalisedUpperDiagonal[row] * solution[row + 1];
+        }
+    }
+
+    /**
+     * Solves the system for many right hand sides, one per row of constants
+     */
+    public double[][] solve(double[][] constants) {
+        double[][] solutions = new double[constants.length][this.numberOfEquations];
+        for (int i = 0; i < constants.length; i++) {
+            this.solve(constants[i], solutions[i]);
+        }
+        return solutions;
+    }
+
+    public int getNumberOfEquations() {
+        return numberOfEquations;
+    }
+}
@@ -0,0 +1,70 @@
+package com.company.linearequationsystem;
+
+import com.company.enums.MetricPhase;
+import com.company.metrics.Metrics;
+
+/**
+ * This class implements the Thomas algorithm to solve a
+ * tridiagonal system of linear equations, a single right hand side
+ * solved with a TridiagonalLU.
+ * <p>
+ * Only the three diagonals are stored, so the system is solved
+ * in O(n) time and memory. The algorithm does not pivot; it is
+ * stable for diagonally dominant systems such as the natural
+ * cubic splines equations.
+ * <p>
+ * Row i reads:
+ * <p>
+ * lower(i).x(i-1) + diagonal(i).x(i) + upper(i).x(i+1) = constant(i)
+ *
+ * @author Jose Gonzalez
+ */
+public class TridiagonalMatrix {
+    private double[] solution;
+    private double[] constants;
+    private int numberOfEquations;
+    private double[] lowerDiagonal;
+    private double[] diagonal;
+    private double[] upperDiagonal;
+
+    public TridiagonalMatrix(int equations) {
+        this.numberOfEquations = equations;
+        this.lowerDiagonal = new double[equations];
+        this.diagonal = new double[equations];
+        this.upperDiagonal = new double[equations];
+        this.constants = new double[equations];
+        this.solution = new double[equations];
+    }
+
+    public void setRow(int row, double lower, double diagonal, double upper, double constant) {
+        this.lowerDiagonal[row] = lower;
+        this.diagonal[row] = diagonal;
+        this.upperDiagonal[row] = upper;
+        this.constants[row] = constant;
+    }
+
+    /**
+     * Factors the system with a TridiagonalLU and solves it for the
+     * constants, so the sweep is only written once
+     */
+    public void findSolution() {
+        long start = Metrics.start();
+        new TridiagonalLU(this.lowerDiagonal, this.diagonal, this.upperDiagonal).solve(this.constants, this.solution);
+        Metrics.record(MetricPhase.EQUATION_SOLVE, start);
+    }
+
+    /**
+     * Getters and Setters
+     */
+    public double[] getSolution() {
+        return solution;
+    }
+
+    public double[] getConstants() {
+        return constants;
+    }
+
+    public int getNumberOfEquations() {
+        return numberOfEquations;
+    }
+}
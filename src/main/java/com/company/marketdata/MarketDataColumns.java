@@ -0,0 +1,154 @@
+package com.company.marketdata;
+
+import com.company.beans.DataPoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.Basis;
+import com.company.enums.RateType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column store of the rows of a market data file, one primitive
+ * array per csv column. Dates are kept as epoch days.
+ * <p>
+ * The arrays only grow, so an instance can be cleared and reused
+ * by MarketDataParser for every file of a history without allocating.
+ *
+ * @author Jose Gonzalez
+ */
+public class MarketDataColumns {
+    /** Epoch day of a date given as N/A */
+    public static final int MISSING_DATE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 32;
+    private static final double DAYS_IN_YEAR = 365.0;
+    private RateType[] types = new RateType[INITIAL_CAPACITY];
+    private int[] settles = new int[INITIAL_CAPACITY];
+    private int[] rollDates = new int[INITIAL_CAPACITY];
+    private int[] maturities = new int[INITIAL_CAPACITY];
+    private double[] quotes = new double[INITIAL_CAPACITY];
+    private Basis[] bases = new Basis[INITIAL_CAPACITY];
+    private double[] frequencies = new double[INITIAL_CAPACITY];
+    private double[] couponBases = new double[INITIAL_CAPACITY];
+    private int size;
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    void add(RateType type, int settle, int rollDate, int maturity, double quote, Basis basis, double frequency, double couponBase) {
+        if (this.size == this.types.length) {
+            int capacity = this.types.length * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.settles = Arrays.copyOf(this.settles, capacity);
+            this.rollDates = Arrays.copyOf(this.rollDates, capacity);
+            this.maturities = Arrays.copyOf(this.maturities, capacity);
+            this.quotes = Arrays.copyOf(this.quotes, capacity);
+            this.bases = Arrays.copyOf(this.bases, capacity);
+            this.frequencies = Arrays.copyOf(this.frequencies, capacity);
+            this.couponBases = Arrays.copyOf(this.couponBases, capacity);
+        }
+        this.types[this.size] = type;
+        this.settles[this.size] = settle;
+        this.rollDates[this.size] = rollDate;
+        this.maturities[this.size] = maturity;
+        this.quotes[this.size] = quote;
+        this.bases[this.size] = basis;
+        this.frequencies[this.size] = frequency;
+        this.couponBases[this.size] = couponBase;
+        this.size++;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public RateType getType(int index) {
+        return this.types[index];
+    }
+
+    public int getSettle(int index) {
+        return this.settles[index];
+    }
+
+    public int getRollDate(int index) {
+        return this.rollDates[index];
+    }
+
+    public int getMaturity(int index) {
+        return this.maturities[index];
+    }
+
+    /**
+     * The rate as quoted in the file
+     */
+    public double getQuote(int index) {
+        return this.quotes[index];
+    }
+
+    /**
+     * The quote divided by the coupon basis, as in DataPoint
+     */
+    public double getRate(int index) {
+        return this.quotes[index] * 1 / this.couponBases[index];
+    }
+
+    public double getYearsToMaturity(int index) {
+        return (this.maturities[index] - this.settles[index]) / DAYS_IN_YEAR;
+    }
+
+    /**
+     * null when the basis is not one of Basis
+     */
+    public Basis getBasis(int index) {
+        return this.bases[index];
+    }
+
+    public double getFrequency(int index) {
+        return this.frequencies[index];
+    }
+
+    public double getCouponBase(int index) {
+        return this.couponBases[index];
+    }
+
+    public DataPoint getDataPoint(int index) {
+        return new DataPoint.Builder()
+                .withType(this.types[index])
+                .withSettle(LocalDate.ofEpochDay(this.settles[index]))
+                .withRollDate(this.rollDates[index] == MISSING_DATE ? null : LocalDate.ofEpochDay(this.rollDates[index]))
+                .withMaturity(LocalDate.ofEpochDay(this.maturities[index]))
+                .withRate(this.quotes[index])
+                .withBasis(this.bases[index])
+                .withFrequency(this.frequencies[index])
+                .withCouponBase(this.couponBases[index])
+                .build();
+    }
+
+    public List<DataPoint> getDataPoints() {
+        List<DataPoint> dataPointList = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            dataPointList.add(this.getDataPoint(i));
+        }
+        return dataPointList;
+    }
+
+    /**
+     * Same curve as new RatesCurve(getDataPoints(), rateType) without
+     * going through DataPoints
+     */
+    public RatesCurve getRatesCurve(RateType rateType) {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int i = 0; i < this.size; i++) {
+            if (this.types[i] == rateType) {
+                if (rateType == RateType.SWAP && ratesCurve.getCashFlowYearlyFrequency() == null) {
+                    ratesCurve.setCashFlowYearlyFrequency(this.frequencies[i]);
+                }
+                ratesCurve.addIfAbsent(this.getYearsToMaturity(i), this.getRate(i));
+            }
+        }
+        return ratesCurve;
+    }
+}
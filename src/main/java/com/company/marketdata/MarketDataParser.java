@@ -0,0 +1,357 @@
+package com.company.marketdata;
+
+import com.company.enums.Basis;
+import com.company.enums.MetricPhase;
+import com.company.enums.RateType;
+import com.company.exceptions.MarketDataParseException;
+import com.company.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming parser of the market data csv files
+ * (Type,Settle,RollDate,Maturity,Rate,Basis,Frequency,CouponBasis).
+ * <p>
+ * The bytes are read straight from a ByteBuffer into the primitive
+ * columns of a MarketDataColumns: dates (yyyyMMdd) and decimals are
+ * parsed by hand, no String is created per field. The file buffer
+ * and the columns are reused between files, so a warm parser does
+ * not allocate. Decimals with up to 15 significant digits are parsed
+ * exactly as Double.valueOf does; longer ones fall back to it.
+ * <p>
+ * A leading UTF-8 BOM, header names padded with blanks, CRLF line
+ * endings and blank lines are accepted. Any other malformed row is
+ * reported with a MarketDataParseException holding its line number.
+ * <p>
+ * An instance keeps its buffer between calls: use one per thread.
+ *
+ * @author Jose Gonzalez
+ */
+public class MarketDataParser {
+    private static final String[] HEADER = {"Type", "Settle", "RollDate", "Maturity", "Rate", "Basis", "Frequency", "CouponBasis"};
+    private static final int TYPE = 0;
+    private static final int SETTLE = 1;
+    private static final int ROLL_DATE = 2;
+    private static final int MATURITY = 3;
+    private static final int RATE = 4;
+    private static final int BASIS = 5;
+    private static final int FREQUENCY = 6;
+    private static final int COUPON_BASIS = 7;
+    private static final int COLUMNS = HEADER.length;
+    private static final byte[][] HEADER_BYTES = new byte[COLUMNS][];
+    private static final RateType[] RATE_TYPES = RateType.values();
+    private static final byte[][] RATE_TYPE_BYTES = new byte[RATE_TYPES.length][];
+    private static final Basis[] BASES = Basis.values();
+    private static final byte[][] BASIS_BYTES = new byte[BASES.length][];
+    private static final byte[] NOT_AVAILABLE = "N/A".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAXIMUM_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final int DAYS_0000_TO_1970 = 719528;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    static {
+        for (int i = 0; i < COLUMNS; i++) {
+            HEADER_BYTES[i] = HEADER[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        for (int i = 0; i < RATE_TYPES.length; i++) {
+            RATE_TYPE_BYTES[i] = RATE_TYPES[i].getText().getBytes(StandardCharsets.US_ASCII);
+        }
+        for (int i = 0; i < BASES.length; i++) {
+            BASIS_BYTES[i] = BASES[i].getText().getBytes(StandardCharsets.US_ASCII);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private ByteBuffer fileBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private final int[] fieldStarts = new int[COLUMNS];
+    private final int[] fieldEnds = new int[COLUMNS];
+
+    public MarketDataColumns parse(Path path) throws IOException {
+        MarketDataColumns columns = new MarketDataColumns();
+        this.parse(path, columns);
+        return columns;
+    }
+
+    /**
+     * Replaces the content of columns with the rows of the file
+     */
+    public void parse(Path path, MarketDataColumns columns) throws IOException {
+        long start = Metrics.start();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + path);
+            }
+            if (this.fileBuffer.capacity() < fileSize) {
+                this.fileBuffer = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE, Math.max(fileSize, 2L * this.fileBuffer.capacity())));
+            }
+            this.fileBuffer.clear();
+            this.fileBuffer.limit((int) fileSize);
+            while (this.fileBuffer.hasRemaining() && channel.read(this.fileBuffer) >= 0) {
+                // read until the buffer holds the whole file
+            }
+            this.fileBuffer.flip();
+        }
+        this.parse(this.fileBuffer, columns);
+        Metrics.record(MetricPhase.CSV_LOAD, start);
+    }
+
+    /**
+     * Replaces the content of columns with the rows between the position and
+     * the limit of the buffer. The first non blank line is the header.
+     * Only absolute gets are used, so the buffer is left untouched.
+     */
+    public void parse(ByteBuffer buffer, MarketDataColumns columns) throws MarketDataParseException {
+        columns.clear();
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (limit - position >= 3 && (buffer.get(position) & 0xFF) == 0xEF
+                && (buffer.get(position + 1) & 0xFF) == 0xBB && (buffer.get(position + 2) & 0xFF) == 0xBF) {
+            position += 3;
+        }
+
+        int lineNumber = 0;
+        boolean headerRead = false;
+        while (position < limit) {
+            lineNumber++;
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int nextLine = lineEnd + 1;
+            if (lineEnd > position && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (!isBlank(buffer, position, lineEnd)) {
+                this.splitFields(buffer, position, lineEnd, lineNumber);
+                if (headerRead) {
+                    this.parseRow(buffer, columns, lineNumber);
+                } else {
+                    this.checkHeader(buffer, lineNumber);
+                    headerRead = true;
+                }
+            }
+            position = nextLine;
+        }
+    }
+
+    private void splitFields(ByteBuffer buffer, int start, int end, int lineNumber) throws MarketDataParseException {
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                if (field == COLUMNS) {
+                    throw new MarketDataParseException(lineNumber, "more than " + COLUMNS + " columns");
+                }
+                int trimmedStart = fieldStart;
+                int trimmedEnd = i;
+                while (trimmedStart < trimmedEnd && isBlank(buffer.get(trimmedStart))) {
+                    trimmedStart++;
+                }
+                while (trimmedEnd > trimmedStart && isBlank(buffer.get(trimmedEnd - 1))) {
+                    trimmedEnd--;
+                }
+                this.fieldStarts[field] = trimmedStart;
+                this.fieldEnds[field] = trimmedEnd;
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        if (field < COLUMNS) {
+            throw new MarketDataParseException(lineNumber, "expected " + COLUMNS + " columns but found " + field);
+        }
+    }
+
+    private void checkHeader(ByteBuffer buffer, int lineNumber) throws MarketDataParseException {
+        for (int column = 0; column < COLUMNS; column++) {
+            if (!this.fieldEquals(buffer, column, HEADER_BYTES[column])) {
+                throw new MarketDataParseException(lineNumber, "expected header " + HEADER[column]
+                        + " but found '" + this.fieldText(buffer, column) + "'");
+            }
+        }
+    }
+
+    private void parseRow(ByteBuffer buffer, MarketDataColumns columns, int lineNumber) throws MarketDataParseException {
+        RateType type = null;
+        for (int i = 0; i < RATE_TYPES.length && type == null; i++) {
+            if (this.fieldEquals(buffer, TYPE, RATE_TYPE_BYTES[i])) {
+                type = RATE_TYPES[i];
+            }
+        }
+        if (type == null) {
+            throw new MarketDataParseException(lineNumber, "unknown Type '" + this.fieldText(buffer, TYPE) + "'");
+        }
+
+        Basis basis = null;
+        for (int i = 0; i < BASES.length && basis == null; i++) {
+            if (this.fieldEquals(buffer, BASIS, BASIS_BYTES[i])) {
+                basis = BASES[i];
+            }
+        }
+
+        int settle = this.parseDate(buffer, SETTLE, lineNumber);
+        int rollDate = this.fieldEquals(buffer, ROLL_DATE, NOT_AVAILABLE) ?
+                MarketDataColumns.MISSING_DATE : this.parseDate(buffer, ROLL_DATE, lineNumber);
+        int maturity = this.parseDate(buffer, MATURITY, lineNumber);
+        double quote = this.parseDecimal(buffer, RATE, lineNumber);
+        double frequency = this.fieldEquals(buffer, FREQUENCY, NOT_AVAILABLE) ?
+                0 : this.parseDecimal(buffer, FREQUENCY, lineNumber);
+        double couponBase = this.fieldEquals(buffer, COUPON_BASIS, NOT_AVAILABLE) ?
+                0 : this.parseDecimal(buffer, COUPON_BASIS, lineNumber);
+
+        columns.add(type, settle, rollDate, maturity, quote, basis, frequency, couponBase);
+    }
+
+    /**
+     * yyyyMMdd to epoch days, as LocalDate.toEpochDay
+     */
+    private int parseDate(ByteBuffer buffer, int column, int lineNumber) throws MarketDataParseException {
+        int start = this.fieldStarts[column];
+        if (this.fieldEnds[column] - start != 8) {
+            throw this.invalidField(buffer, column, lineNumber);
+        }
+        int digits = 0;
+        for (int i = start; i < start + 8; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw this.invalidField(buffer, column, lineNumber);
+            }
+            digits = digits * 10 + digit;
+        }
+        int year = digits / 10000;
+        int month = digits / 100 % 100;
+        int day = digits % 100;
+        boolean leapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(month, leapYear)) {
+            throw this.invalidField(buffer, column, lineNumber);
+        }
+
+        int epochDay = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        epochDay += (367 * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            epochDay -= leapYear ? 1 : 2;
+        }
+        return epochDay - DAYS_0000_TO_1970;
+    }
+
+    private static int daysInMonth(int month, boolean leapYear) {
+        switch (month) {
+            case 2:
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Fast path: the digits fit exactly in a double and so does the power of
+     * ten, so a single division gives the correctly rounded value.
+     */
+    private double parseDecimal(ByteBuffer buffer, int column, int lineNumber) throws MarketDataParseException {
+        int start = this.fieldStarts[column];
+        int end = this.fieldEnds[column];
+        boolean negative = false;
+        int i = start;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean decimalPoint = false;
+        boolean digitFound = false;
+        for (; i < end; i++) {
+            byte character = buffer.get(i);
+            if (character >= '0' && character <= '9') {
+                digitFound = true;
+                if (mantissa != 0 || character != '0') {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + (character - '0');
+                if (decimalPoint) {
+                    scale++;
+                }
+                if (significantDigits > MAXIMUM_EXACT_DIGITS || scale >= POWERS_OF_TEN.length) {
+                    return this.parseDecimalSlowly(buffer, column, lineNumber);
+                }
+            } else if (character == '.' && !decimalPoint) {
+                decimalPoint = true;
+            } else {
+                return this.parseDecimalSlowly(buffer, column, lineNumber);
+            }
+        }
+        if (!digitFound) {
+            throw this.invalidField(buffer, column, lineNumber);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double parseDecimalSlowly(ByteBuffer buffer, int column, int lineNumber) throws MarketDataParseException {
+        try {
+            return Double.parseDouble(this.fieldText(buffer, column));
+        } catch (NumberFormatException e) {
+            throw new MarketDataParseException(lineNumber, "invalid " + HEADER[column]
+                    + " '" + this.fieldText(buffer, column) + "'", e);
+        }
+    }
+
+    private MarketDataParseException invalidField(ByteBuffer buffer, int column, int lineNumber) {
+        return new MarketDataParseException(lineNumber, "invalid " + HEADER[column]
+                + " '" + this.fieldText(buffer, column) + "'");
+    }
+
+    private boolean fieldEquals(ByteBuffer buffer, int column, byte[] text) {
+        int start = this.fieldStarts[column];
+        if (this.fieldEnds[column] - start != text.length) {
+            return false;
+        }
+        for (int i = 0; i < text.length; i++) {
+            if (toLowerCase(buffer.get(start + i)) != toLowerCase(text[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String fieldText(ByteBuffer buffer, int column) {
+        byte[] bytes = new byte[this.fieldEnds[column] - this.fieldStarts[column]];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(this.fieldStarts[column] + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte toLowerCase(byte character) {
+        return character >= 'A' && character <= 'Z' ? (byte) (character + ('a' - 'A')) : character;
+    }
+
+    private static boolean isBlank(byte character) {
+        return character == ' ' || character == '\t';
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isBlank(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
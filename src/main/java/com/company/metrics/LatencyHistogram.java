@@ -0,0 +1,107 @@
+package com.company.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in nanoseconds, with buckets of a
+ * constant relative width as in HdrHistogram.
+ * <p>
+ * Values below 128 have a bucket each. Above, every power of two is
+ * split in 64 buckets, so a value is recorded with a relative error
+ * below 1/64 (1.6%) up to Long.MAX_VALUE, in a fixed array of 3712
+ * counters. Recording is an index computation and one atomic
+ * increment; percentiles scan the counters and report the upper bound
+ * of the bucket.
+ * <p>
+ * Concurrent records are never lost; a percentile read while values
+ * are being recorded may miss the latest ones.
+ *
+ * @author Jose Gonzalez
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - 1 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        this.counts.incrementAndGet(getIndex(value));
+        this.count.incrementAndGet();
+        this.total.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = this.max.get()) && !this.max.compareAndSet(currentMax, value)) {
+            // another thread raised the max, compare again
+        }
+    }
+
+    /**
+     * The value below which the given percentage (0 to 100) of the
+     * records fall, 0 when empty
+     */
+    public long getPercentile(double percentile) {
+        long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+        long cumulative = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            cumulative += this.counts.get(index);
+            if (cumulative >= target) {
+                return Math.min(getUpperBound(index), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) this.total.get() / count;
+    }
+
+    /**
+     * Clears the histogram, records made during the reset may be lost
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKETS; index++) {
+            this.counts.set(index, 0);
+        }
+        this.count.set(0);
+        this.total.set(0);
+        this.max.set(0);
+    }
+
+    static int getIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * The largest value recorded in the bucket
+     */
+    static long getUpperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.metrics;
+
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
+
+import javax.management.JMException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the instrumentation placed on the hot paths.
+ * <p>
+ * The switch is the system property curves.metrics, read once when the
+ * class is loaded. ENABLED is a static final constant, so when it is
+ * false the JIT removes the calls below together with their
+ * System.nanoTime, and a disabled build pays nothing but the bytecode.
+ * When enabled, the registry is exposed over JMX as soon as the class is
+ * loaded, and printed to System.out every curves.metrics.dumpSeconds
+ * seconds when that property is set.
+ * <p>
+ * Phases are timed by pairing the two calls:
+ * <pre>
+ *     long start = Metrics.start();
+ *     ...
+ *     Metrics.record(MetricPhase.CALIBRATION, start);
+ * </pre>
+ *
+ * @author Jose Gonzalez
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("curves.metrics");
+    public static final long DUMP_SECONDS = Long.getLong("curves.metrics.dumpSeconds", 0);
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    static {
+        if (ENABLED) {
+            try {
+                REGISTRY.registerMBeans();
+            } catch (JMException e) {
+                throw new IllegalStateException("The metrics MBeans could not be registered", e);
+            }
+            if (DUMP_SECONDS > 0) {
+                REGISTRY.startPeriodicDump(DUMP_SECONDS, TimeUnit.SECONDS, System.out);
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * The start of a phase, 0 when disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since start in the histogram of the phase
+     */
+    public static void record(MetricPhase metricPhase, long start) {
+        if (ENABLED) {
+            REGISTRY.record(metricPhase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds the queries answered by a curve of the model
+     */
+    public static void countQueries(ModelType modelType, long queries) {
+        if (ENABLED) {
+            REGISTRY.countQueries(modelType, queries);
+        }
+    }
+
+    /**
+     * The registry fed by the instrumentation, empty when disabled
+     */
+    public static MetricsRegistry getRegistry() {
+        return REGISTRY;
+    }
+}
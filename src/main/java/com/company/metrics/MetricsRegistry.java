@@ -0,0 +1,186 @@
+package com.company.metrics;
+
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per phase and query counters per model.
+ * <p>
+ * Every metric is created up front, so recording never allocates or
+ * locks: a histogram record is an atomic increment and a counter is a
+ * LongAdder, which stays cheap when many threads query the curves.
+ * <p>
+ * The metrics are read through a text dump, printed on demand or
+ * periodically, and through MXBeans registered on the platform MBean
+ * server under the domain com.company.curves.
+ *
+ * @author Jose Gonzalez
+ */
+public class MetricsRegistry {
+    public static final String JMX_DOMAIN = "com.company.curves";
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private final Map<MetricPhase, LatencyHistogram> phaseHistograms = new EnumMap<>(MetricPhase.class);
+    private final Map<ModelType, LongAdder> queryCounters = new EnumMap<>(ModelType.class);
+    private boolean registered;
+
+    public MetricsRegistry() {
+        for (MetricPhase metricPhase : MetricPhase.values()) {
+            this.phaseHistograms.put(metricPhase, new LatencyHistogram());
+        }
+        for (ModelType modelType : ModelType.values()) {
+            this.queryCounters.put(modelType, new LongAdder());
+        }
+    }
+
+    public void record(MetricPhase metricPhase, long nanos) {
+        this.phaseHistograms.get(metricPhase).record(nanos);
+    }
+
+    public void countQueries(ModelType modelType, long queries) {
+        this.queryCounters.get(modelType).add(queries);
+    }
+
+    public LatencyHistogram getPhaseHistogram(MetricPhase metricPhase) {
+        return this.phaseHistograms.get(metricPhase);
+    }
+
+    public long getQueryCount(ModelType modelType) {
+        return this.queryCounters.get(modelType).sum();
+    }
+
+    public void reset() {
+        for (LatencyHistogram latencyHistogram : this.phaseHistograms.values()) {
+            latencyHistogram.reset();
+        }
+        for (LongAdder queryCounter : this.queryCounters.values()) {
+            queryCounter.reset();
+        }
+    }
+
+    /**
+     * One line per phase with its count and latencies in microseconds,
+     * then one line per model with its queries
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-18s %10s %12s %12s %12s %12s%n", "phase", "count", "mean(us)", "p50(us)", "p99(us)", "max(us)"));
+        for (Map.Entry<MetricPhase, LatencyHistogram> entry : this.phaseHistograms.entrySet()) {
+            LatencyHistogram latencyHistogram = entry.getValue();
+            builder.append(String.format("%-18s %10d %12.1f %12.1f %12.1f %12.1f%n", entry.getKey(), latencyHistogram.getCount(),
+                    latencyHistogram.getMean() / NANOS_PER_MICRO, latencyHistogram.getPercentile(50) / NANOS_PER_MICRO,
+                    latencyHistogram.getPercentile(99) / NANOS_PER_MICRO, latencyHistogram.getMax() / NANOS_PER_MICRO));
+        }
+        builder.append(String.format("%-18s %10s%n", "model", "queries"));
+        for (Map.Entry<ModelType, LongAdder> entry : this.queryCounters.entrySet()) {
+            builder.append(String.format("%-18s %10d%n", entry.getKey(), entry.getValue().sum()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Prints the dump every period on a daemon thread until the returned
+     * handle is closed
+     */
+    public AutoCloseable startPeriodicDump(long period, TimeUnit timeUnit, PrintStream out) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> out.print(this.dump()), period, period, timeUnit);
+        return scheduler::shutdownNow;
+    }
+
+    /**
+     * Registers one MXBean per phase and per model on the platform MBean
+     * server, calling it again does nothing
+     */
+    public synchronized void registerMBeans() throws JMException {
+        if (this.registered) {
+            return;
+        }
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<MetricPhase, LatencyHistogram> entry : this.phaseHistograms.entrySet()) {
+            mBeanServer.registerMBean(new StandardMBean(new PhaseMetrics(entry.getValue()), PhaseMetricsMXBean.class, true),
+                    getObjectName("Phase", entry.getKey().name()));
+        }
+        for (Map.Entry<ModelType, LongAdder> entry : this.queryCounters.entrySet()) {
+            mBeanServer.registerMBean(new StandardMBean(new QueryMetrics(entry.getValue()), QueryMetricsMXBean.class, true),
+                    getObjectName("Queries", entry.getKey().name()));
+        }
+        this.registered = true;
+    }
+
+    public static ObjectName getObjectName(String type, String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + name);
+    }
+
+    private static final class PhaseMetrics implements PhaseMetricsMXBean {
+        private final LatencyHistogram latencyHistogram;
+
+        private PhaseMetrics(LatencyHistogram latencyHistogram) {
+            this.latencyHistogram = latencyHistogram;
+        }
+
+        @Override
+        public long getCount() {
+            return this.latencyHistogram.getCount();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return this.latencyHistogram.getMean() / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return this.latencyHistogram.getPercentile(50) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return this.latencyHistogram.getPercentile(99) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return this.latencyHistogram.getMax() / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public void reset() {
+            this.latencyHistogram.reset();
+        }
+    }
+
+    private static final class QueryMetrics implements QueryMetricsMXBean {
+        private final LongAdder queryCounter;
+
+        private QueryMetrics(LongAdder queryCounter) {
+            this.queryCounter = queryCounter;
+        }
+
+        @Override
+        public long getQueries() {
+            return this.queryCounter.sum();
+        }
+
+        @Override
+        public void reset() {
+            this.queryCounter.reset();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.metrics;
+
+/**
+ * JMX view of the latency histogram of a phase, times in microseconds
+ *
+ * @author Jose Gonzalez
+ */
+public interface PhaseMetricsMXBean {
+    long getCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getMaxMicros();
+    void reset();
+}
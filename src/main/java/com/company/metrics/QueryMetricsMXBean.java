@@ -0,0 +1,11 @@
+package com.company.metrics;
+
+/**
+ * JMX view of the queries answered by the curves of a model
+ *
+ * @author Jose Gonzalez
+ */
+public interface QueryMetricsMXBean {
+    long getQueries();
+    void reset();
+}
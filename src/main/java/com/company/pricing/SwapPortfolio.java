@@ -0,0 +1,127 @@
+package com.company.pricing;
+
+import com.company.beans.Swap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A book of swaps prepared for pricing.
+ * <p>
+ * The cash flow schedule does not depend on the curve, so it is built
+ * once: the terms of all the coupons of all the swaps are merged into
+ * one sorted array of distinct terms (swaps with the same frequency
+ * share most of them), and every coupon is stored as an index into
+ * that array. The coupons of swap k are cashFlowIndexes[cashFlowOffsets[k]]
+ * to cashFlowIndexes[cashFlowOffsets[k + 1] - 1], the last one at the
+ * swap term.
+ * <p>
+ * The portfolio is immutable and can be priced on many curves, from
+ * many threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class SwapPortfolio {
+    private final List<Swap> swaps;
+    private final double[] notionals;
+    private final double[] fixedRates;
+    private final double[] yearlyFrequencies;
+    private final double[] terms;
+    private final int[] cashFlowOffsets;
+    private final int[] cashFlowIndexes;
+
+    /**
+     * The notional of swaps.get(k) is notionals[k], negative to pay fixed
+     */
+    public SwapPortfolio(List<Swap> swaps, double[] notionals) {
+        if (swaps.size() != notionals.length) {
+            throw new IllegalArgumentException(swaps.size() + " swaps and " + notionals.length + " notionals");
+        }
+        int size = swaps.size();
+        this.swaps = Collections.unmodifiableList(swaps);
+        this.notionals = notionals.clone();
+        this.fixedRates = new double[size];
+        this.yearlyFrequencies = new double[size];
+        this.cashFlowOffsets = new int[size + 1];
+
+        double[][] swapCashFlowTerms = new double[size][];
+        for (int k = 0; k < size; k++) {
+            Swap swap = swaps.get(k);
+            this.fixedRates[k] = swap.getFixedRate();
+            this.yearlyFrequencies[k] = swap.getYearlyFrequency();
+            swapCashFlowTerms[k] = swap.getCashFlowTerms();
+            this.cashFlowOffsets[k + 1] = this.cashFlowOffsets[k] + swapCashFlowTerms[k].length;
+        }
+
+        double[] allTerms = new double[this.cashFlowOffsets[size]];
+        for (int k = 0; k < size; k++) {
+            System.arraycopy(swapCashFlowTerms[k], 0, allTerms, this.cashFlowOffsets[k], swapCashFlowTerms[k].length);
+        }
+        Arrays.sort(allTerms);
+        int distinctTerms = 0;
+        for (int i = 0; i < allTerms.length; i++) {
+            if (distinctTerms == 0 || allTerms[i] != allTerms[distinctTerms - 1]) {
+                allTerms[distinctTerms++] = allTerms[i];
+            }
+        }
+        this.terms = Arrays.copyOf(allTerms, distinctTerms);
+
+        this.cashFlowIndexes = new int[this.cashFlowOffsets[size]];
+        for (int k = 0; k < size; k++) {
+            for (int i = 0; i < swapCashFlowTerms[k].length; i++) {
+                this.cashFlowIndexes[this.cashFlowOffsets[k] + i] = Arrays.binarySearch(this.terms, swapCashFlowTerms[k][i]);
+            }
+        }
+    }
+
+    public int size() {
+        return this.notionals.length;
+    }
+
+    public List<Swap> getSwaps() {
+        return swaps;
+    }
+
+    public double[] getNotionals() {
+        return this.notionals.clone();
+    }
+
+    /**
+     * The distinct cash flow terms of the portfolio, in ascending order
+     */
+    public double[] getTerms() {
+        return this.terms.clone();
+    }
+
+    public int getNumberOfCashFlows() {
+        return this.cashFlowIndexes.length;
+    }
+
+    /**
+     * Direct access for SwapPricingEngine, which never modifies the arrays
+     */
+    double[] terms() {
+        return this.terms;
+    }
+
+    double[] notionals() {
+        return this.notionals;
+    }
+
+    double[] fixedRates() {
+        return this.fixedRates;
+    }
+
+    double[] yearlyFrequencies() {
+        return this.yearlyFrequencies;
+    }
+
+    int[] cashFlowOffsets() {
+        return this.cashFlowOffsets;
+    }
+
+    int[] cashFlowIndexes() {
+        return this.cashFlowIndexes;
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.pricing;
+
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Prices a SwapPortfolio on a calibrated curve.
+ * <p>
+ * The discount factors of all the distinct cash flow terms of the
+ * portfolio are evaluated with one batch call on the curve (sorted
+ * terms, so every segment is searched once). Every swap is then a sum
+ * of table lookups:
+ * <p>
+ * annuity = (DF(t1) + ... + DF(tn)) / frequency
+ * <p>
+ * PV = notional.(fixed rate.annuity + DF(tn) - 1)
+ * <p>
+ * par rate = (1 - DF(tn)) / annuity
+ * <p>
+ * The same receive fixed, floating leg at par convention as
+ * Swap.getPresentValue. The swaps are split in tasks of SWAPS_PER_TASK
+ * swaps on the executor; a smaller portfolio is priced on the calling
+ * thread.
+ * <p>
+ * The engine holds no state and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class SwapPricingEngine {
+    private static final int SWAPS_PER_TASK = 8192;
+    private final Executor executor;
+
+    public SwapPricingEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SwapPricingEngine(Executor executor) {
+        this.executor = executor;
+    }
+
+    public SwapValuations price(SwapPortfolio swapPortfolio, Interpolation interpolation) throws InterpolationException {
+        long start = System.nanoTime();
+        double[] terms = swapPortfolio.terms();
+        double[] discountFactors = new double[terms.length];
+        interpolation.getDiscountFactors(terms, discountFactors);
+        long discountFactorNanos = System.nanoTime() - start;
+
+        int size = swapPortfolio.size();
+        double[] presentValues = new double[size];
+        double[] parRates = new double[size];
+        double[] annuities = new double[size];
+        if (size <= SWAPS_PER_TASK) {
+            price(swapPortfolio, discountFactors, 0, size, presentValues, parRates, annuities);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int from = 0; from < size; from += SWAPS_PER_TASK) {
+                int taskFrom = from;
+                int taskTo = Math.min(from + SWAPS_PER_TASK, size);
+                futures.add(CompletableFuture.runAsync(() -> price(swapPortfolio, discountFactors, taskFrom, taskTo,
+                        presentValues, parRates, annuities), this.executor));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                future.join();
+            }
+        }
+        return new SwapValuations(presentValues, parRates, annuities, discountFactorNanos, System.nanoTime() - start);
+    }
+
+    private static void price(SwapPortfolio swapPortfolio, double[] discountFactors, int from, int to,
+                              double[] presentValues, double[] parRates, double[] annuities) {
+        double[] notionals = swapPortfolio.notionals();
+        double[] fixedRates = swapPortfolio.fixedRates();
+        double[] yearlyFrequencies = swapPortfolio.yearlyFrequencies();
+        int[] cashFlowOffsets = swapPortfolio.cashFlowOffsets();
+        int[] cashFlowIndexes = swapPortfolio.cashFlowIndexes();
+        for (int k = from; k < to; k++) {
+            double sumOfDiscountFactors = 0;
+            for (int i = cashFlowOffsets[k]; i < cashFlowOffsets[k + 1]; i++) {
+                sumOfDiscountFactors += discountFactors[cashFlowIndexes[i]];
+            }
+            double lastDiscountFactor = discountFactors[cashFlowIndexes[cashFlowOffsets[k + 1] - 1]];
+            double coupon = fixedRates[k] / yearlyFrequencies[k];
+            annuities[k] = sumOfDiscountFactors / yearlyFrequencies[k];
+            presentValues[k] = notionals[k] * (coupon * sumOfDiscountFactors + lastDiscountFactor - 1);
+            parRates[k] = (1 - lastDiscountFactor) / annuities[k];
+        }
+    }
+}
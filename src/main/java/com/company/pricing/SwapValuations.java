@@ -0,0 +1,74 @@
+package com.company.pricing;
+
+/**
+ * Result of pricing a SwapPortfolio, by swap in the order of the
+ * portfolio. Present values include the notional; par rates and
+ * annuities are per unit notional.
+ *
+ * @author Jose Gonzalez
+ */
+public class SwapValuations {
+    private final double[] presentValues;
+    private final double[] parRates;
+    private final double[] annuities;
+    private final long discountFactorNanos;
+    private final long pricingNanos;
+
+    SwapValuations(double[] presentValues, double[] parRates, double[] annuities, long discountFactorNanos, long pricingNanos) {
+        this.presentValues = presentValues;
+        this.parRates = parRates;
+        this.annuities = annuities;
+        this.discountFactorNanos = discountFactorNanos;
+        this.pricingNanos = pricingNanos;
+    }
+
+    public int size() {
+        return this.presentValues.length;
+    }
+
+    public double getPresentValue(int index) {
+        return this.presentValues[index];
+    }
+
+    public double getParRate(int index) {
+        return this.parRates[index];
+    }
+
+    public double getAnnuity(int index) {
+        return this.annuities[index];
+    }
+
+    public double getTotalPresentValue() {
+        double totalPresentValue = 0;
+        for (double presentValue : this.presentValues) {
+            totalPresentValue += presentValue;
+        }
+        return totalPresentValue;
+    }
+
+    public double[] getPresentValues() {
+        return this.presentValues.clone();
+    }
+
+    public double[] getParRates() {
+        return this.parRates.clone();
+    }
+
+    public double[] getAnnuities() {
+        return this.annuities.clone();
+    }
+
+    /**
+     * Time spent evaluating the discount factors of the cash flow terms
+     */
+    public long getDiscountFactorNanos() {
+        return discountFactorNanos;
+    }
+
+    /**
+     * Total pricing time, discount factors included
+     */
+    public long getPricingNanos() {
+        return pricingNanos;
+    }
+}
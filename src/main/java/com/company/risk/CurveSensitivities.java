@@ -0,0 +1,89 @@
+package com.company.risk;
+
+import com.company.beans.DataPoint;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sensitivities of a bootstrapped zero curve on a tenor grid to each
+ * of its input quotes: element [quote][tenor] of a Jacobian is the
+ * change of the zero rate (or discount factor) at the tenor per unit
+ * change of the quote. Multiplied by 0.0001 a row gives the bucketed
+ * DV01 of the quote.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveSensitivities {
+    private final List<DataPoint> quotes;
+    private final double[] tenors;
+    private final double[] zeroRates;
+    private final double[] discountFactors;
+    private final double[][] zeroRateJacobian;
+    private final double[][] discountFactorJacobian;
+    private final double bump;
+
+    CurveSensitivities(List<DataPoint> quotes, double[] tenors, double[] zeroRates, double[] discountFactors,
+                       double[][] zeroRateJacobian, double[][] discountFactorJacobian, double bump) {
+        this.quotes = Collections.unmodifiableList(quotes);
+        this.tenors = tenors;
+        this.zeroRates = zeroRates;
+        this.discountFactors = discountFactors;
+        this.zeroRateJacobian = zeroRateJacobian;
+        this.discountFactorJacobian = discountFactorJacobian;
+        this.bump = bump;
+    }
+
+    /**
+     * The input quotes, in the order of the Jacobian rows
+     */
+    public List<DataPoint> getQuotes() {
+        return quotes;
+    }
+
+    public double[] getTenors() {
+        return this.tenors.clone();
+    }
+
+    /**
+     * Zero rates of the unbumped curve at the tenors
+     */
+    public double[] getZeroRates() {
+        return this.zeroRates.clone();
+    }
+
+    public double[] getDiscountFactors() {
+        return this.discountFactors.clone();
+    }
+
+    public double getZeroRateSensitivity(int quoteIndex, int tenorIndex) {
+        return this.zeroRateJacobian[quoteIndex][tenorIndex];
+    }
+
+    public double getDiscountFactorSensitivity(int quoteIndex, int tenorIndex) {
+        return this.discountFactorJacobian[quoteIndex][tenorIndex];
+    }
+
+    public double[][] getZeroRateJacobian() {
+        return copy(this.zeroRateJacobian);
+    }
+
+    public double[][] getDiscountFactorJacobian() {
+        return copy(this.discountFactorJacobian);
+    }
+
+    /**
+     * The quote bump the sensitivities were computed with
+     */
+    public double getBump() {
+        return bump;
+    }
+
+    private static double[][] copy(double[][] matrix) {
+        double[][] copy = new double[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,211 @@
+package com.company.risk;
+
+import com.company.ModelFactory;
+import com.company.beans.RatesCurve;
+import com.company.beans.Swap;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.pricing.SwapPortfolio;
+import com.company.pricing.SwapPricingEngine;
+import com.company.service.CurveBuildResult;
+import com.company.service.CurveBuildResults;
+import com.company.service.CurveBuildService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Historical simulation of a swap portfolio over a history of daily
+ * market data files.
+ * <p>
+ * The days are streamed through the CurveBuildService in batches: the
+ * curves of a batch are built in parallel, their zero rates are
+ * sampled on the tenor grid and the quotes and curves are dropped
+ * before the next batch is loaded. The quotes and curves held at once
+ * are bounded by the batch size; one rates vector per day is kept, and
+ * the scenarios built from them, so the rest of the memory grows as
+ * O(days x tenors).
+ * <p>
+ * Scenario i is the change of the zero rates on the grid from day i to
+ * day i + 1 (absolute changes). Each scenario is applied to the rates of
+ * the last day, the scenario curve is calibrated on the grid and the
+ * portfolio is valued on it; the profit and loss is taken against the
+ * portfolio valued on the unshifted grid curve. Scenarios are revalued
+ * in parallel on the executor, each one with the SwapPricingEngine on
+ * its own thread.
+ * <p>
+ * A day whose curve fails to build is reported and left out of the
+ * history. The engine holds no state and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class HistoricalVaREngine {
+    private static final int SCENARIOS_PER_TASK = 16;
+    private static final SwapPricingEngine swapPricingEngine = new SwapPricingEngine(Runnable::run);
+    private final ModelType modelType;
+    private final double[] tenors;
+    private final CurveBuildService curveBuildService;
+    private final Executor executor;
+    private final int batchDays;
+
+    public HistoricalVaREngine(ModelType modelType, double[] tenors) {
+        this(modelType, tenors, ForkJoinPool.commonPool(), 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param batchDays the number of days loaded and built at once
+     */
+    public HistoricalVaREngine(ModelType modelType, double[] tenors, Executor executor, int batchDays) {
+        this.modelType = modelType;
+        this.tenors = tenors.clone();
+        this.curveBuildService = new CurveBuildService(modelType, executor);
+        this.executor = executor;
+        this.batchDays = batchDays;
+    }
+
+    /**
+     * Runs the simulation over the csv files of the directory. The days are
+     * taken in the order of the file names, which should sort by date
+     * (e.g. 2016-09-28_GBPRates.csv).
+     */
+    public HistoricalVaRReport run(Path directory, List<Swap> swaps, double[] notionals) throws IOException, InterpolationException {
+        List<Path> dailyFiles;
+        try (Stream<Path> paths = Files.list(directory)) {
+            dailyFiles = paths.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".csv"))
+                    .sorted((first, second) -> first.getFileName().toString().compareTo(second.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        return this.run(dailyFiles, swaps, notionals);
+    }
+
+    /**
+     * Runs the simulation over the daily files, in the given order. The
+     * notional of swaps.get(k) is notionals[k], negative to pay fixed.
+     */
+    public HistoricalVaRReport run(List<Path> dailyFiles, List<Swap> swaps, double[] notionals) throws InterpolationException {
+        return this.run(dailyFiles, new SwapPortfolio(swaps, notionals));
+    }
+
+    /**
+     * Runs the simulation over the daily files, in the given order
+     */
+    public HistoricalVaRReport run(List<Path> dailyFiles, SwapPortfolio swapPortfolio) throws InterpolationException {
+        long start = System.nanoTime();
+        List<String> days = new ArrayList<>();
+        List<double[]> dayRates = new ArrayList<>();
+        Map<String, Exception> failedDays = new LinkedHashMap<>();
+        long loadNanos = 0;
+        long bootstrapNanos = 0;
+        long curveBuildNanos = 0;
+        long samplingNanos = 0;
+
+        for (int from = 0; from < dailyFiles.size(); from += this.batchDays) {
+            Map<String, Path> batch = new LinkedHashMap<>();
+            for (Path dailyFile : dailyFiles.subList(from, Math.min(from + this.batchDays, dailyFiles.size()))) {
+                String fileName = dailyFile.getFileName().toString();
+                batch.put(fileName.endsWith(".csv") ? fileName.substring(0, fileName.length() - 4) : fileName, dailyFile);
+            }
+            CurveBuildResults curveBuildResults = this.curveBuildService.buildFromFiles(batch);
+            curveBuildNanos += curveBuildResults.getWallTimeNanos();
+
+            long samplingStart = System.nanoTime();
+            for (CurveBuildResult result : curveBuildResults.getResults().values()) {
+                loadNanos += result.getLoadNanos();
+                bootstrapNanos += result.getBootstrapNanos();
+                if (!result.isSuccessful()) {
+                    failedDays.put(result.getCurveId(), result.getError());
+                    continue;
+                }
+                double[] rates = new double[this.tenors.length];
+                result.getBootstrappedCurve().getInterpolation().getModeledRates(this.tenors, rates);
+                days.add(result.getCurveId());
+                dayRates.add(rates);
+            }
+            samplingNanos += System.nanoTime() - samplingStart;
+        }
+
+        double[][] scenarios = new double[Math.max(dayRates.size() - 1, 0)][this.tenors.length];
+        for (int i = 0; i < scenarios.length; i++) {
+            for (int j = 0; j < this.tenors.length; j++) {
+                scenarios[i][j] = dayRates.get(i + 1)[j] - dayRates.get(i)[j];
+            }
+        }
+
+        long revaluationStart = System.nanoTime();
+        double basePresentValue = Double.NaN;
+        double[] profitAndLoss = new double[scenarios.length];
+        if (!dayRates.isEmpty()) {
+            double[] baseRates = dayRates.get(dayRates.size() - 1);
+            basePresentValue = swapPricingEngine.price(swapPortfolio, this.getScenarioCurve(baseRates, null)).getTotalPresentValue();
+            this.revalue(baseRates, scenarios, swapPortfolio, basePresentValue, profitAndLoss);
+        }
+        long revaluationNanos = System.nanoTime() - revaluationStart;
+
+        return new HistoricalVaRReport(days, failedDays, this.tenors.clone(), scenarios, basePresentValue, profitAndLoss,
+                loadNanos, bootstrapNanos, curveBuildNanos, samplingNanos, revaluationNanos, System.nanoTime() - start);
+    }
+
+    public ModelType getModelType() {
+        return modelType;
+    }
+
+    public double[] getTenors() {
+        return this.tenors.clone();
+    }
+
+    /**
+     * Profit and loss of every scenario, in tasks of SCENARIOS_PER_TASK scenarios
+     */
+    private void revalue(double[] baseRates, double[][] scenarios, SwapPortfolio swapPortfolio,
+                         double basePresentValue, double[] profitAndLoss) throws InterpolationException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < scenarios.length; from += SCENARIOS_PER_TASK) {
+            int taskFrom = from;
+            int taskTo = Math.min(from + SCENARIOS_PER_TASK, scenarios.length);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    for (int i = taskFrom; i < taskTo; i++) {
+                        Interpolation scenarioCurve = this.getScenarioCurve(baseRates, scenarios[i]);
+                        profitAndLoss[i] = swapPricingEngine.price(swapPortfolio, scenarioCurve).getTotalPresentValue() - basePresentValue;
+                    }
+                } catch (InterpolationException e) {
+                    throw new CompletionException(e);
+                }
+            }, this.executor));
+        }
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof InterpolationException) {
+                    throw (InterpolationException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The model calibrated on the grid rates shifted by the scenario, or on
+     * the grid rates when the scenario is null
+     */
+    private Interpolation getScenarioCurve(double[] baseRates, double[] scenario) {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int j = 0; j < this.tenors.length; j++) {
+            ratesCurve.add(this.tenors[j], scenario == null ? baseRates[j] : baseRates[j] + scenario[j]);
+        }
+        return ModelFactory.createModel(this.modelType, ratesCurve);
+    }
+}
@@ -0,0 +1,172 @@
+package com.company.risk;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a historical simulation: the days of the history, the rate
+ * change scenarios on the tenor grid, the profit and loss of the
+ * portfolio under each scenario and the time spent in every stage.
+ * <p>
+ * Load and bootstrap times are summed over the days, so with several
+ * threads they can exceed the wall time of the curve build stage.
+ *
+ * @author Jose Gonzalez
+ */
+public class HistoricalVaRReport {
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final double TAIL_TOLERANCE = 1e-9;
+    private final List<String> days;
+    private final Map<String, Exception> failedDays;
+    private final double[] tenors;
+    private final double[][] scenarios;
+    private final double basePresentValue;
+    private final double[] profitAndLoss;
+    private final double[] sortedProfitAndLoss;
+    private final long loadNanos;
+    private final long bootstrapNanos;
+    private final long curveBuildNanos;
+    private final long samplingNanos;
+    private final long revaluationNanos;
+    private final long wallTimeNanos;
+
+    HistoricalVaRReport(List<String> days, Map<String, Exception> failedDays, double[] tenors, double[][] scenarios,
+                        double basePresentValue, double[] profitAndLoss, long loadNanos, long bootstrapNanos,
+                        long curveBuildNanos, long samplingNanos, long revaluationNanos, long wallTimeNanos) {
+        this.days = Collections.unmodifiableList(days);
+        this.failedDays = Collections.unmodifiableMap(failedDays);
+        this.tenors = tenors;
+        this.scenarios = scenarios;
+        this.basePresentValue = basePresentValue;
+        this.profitAndLoss = profitAndLoss;
+        this.sortedProfitAndLoss = profitAndLoss.clone();
+        Arrays.sort(this.sortedProfitAndLoss);
+        this.loadNanos = loadNanos;
+        this.bootstrapNanos = bootstrapNanos;
+        this.curveBuildNanos = curveBuildNanos;
+        this.samplingNanos = samplingNanos;
+        this.revaluationNanos = revaluationNanos;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    /**
+     * Loss not exceeded with the given confidence (e.g. 0.99): the k-th
+     * worst loss of the scenarios, with k = ceil((1 - confidence).scenarios)
+     * and at least 1. NaN without scenarios.
+     */
+    public double getValueAtRisk(double confidence) {
+        if (this.sortedProfitAndLoss.length == 0) {
+            return Double.NaN;
+        }
+        return -this.sortedProfitAndLoss[this.getTailScenarios(confidence) - 1];
+    }
+
+    /**
+     * Average loss of the k worst scenarios, see getValueAtRisk
+     */
+    public double getExpectedShortfall(double confidence) {
+        if (this.sortedProfitAndLoss.length == 0) {
+            return Double.NaN;
+        }
+        int tailScenarios = this.getTailScenarios(confidence);
+        double sum = 0;
+        for (int i = 0; i < tailScenarios; i++) {
+            sum += this.sortedProfitAndLoss[i];
+        }
+        return -sum / tailScenarios;
+    }
+
+    /**
+     * Scenarios revalued per second of the revaluation stage
+     */
+    public double getScenariosPerSecond() {
+        return this.revaluationNanos == 0 ? 0 : this.scenarios.length * NANOS_IN_SECOND / this.revaluationNanos;
+    }
+
+    /**
+     * The days whose curve was built, in the order of the history
+     */
+    public List<String> getDays() {
+        return days;
+    }
+
+    public Map<String, Exception> getFailedDays() {
+        return failedDays;
+    }
+
+    public double[] getTenors() {
+        return this.tenors.clone();
+    }
+
+    public int getNumberOfScenarios() {
+        return this.scenarios.length;
+    }
+
+    /**
+     * Zero rate changes on the tenor grid from day i to day i + 1
+     */
+    public double[] getScenario(int index) {
+        return this.scenarios[index].clone();
+    }
+
+    /**
+     * Portfolio value on the curve of the last day of the history
+     */
+    public double getBasePresentValue() {
+        return basePresentValue;
+    }
+
+    /**
+     * Profit and loss by scenario, in the order of the scenarios
+     */
+    public double[] getProfitAndLoss() {
+        return this.profitAndLoss.clone();
+    }
+
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getBootstrapNanos() {
+        return bootstrapNanos;
+    }
+
+    /**
+     * Wall time of the curve build stage, load and bootstrap of every day
+     */
+    public long getCurveBuildNanos() {
+        return curveBuildNanos;
+    }
+
+    public long getSamplingNanos() {
+        return samplingNanos;
+    }
+
+    public long getRevaluationNanos() {
+        return revaluationNanos;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d days (%d failed), %d scenarios, %.0f scenarios/s%n"
+                        + "curve build %.3f ms (load %.3f ms, bootstrap %.3f ms), sampling %.3f ms, revaluation %.3f ms, total %.3f ms",
+                this.days.size(), this.failedDays.size(), this.scenarios.length, this.getScenariosPerSecond(),
+                this.curveBuildNanos / 1e6, this.loadNanos / 1e6, this.bootstrapNanos / 1e6,
+                this.samplingNanos / 1e6, this.revaluationNanos / 1e6, this.wallTimeNanos / 1e6);
+    }
+
+    /**
+     * The number of scenarios in the tail, the tolerance keeps
+     * (1 - 0.99) * 500 at 5 scenarios
+     */
+    private int getTailScenarios(double confidence) {
+        int tailScenarios = (int) Math.ceil((1 - confidence) * this.sortedProfitAndLoss.length - TAIL_TOLERANCE);
+        return Math.min(Math.max(tailScenarios, 1), this.sortedProfitAndLoss.length);
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.risk;
+
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bucketed sensitivities of a bootstrapped zero curve to its input
+ * cash and swap quotes, by bump and revalue.
+ * <p>
+ * The quotes are parsed once by the caller; the unbumped curve and the
+ * curve with each quote bumped (one forward difference per quote) are
+ * bootstrapped in parallel on the executor, and every curve is queried
+ * on the whole tenor grid with the batch methods. Each bumped curve is
+ * exactly the brute force one (same quotes, same BootstrapEngine), so
+ * the sensitivities match brute force bumping, while the wall time is
+ * that of about (quotes + 1) / threads builds.
+ * <p>
+ * The engine holds no state and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class SensitivityEngine {
+    /** One basis point of the quote */
+    public static final double DEFAULT_BUMP = 0.0001;
+    private final BootstrapEngine bootstrapEngine;
+    private final Executor executor;
+    private final double bump;
+
+    public SensitivityEngine(ModelType modelType) {
+        this(modelType, ForkJoinPool.commonPool(), DEFAULT_BUMP);
+    }
+
+    public SensitivityEngine(ModelType modelType, Executor executor, double bump) {
+        this.bootstrapEngine = new BootstrapEngine(modelType);
+        this.executor = executor;
+        this.bump = bump;
+    }
+
+    /**
+     * Sensitivities of the zero rates and discount factors at the tenors
+     * to each quote. The tenors should be sorted in ascending order.
+     */
+    public CurveSensitivities compute(List<DataPoint> quotes, double[] tenors) throws InterpolationException {
+        List<DataPoint> baseQuotes = new ArrayList<>(quotes);
+        List<CompletableFuture<double[][]>> futures = new ArrayList<>(baseQuotes.size() + 1);
+        futures.add(CompletableFuture.supplyAsync(() -> this.revalue(baseQuotes, tenors), this.executor));
+        for (int i = 0; i < baseQuotes.size(); i++) {
+            List<DataPoint> bumpedQuotes = new ArrayList<>(baseQuotes);
+            DataPoint quote = baseQuotes.get(i);
+            bumpedQuotes.set(i, new DataPoint.Builder(quote).withRate(quote.getQuote() + this.bump).build());
+            futures.add(CompletableFuture.supplyAsync(() -> this.revalue(bumpedQuotes, tenors), this.executor));
+        }
+
+        double[][] base = join(futures.get(0));
+        double[][] zeroRateJacobian = new double[baseQuotes.size()][tenors.length];
+        double[][] discountFactorJacobian = new double[baseQuotes.size()][tenors.length];
+        for (int i = 0; i < baseQuotes.size(); i++) {
+            double[][] bumped = join(futures.get(i + 1));
+            for (int j = 0; j < tenors.length; j++) {
+                zeroRateJacobian[i][j] = (bumped[0][j] - base[0][j]) / this.bump;
+                discountFactorJacobian[i][j] = (bumped[1][j] - base[1][j]) / this.bump;
+            }
+        }
+        return new CurveSensitivities(baseQuotes, tenors.clone(), base[0], base[1], zeroRateJacobian, discountFactorJacobian, this.bump);
+    }
+
+    public ModelType getModelType() {
+        return this.bootstrapEngine.getModelType();
+    }
+
+    /**
+     * Zero rates and discount factors at the tenors of the curve bootstrapped from the quotes
+     */
+    private double[][] revalue(List<DataPoint> quotes, double[] tenors) {
+        try {
+            Interpolation interpolation = this.bootstrapEngine.bootstrap(quotes).getInterpolation();
+            double[][] values = new double[2][tenors.length];
+            interpolation.getModeledRates(tenors, values[0]);
+            interpolation.getDiscountFactors(tenors, values[1]);
+            return values;
+        } catch (InterpolationException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static double[][] join(CompletableFuture<double[][]> future) throws InterpolationException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InterpolationException) {
+                throw (InterpolationException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.company.server;
+
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.metrics.LatencyHistogram;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In process HTTP server answering queries on calibrated curves, bound
+ * to the loopback address.
+ * <p>
+ * GET /rate?curve=GBP&amp;t=0.5,1,2 answers getModeledRate for every term,
+ * one value per line, evaluated with the batch method of the curve.
+ * /discount and /forward answer getDiscountFactor and getForwardRate;
+ * a forward term written start:end is the forward rate between the two
+ * terms. Large batches can POST the terms in the body, separated by
+ * commas or new lines. GET /curves lists the curve ids and GET /stats
+ * the request counters and the p50, p99 and max latencies in
+ * microseconds.
+ * <p>
+ * Requests are handled by a pool of worker threads with a bounded
+ * queue. The dispatcher thread of the HttpServer only hands the
+ * exchange to the workers; when the workers and the queue are all taken
+ * it answers 503 at once rather than running the request itself, so an
+ * overload never stops the other connections from being accepted.
+ * Rejected requests are counted apart and not recorded in the latency
+ * histogram. A POST body is read up to maxBodyBytes, a larger one is
+ * answered 413.
+ * <p>
+ * publish replaces a curve in a single write: a request in flight
+ * completes on the curve it started with and the next one sees the new
+ * curve, no request is dropped or answered from a mix of both.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveQueryServer implements AutoCloseable {
+    private static final int BACKLOG = 128;
+    private static final int STOP_SECONDS = 1;
+    public static final int DEFAULT_MAX_BODY_BYTES = 1 << 20;
+    private final HttpServer httpServer;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore permits;
+    private final int maxBodyBytes;
+    private final Map<String, Interpolation> curves = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Starts a server on the loopback address, port 0 picks a free port
+     */
+    public CurveQueryServer(int port, int workerThreads, int queueCapacity) throws IOException {
+        this(port, workerThreads, queueCapacity, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Starts a server that answers 413 to a POST body over maxBodyBytes
+     */
+    public CurveQueryServer(int port, int workerThreads, int queueCapacity, int maxBodyBytes) throws IOException {
+        //the permits bound the queue, a worker releases its permit just before it is free again
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        this.permits = new Semaphore(workerThreads + queueCapacity);
+        this.maxBodyBytes = maxBodyBytes;
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        this.httpServer.createContext("/rate", exchange -> this.dispatch(exchange, QueryType.RATE));
+        this.httpServer.createContext("/discount", exchange -> this.dispatch(exchange, QueryType.DISCOUNT_FACTOR));
+        this.httpServer.createContext("/forward", exchange -> this.dispatch(exchange, QueryType.FORWARD_RATE));
+        this.httpServer.createContext("/curves", exchange -> this.dispatch(exchange, QueryType.CURVES));
+        this.httpServer.createContext("/stats", exchange -> this.dispatch(exchange, QueryType.STATS));
+        this.httpServer.start();
+    }
+
+    /**
+     * Hosts the curve, replacing the one with the same id
+     */
+    public void publish(String curveId, Interpolation interpolation) {
+        this.curves.put(curveId, interpolation);
+    }
+
+    public Interpolation remove(String curveId) {
+        return this.curves.remove(curveId);
+    }
+
+    public int getPort() {
+        return this.httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Latency of the handled requests, from the start of the handling to
+     * the response sent
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    /**
+     * Terms evaluated, a batch request counts each of its terms
+     */
+    public long getQueries() {
+        return this.queries.get();
+    }
+
+    public long getErrors() {
+        return this.errors.get();
+    }
+
+    /**
+     * Requests answered 503 because the workers and the queue were full
+     */
+    public long getRejected() {
+        return this.rejected.get();
+    }
+
+    public int getQueueDepth() {
+        return this.workers.getQueue().size();
+    }
+
+    /**
+     * Stops accepting requests, waits a moment for the ones in flight
+     */
+    @Override
+    public void close() {
+        this.httpServer.stop(STOP_SECONDS);
+        this.workers.shutdown();
+    }
+
+    /**
+     * Runs on the dispatcher thread: hands the exchange to the workers, or
+     * answers 503 when no permit is left
+     */
+    private void dispatch(HttpExchange exchange, QueryType queryType) throws IOException {
+        if (!this.permits.tryAcquire()) {
+            this.rejected.incrementAndGet();
+            sendResponse(exchange, 503, "Server busy\n");
+            return;
+        }
+        try {
+            this.workers.execute(() -> {
+                try {
+                    this.handle(exchange, queryType);
+                } catch (IOException e) {
+                    //the client went away, nothing to answer
+                } finally {
+                    exchange.close();
+                    this.permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.permits.release();
+            this.rejected.incrementAndGet();
+            sendResponse(exchange, 503, "Server closed\n");
+        }
+    }
+
+    private void handle(HttpExchange exchange, QueryType queryType) throws IOException {
+        long start = System.nanoTime();
+        this.requests.incrementAndGet();
+        int status = 200;
+        String body;
+        try {
+            body = this.answer(exchange, queryType);
+        } catch (QueryException e) {
+            status = e.status;
+            body = e.getMessage() + "\n";
+        } catch (InterpolationException | RuntimeException e) {
+            status = 500;
+            body = e + "\n";
+        }
+        if (status != 200) {
+            this.errors.incrementAndGet();
+        }
+
+        sendResponse(exchange, status, body);
+        this.latencyHistogram.record(System.nanoTime() - start);
+    }
+
+    private static void sendResponse(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private String answer(HttpExchange exchange, QueryType queryType) throws IOException, InterpolationException, QueryException {
+        String method = exchange.getRequestMethod();
+        if (!method.equals("GET") && !method.equals("POST")) {
+            throw new QueryException(405, "Method not allowed: " + method);
+        }
+        switch (queryType) {
+            case CURVES:
+                return String.join("\n", new TreeSet<>(this.curves.keySet())) + "\n";
+            case STATS:
+                return this.getStats();
+            default:
+                break;
+        }
+
+        Map<String, String> parameters = getParameters(exchange.getRequestURI().getRawQuery());
+        String curveId = parameters.get("curve");
+        if (curveId == null) {
+            throw new QueryException(400, "Missing curve parameter");
+        }
+        Interpolation interpolation = this.curves.get(curveId);
+        if (interpolation == null) {
+            throw new QueryException(404, "Unknown curve: " + curveId);
+        }
+        List<String> terms = new ArrayList<>();
+        addTerms(terms, parameters.get("t"));
+        if (method.equals("POST")) {
+            addTerms(terms, this.readBody(exchange));
+        }
+        if (terms.isEmpty()) {
+            throw new QueryException(400, "No terms");
+        }
+        this.queries.addAndGet(terms.size());
+        return evaluate(interpolation, queryType, terms);
+    }
+
+    /**
+     * Evaluates the terms with the batch methods, the period forward rates
+     * one at a time
+     */
+    private static String evaluate(Interpolation interpolation, QueryType queryType, List<String> terms) throws InterpolationException, QueryException {
+        double[] maturities = new double[terms.size()];
+        double[] endTerms = null;
+        for (int i = 0; i < maturities.length; i++) {
+            String term = terms.get(i);
+            int separator = term.indexOf(':');
+            if (separator >= 0 && queryType.equals(QueryType.FORWARD_RATE)) {
+                if (endTerms == null) {
+                    endTerms = new double[maturities.length];
+                    Arrays.fill(endTerms, Double.NaN);
+                }
+                maturities[i] = parseTerm(term.substring(0, separator));
+                endTerms[i] = parseTerm(term.substring(separator + 1));
+            } else {
+                maturities[i] = parseTerm(term);
+            }
+        }
+
+        double[] values = new double[maturities.length];
+        if (queryType.equals(QueryType.RATE)) {
+            interpolation.getModeledRates(maturities, values);
+        } else if (queryType.equals(QueryType.DISCOUNT_FACTOR)) {
+            interpolation.getDiscountFactors(maturities, values);
+        } else if (endTerms == null) {
+            interpolation.getForwardRates(maturities, values);
+        } else {
+            for (int i = 0; i < maturities.length; i++) {
+                values[i] = Double.isNaN(endTerms[i]) ? interpolation.getForwardRate(maturities[i])
+                        : interpolation.getForwardRate(maturities[i], endTerms[i]);
+            }
+        }
+
+        StringBuilder body = new StringBuilder(values.length * 24);
+        for (double value : values) {
+            body.append(value).append('\n');
+        }
+        return body.toString();
+    }
+
+    private String getStats() {
+        return "requests=" + this.requests.get() + "\n"
+                + "queries=" + this.queries.get() + "\n"
+                + "errors=" + this.errors.get() + "\n"
+                + "rejected=" + this.rejected.get() + "\n"
+                + "curves=" + this.curves.size() + "\n"
+                + "p50_micros=" + this.latencyHistogram.getPercentile(50) / 1000.0 + "\n"
+                + "p99_micros=" + this.latencyHistogram.getPercentile(99) / 1000.0 + "\n"
+                + "max_micros=" + this.latencyHistogram.getMax() / 1000.0 + "\n";
+    }
+
+    private static Map<String, String> getParameters(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+                        URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    private static void addTerms(List<String> terms, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String term : value.split("[,\\s]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static double parseTerm(String term) throws QueryException {
+        try {
+            return Double.parseDouble(term);
+        } catch (NumberFormatException e) {
+            throw new QueryException(400, "Invalid term: " + term);
+        }
+    }
+
+    /**
+     * The request body, 413 when its length, declared or read, is over
+     * maxBodyBytes
+     */
+    private String readBody(HttpExchange exchange) throws IOException, QueryException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && Long.parseLong(contentLength.trim()) > this.maxBodyBytes) {
+            throw new QueryException(413, "Body over " + this.maxBodyBytes + " bytes");
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        InputStream inputStream = exchange.getRequestBody();
+        while ((read = inputStream.read(buffer)) != -1) {
+            if (body.size() + read > this.maxBodyBytes) {
+                throw new QueryException(413, "Body over " + this.maxBodyBytes + " bytes");
+            }
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private enum QueryType {
+        RATE, DISCOUNT_FACTOR, FORWARD_RATE, CURVES, STATS
+    }
+
+    /**
+     * A request that cannot be answered, with its HTTP status
+     */
+    private static final class QueryException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private QueryException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.service;
+
+import com.company.bootstrap.BootstrappedCurve;
+
+/**
+ * Outcome of building one curve: either the bootstrapped curve or
+ * the error that stopped it, and the time spent loading the quotes
+ * and bootstrapping.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveBuildResult {
+    private final String curveId;
+    private final BootstrappedCurve bootstrappedCurve;
+    private final Exception error;
+    private final long loadNanos;
+    private final long bootstrapNanos;
+
+    CurveBuildResult(String curveId, BootstrappedCurve bootstrappedCurve, Exception error, long loadNanos, long bootstrapNanos) {
+        this.curveId = curveId;
+        this.bootstrappedCurve = bootstrappedCurve;
+        this.error = error;
+        this.loadNanos = loadNanos;
+        this.bootstrapNanos = bootstrapNanos;
+    }
+
+    public String getCurveId() {
+        return curveId;
+    }
+
+    /**
+     * null when the build failed
+     */
+    public BootstrappedCurve getBootstrappedCurve() {
+        return bootstrappedCurve;
+    }
+
+    /**
+     * null when the build succeeded
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return this.error == null;
+    }
+
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getBootstrapNanos() {
+        return bootstrapNanos;
+    }
+
+    public long getBuildNanos() {
+        return this.loadNanos + this.bootstrapNanos;
+    }
+}
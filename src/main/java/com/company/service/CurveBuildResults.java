@@ -0,0 +1,58 @@
+package com.company.service;
+
+import com.company.interfaces.Interpolation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable results of a CurveBuildService run, by curve id in
+ * the order of the request.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveBuildResults {
+    private final Map<String, CurveBuildResult> results;
+    private final Map<String, Interpolation> curves;
+    private final Map<String, Exception> errors;
+    private final long wallTimeNanos;
+
+    CurveBuildResults(Map<String, CurveBuildResult> results, long wallTimeNanos) {
+        Map<String, Interpolation> curves = new LinkedHashMap<>();
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        for (CurveBuildResult result : results.values()) {
+            if (result.isSuccessful()) {
+                curves.put(result.getCurveId(), result.getBootstrappedCurve().getInterpolation());
+            } else {
+                errors.put(result.getCurveId(), result.getError());
+            }
+        }
+        this.results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+        this.curves = Collections.unmodifiableMap(curves);
+        this.errors = Collections.unmodifiableMap(errors);
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public Map<String, CurveBuildResult> getResults() {
+        return results;
+    }
+
+    /**
+     * The calibrated curves of the successful builds
+     */
+    public Map<String, Interpolation> getCurves() {
+        return curves;
+    }
+
+    public Map<String, Exception> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Time from the start of the run until the last curve was built
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+}
@@ -0,0 +1,101 @@
+package com.company.service;
+
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.bootstrap.BootstrappedCurve;
+import com.company.enums.ModelType;
+import com.company.marketdata.MarketDataParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless service building many zero curves at once.
+ * <p>
+ * Every curve is loaded and bootstrapped in its own task on the
+ * executor (the common ForkJoinPool by default), so the wall time of
+ * a run is bounded by the slowest curve rather than the sum of all
+ * of them when there are enough threads. A curve that fails does not
+ * stop the others: its error is kept in its CurveBuildResult.
+ * <p>
+ * The service holds no state besides its configuration and can be
+ * shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveBuildService {
+    private static final ThreadLocal<MarketDataParser> marketDataParser = ThreadLocal.withInitial(MarketDataParser::new);
+    private final BootstrapEngine bootstrapEngine;
+    private final Executor executor;
+
+    public CurveBuildService(ModelType modelType) {
+        this(modelType, ForkJoinPool.commonPool());
+    }
+
+    public CurveBuildService(ModelType modelType, Executor executor) {
+        this.bootstrapEngine = new BootstrapEngine(modelType);
+        this.executor = executor;
+    }
+
+    /**
+     * Builds a curve from each market data file, by curve id
+     */
+    public CurveBuildResults buildFromFiles(Map<String, Path> curveFiles) {
+        return this.build(curveFiles, path -> marketDataParser.get().parse(path).getDataPoints());
+    }
+
+    /**
+     * Builds a curve from each quote set, by curve id
+     */
+    public CurveBuildResults buildFromQuotes(Map<String, List<DataPoint>> curveQuotes) {
+        return this.build(curveQuotes, dataPointList -> dataPointList);
+    }
+
+    public ModelType getModelType() {
+        return this.bootstrapEngine.getModelType();
+    }
+
+    private <T> CurveBuildResults build(Map<String, T> curveInputs, QuoteLoader<T> quoteLoader) {
+        long start = System.nanoTime();
+        List<CompletableFuture<CurveBuildResult>> futures = new ArrayList<>(curveInputs.size());
+        for (Map.Entry<String, T> entry : curveInputs.entrySet()) {
+            futures.add(CompletableFuture.supplyAsync(() -> this.build(entry.getKey(), entry.getValue(), quoteLoader), this.executor));
+        }
+
+        Map<String, CurveBuildResult> results = new LinkedHashMap<>();
+        for (CompletableFuture<CurveBuildResult> future : futures) {
+            CurveBuildResult result = future.join();
+            results.put(result.getCurveId(), result);
+        }
+        return new CurveBuildResults(results, System.nanoTime() - start);
+    }
+
+    private <T> CurveBuildResult build(String curveId, T curveInput, QuoteLoader<T> quoteLoader) {
+        long start = System.nanoTime();
+        List<DataPoint> dataPointList;
+        try {
+            dataPointList = quoteLoader.load(curveInput);
+        } catch (Exception e) {
+            return new CurveBuildResult(curveId, null, e, System.nanoTime() - start, 0);
+        }
+
+        long loadNanos = System.nanoTime() - start;
+        try {
+            BootstrappedCurve bootstrappedCurve = this.bootstrapEngine.bootstrap(dataPointList);
+            return new CurveBuildResult(curveId, bootstrappedCurve, null, loadNanos, System.nanoTime() - start - loadNanos);
+        } catch (Exception e) {
+            return new CurveBuildResult(curveId, null, e, loadNanos, System.nanoTime() - start - loadNanos);
+        }
+    }
+
+    private interface QuoteLoader<T> {
+        List<DataPoint> load(T curveInput) throws IOException;
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.service;
+
+import com.company.enums.OutputFormat;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a curve evaluated on a tenor grid: the zero rate, discount
+ * factor and instantaneous forward rate at every tenor, computed with
+ * the batch methods of the Interpolation.
+ * <p>
+ * CSV: a Term,Rate,DiscountFactor,Forward header and one line per
+ * tenor, the values printed with Double.toString so they read back
+ * exactly.
+ * <p>
+ * BINARY, little endian: int magic, int version, int number of tenors,
+ * int unused, then the tenors, rates, discount factors and forward
+ * rates as four blocks of doubles.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveGridWriter {
+    public static final int MAGIC = 0x49524347; //IRCG
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    private static final String CSV_HEADER = "Term,Rate,DiscountFactor,Forward";
+
+    /**
+     * Writes the curve on the tenors, which should be sorted in ascending order
+     */
+    public static void write(Interpolation interpolation, double[] tenors, OutputFormat outputFormat, Path path)
+            throws InterpolationException, IOException {
+        double[][] values = new double[3][tenors.length];
+        interpolation.getModeledRates(tenors, values[0]);
+        interpolation.getDiscountFactors(tenors, values[1]);
+        interpolation.getForwardRates(tenors, values[2]);
+        if (outputFormat.equals(OutputFormat.BINARY)) {
+            writeBinary(tenors, values, path);
+        } else {
+            writeCsv(tenors, values, path);
+        }
+    }
+
+    /**
+     * The name of the output file of an input file, e.g. GBPRates.csv
+     * gives GBPRates.MONOTONE_CONVEX.csv
+     */
+    public static String getOutputFileName(String inputFileName, String modelName, OutputFormat outputFormat) {
+        int extension = inputFileName.lastIndexOf('.');
+        String baseName = extension > 0 ? inputFileName.substring(0, extension) : inputFileName;
+        return baseName + "." + modelName + (outputFormat.equals(OutputFormat.BINARY) ? ".bin" : ".csv");
+    }
+
+    private static void writeCsv(double[] tenors, double[][] values, Path path) throws IOException {
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), 1 << 16)) {
+            StringBuilder line = new StringBuilder(96);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (int i = 0; i < tenors.length; i++) {
+                line.setLength(0);
+                line.append(tenors[i]).append(',').append(values[0][i]).append(',')
+                        .append(values[1][i]).append(',').append(values[2][i]).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    private static void writeBinary(double[] tenors, double[][] values, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * Double.BYTES * tenors.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(tenors.length).putInt(0);
+        buffer.asDoubleBuffer().put(tenors).put(values[0]).put(values[1]).put(values[2]);
+        buffer.rewind();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
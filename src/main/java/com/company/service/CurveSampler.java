@@ -0,0 +1,152 @@
+package com.company.service;
+
+import com.company.enums.CurveMeasure;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Samples a curve for display with a fixed budget of points, placed
+ * where the curve bends.
+ * <p>
+ * The range is first sampled on a coarse uniform grid. Then the interval
+ * whose midpoint lies furthest from the chord between its ends is split,
+ * again and again, until the budget is spent or no midpoint is further
+ * than the resolution (a thousandth of the value range, below a pixel on
+ * a chart). Straight stretches keep the coarse grid; bends, kinks and
+ * jumps of the forwards get the points, down to a width of a quarter of
+ * the average spacing.
+ * <p>
+ * The sampling can be cancelled between splits: the cancelled supplier
+ * is polled and null returned as soon as it is true.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveSampler {
+    public static final int DEFAULT_POINT_BUDGET = 600;
+    private static final int MINIMUM_POINT_BUDGET = 3;
+    private static final double RESOLUTION = 1e-3;
+    private static final int CANCELLATION_CHECK_SPLITS = 32;
+    private final int pointBudget;
+
+    public CurveSampler() {
+        this(DEFAULT_POINT_BUDGET);
+    }
+
+    public CurveSampler(int pointBudget) {
+        if (pointBudget < MINIMUM_POINT_BUDGET) {
+            throw new IllegalArgumentException("Point budget below " + MINIMUM_POINT_BUDGET + ": " + pointBudget);
+        }
+        this.pointBudget = pointBudget;
+    }
+
+    /**
+     * The terms and values of the measure between the two terms, in
+     * ascending terms, as {terms, values}; null if cancelled
+     */
+    public double[][] sample(Interpolation interpolation, CurveMeasure curveMeasure, double startTerm, double endTerm,
+                             BooleanSupplier cancelled) throws InterpolationException {
+        if (!(endTerm > startTerm)) {
+            return new double[][]{new double[0], new double[0]};
+        }
+        double[] terms = new double[this.pointBudget];
+        double[] values = new double[this.pointBudget];
+        int[] next = new int[this.pointBudget];
+
+        int points = Math.max(this.pointBudget / 4, 2);
+        double step = (endTerm - startTerm) / (points - 1);
+        double minimumValue = Double.POSITIVE_INFINITY;
+        double maximumValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < points; i++) {
+            terms[i] = i == points - 1 ? endTerm : startTerm + i * step;
+            values[i] = getValue(interpolation, curveMeasure, terms[i]);
+            next[i] = i + 1;
+            minimumValue = Math.min(minimumValue, values[i]);
+            maximumValue = Math.max(maximumValue, values[i]);
+        }
+        next[points - 1] = -1;
+        double tolerance = RESOLUTION * Math.max(maximumValue - minimumValue, Math.abs(maximumValue));
+        double minimumWidth = (endTerm - startTerm) / (4.0 * this.pointBudget);
+
+        PriorityQueue<Interval> intervals = new PriorityQueue<>();
+        for (int i = 0; i < points - 1; i++) {
+            this.addInterval(intervals, interpolation, curveMeasure, terms, values, i, i + 1, minimumWidth);
+        }
+        while (points < this.pointBudget && !intervals.isEmpty()) {
+            if (points % CANCELLATION_CHECK_SPLITS == 0 && cancelled.getAsBoolean()) {
+                return null;
+            }
+            Interval interval = intervals.poll();
+            if (interval.error <= tolerance) {
+                break;
+            }
+            int middle = points++;
+            terms[middle] = interval.middleTerm;
+            values[middle] = interval.middleValue;
+            next[middle] = next[interval.start];
+            next[interval.start] = middle;
+            this.addInterval(intervals, interpolation, curveMeasure, terms, values, interval.start, middle, minimumWidth);
+            this.addInterval(intervals, interpolation, curveMeasure, terms, values, middle, next[middle], minimumWidth);
+        }
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+
+        double[][] series = new double[][]{new double[points], new double[points]};
+        int index = 0;
+        for (int point = 0; point != -1; point = next[point]) {
+            series[0][index] = terms[point];
+            series[1][index++] = values[point];
+        }
+        return series;
+    }
+
+    public int getPointBudget() {
+        return this.pointBudget;
+    }
+
+    private void addInterval(PriorityQueue<Interval> intervals, Interpolation interpolation, CurveMeasure curveMeasure,
+                             double[] terms, double[] values, int start, int end, double minimumWidth) throws InterpolationException {
+        if (terms[end] - terms[start] < 2 * minimumWidth) {
+            return;
+        }
+        double middleTerm = 0.5 * (terms[start] + terms[end]);
+        double middleValue = getValue(interpolation, curveMeasure, middleTerm);
+        double error = Math.abs(middleValue - 0.5 * (values[start] + values[end]));
+        intervals.add(new Interval(start, middleTerm, middleValue, error));
+    }
+
+    private static double getValue(Interpolation interpolation, CurveMeasure curveMeasure, double term) throws InterpolationException {
+        switch (curveMeasure) {
+            case FORWARD_RATE:
+                return interpolation.getForwardRate(term);
+            default:
+                return interpolation.getModeledRate(term);
+        }
+    }
+
+    /**
+     * An interval between a point and the next one, with its evaluated
+     * midpoint; the queue polls the largest error first
+     */
+    private static final class Interval implements Comparable<Interval> {
+        private final int start;
+        private final double middleTerm;
+        private final double middleValue;
+        private final double error;
+
+        private Interval(int start, double middleTerm, double middleValue, double error) {
+            this.start = start;
+            this.middleTerm = middleTerm;
+            this.middleValue = middleValue;
+            this.error = error;
+        }
+
+        @Override
+        public int compareTo(Interval interval) {
+            return Double.compare(interval.error, this.error);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.snapshot;
+
+import com.company.Utils.SearchUtils;
+import com.company.interfaces.Interpolation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Natural Cubic Splines evaluated straight from a CurveRecord,
+ * with the same arithmetic as CubicSplines so both return the
+ * same values. Only absolute reads of the buffer are used, an
+ * instance can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class ByteBufferCubicSplines implements Interpolation {
+    private final ByteBuffer buffer;
+    private final int knotsOffset;
+    private final int aOffset;
+    private final int bOffset;
+    private final int cOffset;
+    private final int dOffset;
+    private final int lastSegment;
+    private final double firstKnot;
+    private final double firstRate;
+    private final double lastTerm;
+
+    ByteBufferCubicSplines(ByteBuffer buffer, int offset, int knots) {
+        int arrayBytes = knots * Double.BYTES;
+        this.buffer = buffer;
+        this.knotsOffset = offset;
+        this.aOffset = this.knotsOffset + arrayBytes;
+        this.bOffset = this.aOffset + arrayBytes;
+        this.cOffset = this.bOffset + arrayBytes;
+        this.dOffset = this.cOffset + arrayBytes;
+        this.lastSegment = Math.max(knots - 2, 0);
+        this.firstKnot = this.get(this.knotsOffset, 0);
+        this.firstRate = this.get(this.dOffset, 0);
+        this.lastTerm = this.get(this.knotsOffset, knots - 1);
+    }
+
+    @Override
+    public double getModeledRate(double maturity) {
+        return this.getModeledRate(maturity, SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, maturity));
+    }
+
+    @Override
+    public double getDiscountFactor(double xValue) {
+        return Math.exp(-this.getModeledRate(xValue) * xValue);
+    }
+
+    @Override
+    public double getForwardRate(double maturity) {
+        return this.getForwardRate(maturity, SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, maturity));
+    }
+
+    @Override
+    public double getForwardRate(double startTerm, double endTerm) {
+        int startIndex = SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, startTerm);
+        if (endTerm == startTerm) {
+            return this.getForwardRate(startTerm, startIndex);
+        }
+        int endIndex = SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, endTerm, startIndex);
+        double logCapitalizationEndTerm = endTerm * Math.log1p(this.getModeledRate(endTerm, endIndex));
+        double logCapitalizationStartTerm = startTerm * Math.log1p(this.getModeledRate(startTerm, startIndex));
+        return Math.exp((logCapitalizationEndTerm - logCapitalizationStartTerm) / (endTerm - startTerm)) - 1;
+    }
+
+    @Override
+    public double getLastTerm() {
+        return this.lastTerm;
+    }
+
+    @Override
+    public void getModeledRates(double[] maturities, double[] rates) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, maturities[i], index);
+            rates[i] = this.getModeledRate(maturities[i], index);
+        }
+    }
+
+    @Override
+    public void getDiscountFactors(double[] maturities, double[] discountFactors) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, maturities[i], index);
+            discountFactors[i] = Math.exp(-this.getModeledRate(maturities[i], index) * maturities[i]);
+        }
+    }
+
+    @Override
+    public void getForwardRates(double[] maturities, double[] forwardRates) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            index = SearchUtils.findSegment(this.buffer, this.knotsOffset, this.lastSegment, maturities[i], index);
+            forwardRates[i] = this.getForwardRate(maturities[i], index);
+        }
+    }
+
+    private double getModeledRate(double maturity, int index) {
+        if (maturity < this.firstKnot) {
+            return this.firstRate;
+        }
+        double capitalX = maturity - this.get(this.knotsOffset, index);
+        return ((this.get(this.aOffset, index) * capitalX + this.get(this.bOffset, index)) * capitalX
+                + this.get(this.cOffset, index)) * capitalX + this.get(this.dOffset, index);
+    }
+
+    private double getForwardRate(double maturity, int index) {
+        if (maturity < this.firstKnot) {
+            return this.firstRate;
+        }
+        double capitalX = maturity - this.get(this.knotsOffset, index);
+        double a = this.get(this.aOffset, index);
+        double b = this.get(this.bOffset, index);
+        double c = this.get(this.cOffset, index);
+        double rate = ((a * capitalX + b) * capitalX + c) * capitalX + this.get(this.dOffset, index);
+        double slope = (3 * a * capitalX + 2 * b) * capitalX + c;
+        return (1 + rate) * Math.exp(maturity * slope / (1 + rate)) - 1;
+    }
+
+    private double get(int arrayOffset, int index) {
+        return this.buffer.getDouble(arrayOffset + index * Double.BYTES);
+    }
+}
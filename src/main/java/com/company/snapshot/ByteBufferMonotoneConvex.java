@@ -0,0 +1,143 @@
+package com.company.snapshot;
+
+import com.company.Utils.SearchUtils;
+import com.company.enums.ExtrapolationPolicy;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.MonotoneConvex;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Monotone Convex curve evaluated straight from a CurveRecord
+ * with the segment functions of MonotoneConvex, so both return
+ * the same values. Only absolute reads of the buffer are used,
+ * an instance can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class ByteBufferMonotoneConvex implements Interpolation {
+    private final ByteBuffer buffer;
+    private final int termsOffset;
+    private final int forwardRatesOffset;
+    private final int discreteForwardRatesOffset;
+    private final int discreteInterpolationNodeOffset;
+    private final int indexOfLastTerm;
+    private final double lastTerm;
+    private final double firstForwardRate;
+    private final ExtrapolationPolicy extrapolationPolicy;
+    private final double lastRate;
+    private final double lastForwardRate;
+
+    ByteBufferMonotoneConvex(ByteBuffer buffer, int offset, int terms, ExtrapolationPolicy extrapolationPolicy) {
+        int arrayBytes = terms * Double.BYTES;
+        this.buffer = buffer;
+        this.termsOffset = offset;
+        this.forwardRatesOffset = this.termsOffset + arrayBytes;
+        this.discreteForwardRatesOffset = this.forwardRatesOffset + arrayBytes;
+        this.discreteInterpolationNodeOffset = this.discreteForwardRatesOffset + arrayBytes;
+        this.indexOfLastTerm = terms - 1;
+        this.lastTerm = this.get(this.termsOffset, this.indexOfLastTerm);
+        this.firstForwardRate = this.get(this.forwardRatesOffset, 0);
+        this.extrapolationPolicy = extrapolationPolicy;
+        this.lastRate = this.interpolate(this.lastTerm, this.indexOfLastTerm - 1);
+        this.lastForwardRate = this.get(this.forwardRatesOffset, this.indexOfLastTerm);
+    }
+
+    @Override
+    public double getModeledRate(double maturity) {
+        if (maturity <= 0) {
+            return this.firstForwardRate;
+        } else if (maturity > this.lastTerm) {
+            return this.extrapolate(maturity);
+        }
+        return this.interpolate(maturity, SearchUtils.findSegment(this.buffer, this.termsOffset, this.indexOfLastTerm - 1, maturity));
+    }
+
+    @Override
+    public double getDiscountFactor(double xValue) {
+        return Math.exp(-this.getModeledRate(xValue) * xValue);
+    }
+
+    @Override
+    public double getForwardRate(double xValue) {
+        if (xValue <= 0) {
+            return this.firstForwardRate;
+        } else if (xValue > this.lastTerm) {
+            return MonotoneConvex.extrapolateForward(this.extrapolationPolicy, this.lastRate, this.lastForwardRate);
+        }
+        return this.forward(xValue, SearchUtils.findSegment(this.buffer, this.termsOffset, this.indexOfLastTerm - 1, xValue));
+    }
+
+    /**
+     * Same as MonotoneConvex.getForwardRate(startTerm, endTerm)
+     */
+    @Override
+    public double getForwardRate(double startTerm, double endTerm) {
+        return this.getForwardRate(endTerm - startTerm);
+    }
+
+    @Override
+    public double getLastTerm() {
+        return this.lastTerm;
+    }
+
+    @Override
+    public void getModeledRates(double[] maturities, double[] rates) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            double term = maturities[i];
+            if (term <= 0) {
+                rates[i] = this.firstForwardRate;
+            } else if (term > this.lastTerm) {
+                rates[i] = this.extrapolate(term);
+            } else {
+                index = SearchUtils.findSegment(this.buffer, this.termsOffset, this.indexOfLastTerm - 1, term, index);
+                rates[i] = this.interpolate(term, index);
+            }
+        }
+    }
+
+    @Override
+    public void getDiscountFactors(double[] maturities, double[] discountFactors) {
+        this.getModeledRates(maturities, discountFactors);
+        for (int i = 0; i < maturities.length; i++) {
+            discountFactors[i] = Math.exp(-discountFactors[i] * maturities[i]);
+        }
+    }
+
+    @Override
+    public void getForwardRates(double[] maturities, double[] forwardRates) {
+        int index = 0;
+        for (int i = 0; i < maturities.length; i++) {
+            double term = maturities[i];
+            if (term <= 0) {
+                forwardRates[i] = this.firstForwardRate;
+            } else if (term > this.lastTerm) {
+                forwardRates[i] = MonotoneConvex.extrapolateForward(this.extrapolationPolicy, this.lastRate, this.lastForwardRate);
+            } else {
+                index = SearchUtils.findSegment(this.buffer, this.termsOffset, this.indexOfLastTerm - 1, term, index);
+                forwardRates[i] = this.forward(term, index);
+            }
+        }
+    }
+
+    private double extrapolate(double term) {
+        return MonotoneConvex.extrapolate(this.extrapolationPolicy, term, this.lastTerm, this.lastRate, this.lastForwardRate);
+    }
+
+    private double interpolate(double term, int i) {
+        return MonotoneConvex.interpolate(term, this.get(this.termsOffset, i), this.get(this.termsOffset, i + 1),
+                this.get(this.forwardRatesOffset, i), this.get(this.forwardRatesOffset, i + 1),
+                this.get(this.discreteForwardRatesOffset, i + 1), this.get(this.discreteInterpolationNodeOffset, i));
+    }
+
+    private double forward(double term, int i) {
+        return MonotoneConvex.forward(term, this.get(this.termsOffset, i), this.get(this.termsOffset, i + 1),
+                this.get(this.forwardRatesOffset, i), this.get(this.forwardRatesOffset, i + 1),
+                this.get(this.discreteForwardRatesOffset, i + 1));
+    }
+
+    private double get(int arrayOffset, int index) {
+        return this.buffer.getDouble(arrayOffset + index * Double.BYTES);
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.snapshot;
+
+import com.company.enums.ExtrapolationPolicy;
+import com.company.enums.ModelType;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.CubicSplines;
+import com.company.interpolation.MonotoneConvex;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary layout of one calibrated curve, the unit stored in a
+ * curve snapshot file:
+ * <p>
+ * int model type (ModelType ordinal), int number of knots n, int
+ * extrapolation policy (ExtrapolationPolicy ordinal, MONOTONE_CONVEX
+ * only), an unused int keeping the arrays 8 byte aligned, then n
+ * doubles per calibrated array:
+ * <p>
+ * CUBIC_SPLINES: knots, a, b, c and d coefficients
+ * <p>
+ * MONOTONE_CONVEX: terms (from term 0), node forwards, discrete
+ * forwards and interpolation node values
+ * <p>
+ * Records start at 8 byte aligned offsets and are read in place
+ * by ByteBufferCubicSplines and ByteBufferMonotoneConvex.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveRecord {
+    static final int ALIGNMENT = Double.BYTES;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final ModelType[] MODEL_TYPES = ModelType.values();
+    private static final ExtrapolationPolicy[] EXTRAPOLATION_POLICIES = ExtrapolationPolicy.values();
+
+    /**
+     * The model of the curve, IllegalArgumentException if the
+     * curve can not be stored
+     */
+    public static ModelType getModelType(Interpolation curve) {
+        if (curve instanceof CubicSplines) {
+            return ModelType.CUBIC_SPLINES;
+        } else if (curve instanceof MonotoneConvex) {
+            return ModelType.MONOTONE_CONVEX;
+        }
+        throw new IllegalArgumentException("Curve model can not be stored: " + curve.getClass().getName());
+    }
+
+    public static int getSize(Interpolation curve) {
+        if (getModelType(curve) == ModelType.CUBIC_SPLINES) {
+            return getSize(ModelType.CUBIC_SPLINES, ((CubicSplines) curve).getKnots().length);
+        }
+        return getSize(ModelType.MONOTONE_CONVEX, ((MonotoneConvex) curve).getTerms().length);
+    }
+
+    private static int getSize(ModelType modelType, int knots) {
+        int arrays = modelType == ModelType.CUBIC_SPLINES ? 5 : 4;
+        return HEADER_BYTES + arrays * knots * Double.BYTES;
+    }
+
+    /**
+     * Writes the record of the curve at the offset
+     *
+     * @return the size of the record in bytes
+     */
+    public static int write(ByteBuffer buffer, int offset, Interpolation curve) {
+        ModelType modelType = getModelType(curve);
+        double[][] arrays;
+        ExtrapolationPolicy extrapolationPolicy = ExtrapolationPolicy.FLAT_FORWARD;
+        if (modelType == ModelType.CUBIC_SPLINES) {
+            CubicSplines cubicSplines = (CubicSplines) curve;
+            arrays = new double[][]{cubicSplines.getKnots(), cubicSplines.getAValues(), cubicSplines.getBValues(),
+                    cubicSplines.getCValues(), cubicSplines.getDValues()};
+        } else {
+            MonotoneConvex monotoneConvex = (MonotoneConvex) curve;
+            extrapolationPolicy = monotoneConvex.getExtrapolationPolicy();
+            arrays = new double[][]{monotoneConvex.getTerms(), monotoneConvex.getForwardRates(),
+                    monotoneConvex.getDiscreteForwardRates(), monotoneConvex.getDiscreteInterpolationNode()};
+        }
+
+        int knots = arrays[0].length;
+        buffer.putInt(offset, modelType.ordinal());
+        buffer.putInt(offset + Integer.BYTES, knots);
+        buffer.putInt(offset + 2 * Integer.BYTES, extrapolationPolicy.ordinal());
+        buffer.putInt(offset + 3 * Integer.BYTES, 0);
+        int position = offset + HEADER_BYTES;
+        for (double[] array : arrays) {
+            for (double value : array) {
+                buffer.putDouble(position, value);
+                position += Double.BYTES;
+            }
+        }
+        return position - offset;
+    }
+
+    /**
+     * The size in bytes of the record at the offset
+     */
+    static int getSize(ByteBuffer buffer, int offset) {
+        return getSize(getModelType(buffer, offset), buffer.getInt(offset + Integer.BYTES));
+    }
+
+    public static ModelType getModelType(ByteBuffer buffer, int offset) {
+        return MODEL_TYPES[buffer.getInt(offset)];
+    }
+
+    /**
+     * A curve evaluated in place from the record at the offset: nothing is
+     * copied, the buffer must not change while the curve is in use
+     */
+    public static Interpolation read(ByteBuffer buffer, int offset) {
+        ModelType modelType = getModelType(buffer, offset);
+        int knots = buffer.getInt(offset + Integer.BYTES);
+        if (modelType == ModelType.CUBIC_SPLINES) {
+            return new ByteBufferCubicSplines(buffer, offset + HEADER_BYTES, knots);
+        } else if (modelType == ModelType.MONOTONE_CONVEX) {
+            ExtrapolationPolicy extrapolationPolicy = EXTRAPOLATION_POLICIES[buffer.getInt(offset + 2 * Integer.BYTES)];
+            return new ByteBufferMonotoneConvex(buffer, offset + HEADER_BYTES, knots, extrapolationPolicy);
+        }
+        throw new IllegalArgumentException("Unknown model type in curve record: " + modelType);
+    }
+
+    static int align(int offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
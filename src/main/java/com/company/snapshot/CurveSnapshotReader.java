@@ -0,0 +1,122 @@
+package com.company.snapshot;
+
+import com.company.enums.ModelType;
+import com.company.interfaces.Interpolation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a snapshot written by CurveSnapshotWriter.
+ * <p>
+ * The file is memory mapped and only its header is read on open, so
+ * opening costs the same whatever the number of curves. A curve is
+ * found by a binary search over the directory and its queries read
+ * the mapped record in place: nothing is deserialized.
+ * <p>
+ * The reader and its curves only use absolute reads of the mapped
+ * buffer and can be shared between threads.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveSnapshotReader {
+    private final ByteBuffer buffer;
+    private final int curveCount;
+
+    public CurveSnapshotReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.limit() < CurveSnapshotWriter.HEADER_BYTES || this.buffer.getInt(0) != CurveSnapshotWriter.MAGIC) {
+            throw new IOException("Not a curve snapshot");
+        }
+        if (this.buffer.getInt(4) != CurveSnapshotWriter.VERSION) {
+            throw new IOException("Unsupported curve snapshot version " + this.buffer.getInt(4));
+        }
+        this.curveCount = this.buffer.getInt(8);
+        if (this.buffer.limit() < CurveSnapshotWriter.HEADER_BYTES + (long) this.curveCount * CurveSnapshotWriter.DIRECTORY_ENTRY_BYTES) {
+            throw new IOException("Truncated curve snapshot");
+        }
+    }
+
+    public static CurveSnapshotReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CurveSnapshotReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getCurveCount() {
+        return this.curveCount;
+    }
+
+    public String getCurveId(int index) {
+        int entry = this.getEntry(index);
+        byte[] curveId = new byte[this.buffer.getInt(entry + 4)];
+        int idOffset = this.buffer.getInt(entry);
+        for (int i = 0; i < curveId.length; i++) {
+            curveId[i] = this.buffer.get(idOffset + i);
+        }
+        return new String(curveId, StandardCharsets.UTF_8);
+    }
+
+    public ModelType getModelType(int index) {
+        return CurveRecord.getModelType(this.buffer, this.buffer.getInt(this.getEntry(index) + 8));
+    }
+
+    public Interpolation getCurve(int index) {
+        return CurveRecord.read(this.buffer, this.buffer.getInt(this.getEntry(index) + 8));
+    }
+
+    /**
+     * The curve with the id, null if the snapshot does not hold it
+     */
+    public Interpolation getCurve(String curveId) {
+        int index = this.indexOf(curveId);
+        return index < 0 ? null : this.getCurve(index);
+    }
+
+    /**
+     * Index of the curve with the id, -1 if the snapshot does not hold it
+     */
+    public int indexOf(String curveId) {
+        byte[] curveIdBytes = curveId.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = this.curveCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = this.compareCurveId(middle, curveIdBytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareCurveId(int index, byte[] curveId) {
+        int entry = this.getEntry(index);
+        int idOffset = this.buffer.getInt(entry);
+        int idLength = this.buffer.getInt(entry + 4);
+        int length = Math.min(idLength, curveId.length);
+        for (int i = 0; i < length; i++) {
+            int difference = (this.buffer.get(idOffset + i) & 0xFF) - (curveId[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return idLength - curveId.length;
+    }
+
+    private int getEntry(int index) {
+        if (index < 0 || index >= this.curveCount) {
+            throw new IndexOutOfBoundsException("Curve index " + index + " of " + this.curveCount);
+        }
+        return CurveSnapshotWriter.HEADER_BYTES + index * CurveSnapshotWriter.DIRECTORY_ENTRY_BYTES;
+    }
+}
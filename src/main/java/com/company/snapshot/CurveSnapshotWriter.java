@@ -0,0 +1,123 @@
+package com.company.snapshot;
+
+import com.company.interfaces.Interpolation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes calibrated curves to a snapshot file read by CurveSnapshotReader.
+ * <p>
+ * File layout, little endian:
+ * <p>
+ * header: int magic, int version, int number of curves, int unused
+ * <p>
+ * directory: per curve, sorted by the UTF-8 bytes of its id, int id
+ * offset, int id length, int record offset, int unused
+ * <p>
+ * the UTF-8 ids, then the CurveRecords at 8 byte aligned offsets
+ * <p>
+ * The file is written next to the target and moved over it, so a
+ * reader never maps a half written snapshot.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveSnapshotWriter {
+    static final int MAGIC = 0x49524353; //IRCS
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int DIRECTORY_ENTRY_BYTES = 16;
+    private final List<byte[]> curveIds = new ArrayList<>();
+    private final List<Interpolation> curves = new ArrayList<>();
+    private final Set<String> addedCurveIds = new HashSet<>();
+
+    /**
+     * Adds a calibrated CubicSplines or MonotoneConvex curve
+     */
+    public CurveSnapshotWriter add(String curveId, Interpolation curve) {
+        CurveRecord.getModelType(curve);
+        if (!this.addedCurveIds.add(curveId)) {
+            throw new IllegalArgumentException("Duplicated curve id: " + curveId);
+        }
+        this.curveIds.add(curveId.getBytes(StandardCharsets.UTF_8));
+        this.curves.add(curve);
+        return this;
+    }
+
+    public void write(Path path) throws IOException {
+        int curveCount = this.curves.size();
+        Integer[] order = new Integer[curveCount];
+        for (int i = 0; i < curveCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> compare(this.curveIds.get(first), this.curveIds.get(second)));
+
+        int idsOffset = HEADER_BYTES + curveCount * DIRECTORY_ENTRY_BYTES;
+        int recordsOffset = idsOffset;
+        for (byte[] curveId : this.curveIds) {
+            recordsOffset += curveId.length;
+        }
+        recordsOffset = CurveRecord.align(recordsOffset);
+        long size = recordsOffset;
+        for (Interpolation curve : this.curves) {
+            size = CurveRecord.align((int) size) + (long) CurveRecord.getSize(curve);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot larger than 2GB");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, curveCount);
+        int idOffset = idsOffset;
+        int recordOffset = recordsOffset;
+        for (int i = 0; i < curveCount; i++) {
+            byte[] curveId = this.curveIds.get(order[i]);
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            buffer.putInt(entry, idOffset);
+            buffer.putInt(entry + 4, curveId.length);
+            buffer.putInt(entry + 8, recordOffset);
+            for (int j = 0; j < curveId.length; j++) {
+                buffer.put(idOffset + j, curveId[j]);
+            }
+            idOffset += curveId.length;
+            recordOffset = CurveRecord.align(recordOffset + CurveRecord.write(buffer, recordOffset, this.curves.get(order[i])));
+        }
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Unsigned lexicographic order of the bytes, the order of the directory
+     */
+    static int compare(byte[] first, byte[] second) {
+        int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            int difference = (first[i] & 0xFF) - (second[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return first.length - second.length;
+    }
+}
@@ -0,0 +1,395 @@
+package com.company.snapshot;
+
+import com.company.interfaces.Interpolation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Store of calibrated curves kept off the heap, for tens of thousands
+ * of curves by id.
+ * <p>
+ * Every curve is written as an entry of a direct buffer chunk: int id
+ * length, the UTF-8 id, then its CurveRecord at the next 8 byte
+ * boundary. Curves are found through an open addressing hash index,
+ * also in a direct buffer, with one 8 byte slot per curve holding the
+ * hash of the id and the address of the entry. So the heap holds a
+ * buffer object per chunk and nothing per curve, whatever the number
+ * of curves.
+ * <p>
+ * getCurve returns a ByteBufferCubicSplines or ByteBufferMonotoneConvex
+ * view that answers the Interpolation queries from the record in place.
+ * Views are cheap, short lived objects; they stay valid after their
+ * curve is replaced, removed or compacted, since an entry is never
+ * changed once written. Putting an id again writes a new entry; the
+ * space of replaced and removed entries is counted by getGarbageBytes
+ * and given back by compact.
+ * <p>
+ * Writes are serialized by a StampedLock. Lookups are optimistic reads
+ * that take the read lock only when a write ran at the same time, so
+ * any number of threads can look curves up without contention.
+ *
+ * @author Jose Gonzalez
+ */
+public class OffHeapCurveStore {
+    public static final int DEFAULT_CHUNK_BYTES = 16 << 20;
+    public static final int MAX_CHUNK_BYTES = 1 << 26;
+    private static final int OFFSET_BITS = 23; //offsets in 8 byte units, up to MAX_CHUNK_BYTES
+    private static final int MAX_CHUNKS = 1 << (Integer.SIZE - 1 - OFFSET_BITS);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SLOT_BYTES = 2 * Integer.BYTES;
+    //slot addresses are stored plus one, so that 0 is an empty slot
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+    private final int chunkBytes;
+    private final StampedLock lock = new StampedLock();
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int position;
+    private ByteBuffer index;
+    private int capacity;
+    private int size;
+    private int usedSlots;
+    private long usedBytes;
+    private long garbageBytes;
+
+    public OffHeapCurveStore() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param chunkBytes the size of every data buffer, the largest entry
+     *                   the store can hold
+     */
+    public OffHeapCurveStore(int chunkBytes) {
+        if (chunkBytes < CurveRecord.ALIGNMENT || chunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkBytes);
+        }
+        this.chunkBytes = chunkBytes & -CurveRecord.ALIGNMENT;
+        this.setIndex(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Stores the curve under the id, replacing the curve already stored
+     * under it. The curve must be one CurveRecord can store.
+     */
+    public void put(String curveId, Interpolation curve) {
+        byte[] idBytes = curveId.getBytes(StandardCharsets.UTF_8);
+        int recordOffset = CurveRecord.align(Integer.BYTES + idBytes.length);
+        int entryBytes = recordOffset + CurveRecord.getSize(curve);
+        if (entryBytes > this.chunkBytes) {
+            throw new IllegalArgumentException("Curve " + curveId + " needs " + entryBytes + " bytes, the chunks hold " + this.chunkBytes);
+        }
+        int hash = hash(curveId);
+
+        long stamp = this.lock.writeLock();
+        try {
+            int address = this.allocate(entryBytes);
+            ByteBuffer chunk = this.getChunk(address);
+            int offset = getOffset(address);
+            chunk.putInt(offset, idBytes.length);
+            for (int i = 0; i < idBytes.length; i++) {
+                chunk.put(offset + Integer.BYTES + i, idBytes[i]);
+            }
+            CurveRecord.write(chunk, offset + recordOffset, curve);
+
+            int slot = this.findSlot(curveId, hash);
+            if (slot >= 0) {
+                this.garbageBytes += this.getEntryBytes(this.getAddress(slot));
+                this.index.putInt(slot * SLOT_BYTES + Integer.BYTES, address + 1);
+            } else {
+                this.insert(hash, address);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The curve with the id, evaluated off heap; null if the store does
+     * not hold it
+     */
+    public Interpolation getCurve(String curveId) {
+        int hash = hash(curveId);
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Interpolation curve = this.find(curveId, hash);
+                if (this.lock.validate(stamp)) {
+                    return curve;
+                }
+            } catch (RuntimeException e) {
+                // a write changed the index under the optimistic read, read again under the lock
+            }
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.find(curveId, hash);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return false if the store did not hold the id
+     */
+    public boolean remove(String curveId) {
+        long stamp = this.lock.writeLock();
+        try {
+            int slot = this.findSlot(curveId, hash(curveId));
+            if (slot < 0) {
+                return false;
+            }
+            this.garbageBytes += this.getEntryBytes(this.getAddress(slot));
+            this.index.putInt(slot * SLOT_BYTES + Integer.BYTES, REMOVED);
+            this.size--;
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies the live entries into new chunks and rebuilds the index,
+     * freeing the space of replaced and removed curves once the views
+     * still reading the old chunks are gone
+     */
+    public void compact() {
+        long stamp = this.lock.writeLock();
+        try {
+            ByteBuffer[] chunks = this.chunks;
+            ByteBuffer index = this.index;
+            int capacity = this.capacity;
+            this.chunks = new ByteBuffer[0];
+            this.position = 0;
+            this.usedBytes = 0;
+            this.garbageBytes = 0;
+            this.setIndex(getCapacity(this.size));
+            this.size = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                int storedAddress = index.getInt(slot * SLOT_BYTES + Integer.BYTES);
+                if (storedAddress == EMPTY || storedAddress == REMOVED) {
+                    continue;
+                }
+                ByteBuffer chunk = chunks[(storedAddress - 1) >>> OFFSET_BITS];
+                int offset = getOffset(storedAddress - 1);
+                int entryBytes = getEntryBytes(chunk, offset);
+                int address = this.allocate(entryBytes);
+                ByteBuffer source = chunk.duplicate();
+                source.limit(offset + entryBytes).position(offset);
+                ByteBuffer target = this.getChunk(address).duplicate();
+                target.position(getOffset(address));
+                target.put(source);
+                this.insert(index.getInt(slot * SLOT_BYTES), address);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes written to the chunks, garbage included
+     */
+    public long getUsedBytes() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.usedBytes;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes of replaced and removed entries, see compact
+     */
+    public long getGarbageBytes() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.garbageBytes;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Direct memory held by the chunks and the index
+     */
+    public long getAllocatedBytes() {
+        long stamp = this.lock.readLock();
+        try {
+            return (long) this.chunks.length * this.chunkBytes + (long) this.capacity * SLOT_BYTES;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    private Interpolation find(String curveId, int hash) {
+        int slot = this.findSlot(curveId, hash);
+        if (slot < 0) {
+            return null;
+        }
+        int address = this.getAddress(slot);
+        ByteBuffer chunk = this.getChunk(address);
+        int offset = getOffset(address);
+        return CurveRecord.read(chunk, offset + CurveRecord.align(Integer.BYTES + chunk.getInt(offset)));
+    }
+
+    /**
+     * The slot of the id, -1 if the index does not hold it
+     */
+    private int findSlot(String curveId, int hash) {
+        ByteBuffer index = this.index;
+        int mask = index.capacity() / SLOT_BYTES - 1;
+        for (int probe = 0, slot = hash & mask; probe <= mask; probe++, slot = (slot + 1) & mask) {
+            int storedAddress = index.getInt(slot * SLOT_BYTES + Integer.BYTES);
+            if (storedAddress == EMPTY) {
+                return -1;
+            }
+            if (storedAddress != REMOVED && index.getInt(slot * SLOT_BYTES) == hash
+                    && this.matches(storedAddress - 1, curveId)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds an id known to be absent, growing the index past half full
+     */
+    private void insert(int hash, int address) {
+        if (2 * (this.usedSlots + 1) > this.capacity) {
+            this.rehash(getCapacity(this.size + 1));
+        }
+        int mask = this.capacity - 1;
+        int slot = hash & mask;
+        int storedAddress;
+        while ((storedAddress = this.index.getInt(slot * SLOT_BYTES + Integer.BYTES)) != EMPTY && storedAddress != REMOVED) {
+            slot = (slot + 1) & mask;
+        }
+        if (storedAddress == EMPTY) {
+            this.usedSlots++;
+        }
+        this.index.putInt(slot * SLOT_BYTES, hash);
+        this.index.putInt(slot * SLOT_BYTES + Integer.BYTES, address + 1);
+        this.size++;
+    }
+
+    /**
+     * Moves the live slots to a new index, dropping the removed ones
+     */
+    private void rehash(int capacity) {
+        ByteBuffer index = this.index;
+        int oldCapacity = this.capacity;
+        this.setIndex(capacity);
+        this.size = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int storedAddress = index.getInt(slot * SLOT_BYTES + Integer.BYTES);
+            if (storedAddress != EMPTY && storedAddress != REMOVED) {
+                this.insert(index.getInt(slot * SLOT_BYTES), storedAddress - 1);
+            }
+        }
+    }
+
+    private void setIndex(int capacity) {
+        this.index = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+        this.usedSlots = 0;
+    }
+
+    /**
+     * The address of an entry of the given size at the end of the last
+     * chunk, starting a new chunk when it does not fit
+     */
+    private int allocate(int entryBytes) {
+        if (this.chunks.length == 0 || this.position + entryBytes > this.chunkBytes) {
+            if (this.chunks.length == MAX_CHUNKS) {
+                throw new IllegalStateException("Curve store full: " + MAX_CHUNKS + " chunks of " + this.chunkBytes + " bytes");
+            }
+            this.chunks = Arrays.copyOf(this.chunks, this.chunks.length + 1);
+            this.chunks[this.chunks.length - 1] = ByteBuffer.allocateDirect(this.chunkBytes).order(ByteOrder.nativeOrder());
+            this.position = 0;
+        }
+        int address = ((this.chunks.length - 1) << OFFSET_BITS) | (this.position / CurveRecord.ALIGNMENT);
+        this.position += CurveRecord.align(entryBytes);
+        this.usedBytes += CurveRecord.align(entryBytes);
+        return address;
+    }
+
+    private boolean matches(int address, String curveId) {
+        ByteBuffer chunk = this.getChunk(address);
+        int offset = getOffset(address);
+        int length = chunk.getInt(offset);
+        int idOffset = offset + Integer.BYTES;
+        if (length < curveId.length()) {
+            return false;
+        } else if (length == curveId.length()) {
+            int i = 0;
+            while (i < length && curveId.charAt(i) < 0x80 && chunk.get(idOffset + i) == curveId.charAt(i)) {
+                i++;
+            }
+            if (i == length) {
+                return true;
+            } else if (curveId.charAt(i) < 0x80) {
+                return false;
+            }
+        }
+        byte[] idBytes = curveId.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(idOffset + i) != idBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getAddress(int slot) {
+        return this.index.getInt(slot * SLOT_BYTES + Integer.BYTES) - 1;
+    }
+
+    private ByteBuffer getChunk(int address) {
+        return this.chunks[address >>> OFFSET_BITS];
+    }
+
+    private int getEntryBytes(int address) {
+        return getEntryBytes(this.getChunk(address), getOffset(address));
+    }
+
+    private static int getEntryBytes(ByteBuffer chunk, int offset) {
+        int recordOffset = CurveRecord.align(Integer.BYTES + chunk.getInt(offset));
+        return CurveRecord.align(recordOffset + CurveRecord.getSize(chunk, offset + recordOffset));
+    }
+
+    private static int getOffset(int address) {
+        return (address & ((1 << OFFSET_BITS) - 1)) * CurveRecord.ALIGNMENT;
+    }
+
+    /**
+     * The smallest power of two holding the curves at most half full
+     */
+    private static int getCapacity(int size) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < 2 * size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(String curveId) {
+        int hash = curveId.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
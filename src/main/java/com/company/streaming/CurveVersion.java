@@ -0,0 +1,38 @@
+package com.company.streaming;
+
+import com.company.bootstrap.BootstrappedCurve;
+import com.company.interfaces.Interpolation;
+
+/**
+ * A published version of a curve. Versions of a curve are numbered
+ * from 1, the initial build, and never change once published.
+ *
+ * @author Jose Gonzalez
+ */
+public class CurveVersion {
+    private final String curveId;
+    private final long version;
+    private final BootstrappedCurve bootstrappedCurve;
+
+    CurveVersion(String curveId, long version, BootstrappedCurve bootstrappedCurve) {
+        this.curveId = curveId;
+        this.version = version;
+        this.bootstrappedCurve = bootstrappedCurve;
+    }
+
+    public String getCurveId() {
+        return curveId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BootstrappedCurve getBootstrappedCurve() {
+        return bootstrappedCurve;
+    }
+
+    public Interpolation getInterpolation() {
+        return this.bootstrappedCurve.getInterpolation();
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.streaming;
+
+import com.company.enums.RateType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replayable source of quote updates standing in for the market data
+ * feed: a fixed list of updates, in memory or read from a csv file
+ * with the columns Currency,Type,Maturity,Rate (Maturity as yyyyMMdd).
+ * Every replay submits the same updates in the same order.
+ *
+ * @author Jose Gonzalez
+ */
+public class QuoteFeed {
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private final List<QuoteUpdate> quoteUpdates;
+
+    public QuoteFeed(List<QuoteUpdate> quoteUpdates) {
+        this.quoteUpdates = Collections.unmodifiableList(new ArrayList<>(quoteUpdates));
+    }
+
+    public static QuoteFeed fromFile(Path path) throws IOException {
+        List<QuoteUpdate> quoteUpdates = new ArrayList<>();
+        try (BufferedReader bufferedReader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            bufferedReader.readLine();
+            String line;
+            int lineNumber = 1;
+            while ((line = bufferedReader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] splitLine = line.split(",");
+                RateType rateType = splitLine.length == 4 ? RateType.fromString(splitLine[1].trim()) : null;
+                if (rateType == null) {
+                    throw new IOException("Invalid quote update at line " + lineNumber + ": " + line);
+                }
+                try {
+                    quoteUpdates.add(new QuoteUpdate(splitLine[0].trim(), rateType,
+                            LocalDate.parse(splitLine[2].trim(), formatter), Double.parseDouble(splitLine[3].trim())));
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    throw new IOException("Invalid quote update at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        return new QuoteFeed(quoteUpdates);
+    }
+
+    public List<QuoteUpdate> getQuoteUpdates() {
+        return quoteUpdates;
+    }
+
+    /**
+     * Submits every update to the pipeline
+     *
+     * @return the number of updates the pipeline accepted
+     */
+    public int replay(QuoteUpdatePipeline quoteUpdatePipeline) {
+        int accepted = 0;
+        for (QuoteUpdate quoteUpdate : this.quoteUpdates) {
+            if (quoteUpdatePipeline.submit(quoteUpdate)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.streaming;
+
+import com.company.enums.RateType;
+
+import java.time.LocalDate;
+
+/**
+ * New quote of one instrument of a curve: the instrument is the
+ * rate type and maturity of a quote in the curve, the quote is the
+ * rate as given in the market data files (before the coupon basis).
+ *
+ * @author Jose Gonzalez
+ */
+public class QuoteUpdate {
+    private final String curveId;
+    private final RateType rateType;
+    private final LocalDate maturity;
+    private final double quote;
+
+    public QuoteUpdate(String curveId, RateType rateType, LocalDate maturity, double quote) {
+        this.curveId = curveId;
+        this.rateType = rateType;
+        this.maturity = maturity;
+        this.quote = quote;
+    }
+
+    public String getCurveId() {
+        return curveId;
+    }
+
+    public RateType getRateType() {
+        return rateType;
+    }
+
+    public LocalDate getMaturity() {
+        return maturity;
+    }
+
+    public double getQuote() {
+        return quote;
+    }
+}
@@ -0,0 +1,298 @@
+package com.company.streaming;
+
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.bootstrap.BootstrappedCurve;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.interfaces.Interpolation;
+import com.company.service.CurveBuildResults;
+import com.company.service.CurveBuildService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Intraday pipeline turning a stream of quote updates into new
+ * versions of the curves.
+ * <p>
+ * Updates are queued (a full queue drops them) and taken by a single
+ * worker thread. The worker collects every update arriving within the
+ * coalescing window after the first one; updates of the same
+ * instrument within a window are merged, the last one wins. Each curve
+ * with updates in the window is then bootstrapped again from its
+ * quotes, the other curves are left alone.
+ * <p>
+ * A new version replaces the previous one in a single write, readers
+ * always see a complete, calibrated curve. An update for an unknown
+ * curve or instrument is dropped; a curve that fails to calibrate
+ * keeps its previous version (and the updated quotes, for the next
+ * window).
+ *
+ * @author Jose Gonzalez
+ */
+public class QuoteUpdatePipeline implements AutoCloseable {
+    private static final long POLL_MILLISECONDS = 100;
+    private final BootstrapEngine bootstrapEngine;
+    private final long coalescingWindowNanos;
+    private final BlockingQueue<QuoteUpdate> queue;
+    private final Map<String, List<DataPoint>> curveQuotes = new HashMap<>();
+    private final Map<String, CurveVersion> curveVersions = new ConcurrentHashMap<>();
+    private final Object publishLock = new Object();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private final AtomicLong receivedUpdates = new AtomicLong();
+    private final AtomicLong mergedUpdates = new AtomicLong();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+    private final AtomicLong recalibrations = new AtomicLong();
+    private final AtomicLong failedRecalibrations = new AtomicLong();
+    private final AtomicLong totalRecalibrationNanos = new AtomicLong();
+    private volatile long lastRecalibrationNanos;
+    private volatile long maxRecalibrationNanos;
+
+    /**
+     * Builds version 1 of every curve from its quotes and starts the worker
+     */
+    public QuoteUpdatePipeline(ModelType modelType, Map<String, List<DataPoint>> initialQuotes,
+                               long coalescingWindow, TimeUnit timeUnit, int queueCapacity) {
+        this.bootstrapEngine = new BootstrapEngine(modelType);
+        this.coalescingWindowNanos = timeUnit.toNanos(coalescingWindow);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        CurveBuildResults curveBuildResults = new CurveBuildService(modelType).buildFromQuotes(initialQuotes);
+        for (Map.Entry<String, List<DataPoint>> entry : initialQuotes.entrySet()) {
+            this.curveQuotes.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            BootstrappedCurve bootstrappedCurve = curveBuildResults.getResults().get(entry.getKey()).getBootstrappedCurve();
+            if (bootstrappedCurve != null) {
+                this.curveVersions.put(entry.getKey(), new CurveVersion(entry.getKey(), 1, bootstrappedCurve));
+            }
+        }
+
+        this.worker = new Thread(this::run, "quote-update-pipeline");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues the update without blocking
+     *
+     * @return false if the queue was full and the update was dropped
+     */
+    public boolean submit(QuoteUpdate quoteUpdate) {
+        this.receivedUpdates.incrementAndGet();
+        if (!this.running || !this.queue.offer(quoteUpdate)) {
+            this.droppedUpdates.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The latest version of the curve, null if it was never built
+     */
+    public CurveVersion getCurveVersion(String curveId) {
+        return this.curveVersions.get(curveId);
+    }
+
+    /**
+     * The calibrated curve of the latest version, null if it was never built
+     */
+    public Interpolation getCurve(String curveId) {
+        CurveVersion curveVersion = this.curveVersions.get(curveId);
+        return curveVersion == null ? null : curveVersion.getInterpolation();
+    }
+
+    /**
+     * Waits until the curve reaches at least the version
+     *
+     * @return the latest version, or null if it was not reached in time
+     */
+    public CurveVersion awaitVersion(String curveId, long version, long timeout, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        synchronized (this.publishLock) {
+            CurveVersion curveVersion = this.curveVersions.get(curveId);
+            while (curveVersion == null || curveVersion.getVersion() < version) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this.publishLock, remainingNanos);
+                curveVersion = this.curveVersions.get(curveId);
+            }
+            return curveVersion;
+        }
+    }
+
+    /**
+     * Stops the worker, updates still queued are discarded. If the caller
+     * is interrupted while waiting for the worker, its interrupt flag is
+     * restored and the worker is left to stop on its own
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.worker.interrupt();
+        try {
+            this.worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    public long getReceivedUpdates() {
+        return this.receivedUpdates.get();
+    }
+
+    /**
+     * Updates replaced by a later update of the same instrument in a window
+     */
+    public long getMergedUpdates() {
+        return this.mergedUpdates.get();
+    }
+
+    /**
+     * Updates rejected by a full queue or for an unknown curve or instrument
+     */
+    public long getDroppedUpdates() {
+        return this.droppedUpdates.get();
+    }
+
+    public long getRecalibrations() {
+        return this.recalibrations.get();
+    }
+
+    public long getFailedRecalibrations() {
+        return this.failedRecalibrations.get();
+    }
+
+    public long getLastRecalibrationNanos() {
+        return this.lastRecalibrationNanos;
+    }
+
+    public long getMaxRecalibrationNanos() {
+        return this.maxRecalibrationNanos;
+    }
+
+    public long getTotalRecalibrationNanos() {
+        return this.totalRecalibrationNanos.get();
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                QuoteUpdate quoteUpdate = this.queue.poll(POLL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                if (quoteUpdate == null) {
+                    continue;
+                }
+                Map<String, Map<Instrument, QuoteUpdate>> pendingUpdates = new LinkedHashMap<>();
+                this.addPendingUpdate(pendingUpdates, quoteUpdate);
+                long deadline = System.nanoTime() + this.coalescingWindowNanos;
+                long remainingNanos;
+                while ((remainingNanos = deadline - System.nanoTime()) > 0
+                        && (quoteUpdate = this.queue.poll(remainingNanos, TimeUnit.NANOSECONDS)) != null) {
+                    this.addPendingUpdate(pendingUpdates, quoteUpdate);
+                }
+
+                for (Map.Entry<String, Map<Instrument, QuoteUpdate>> entry : pendingUpdates.entrySet()) {
+                    this.recalibrate(entry.getKey(), entry.getValue());
+                }
+            } catch (InterruptedException e) {
+                // close() interrupts the worker, the loop checks running
+            }
+        }
+    }
+
+    private void addPendingUpdate(Map<String, Map<Instrument, QuoteUpdate>> pendingUpdates, QuoteUpdate quoteUpdate) {
+        if (!this.curveQuotes.containsKey(quoteUpdate.getCurveId())) {
+            this.droppedUpdates.incrementAndGet();
+            return;
+        }
+        Map<Instrument, QuoteUpdate> curveUpdates = pendingUpdates.computeIfAbsent(quoteUpdate.getCurveId(), curveId -> new LinkedHashMap<>());
+        if (curveUpdates.put(new Instrument(quoteUpdate.getRateType(), quoteUpdate.getMaturity()), quoteUpdate) != null) {
+            this.mergedUpdates.incrementAndGet();
+        }
+    }
+
+    private void recalibrate(String curveId, Map<Instrument, QuoteUpdate> curveUpdates) {
+        List<DataPoint> dataPointList = this.curveQuotes.get(curveId);
+        Map<Instrument, QuoteUpdate> unknownInstruments = new HashMap<>(curveUpdates);
+        for (int i = 0; i < dataPointList.size(); i++) {
+            DataPoint dataPoint = dataPointList.get(i);
+            Instrument instrument = new Instrument(dataPoint.getType(), dataPoint.getMaturity());
+            QuoteUpdate quoteUpdate = curveUpdates.get(instrument);
+            if (quoteUpdate != null) {
+                dataPointList.set(i, new DataPoint.Builder(dataPoint).withRate(quoteUpdate.getQuote()).build());
+                unknownInstruments.remove(instrument);
+            }
+        }
+        this.droppedUpdates.addAndGet(unknownInstruments.size());
+        if (unknownInstruments.size() == curveUpdates.size()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        BootstrappedCurve bootstrappedCurve = null;
+        try {
+            bootstrappedCurve = this.bootstrapEngine.bootstrap(dataPointList);
+            this.recalibrations.incrementAndGet();
+        } catch (Exception e) {
+            this.failedRecalibrations.incrementAndGet();
+        }
+        long recalibrationNanos = System.nanoTime() - start;
+        this.totalRecalibrationNanos.addAndGet(recalibrationNanos);
+        this.lastRecalibrationNanos = recalibrationNanos;
+        this.maxRecalibrationNanos = Math.max(this.maxRecalibrationNanos, recalibrationNanos);
+
+        if (bootstrappedCurve != null) {
+            CurveVersion previousVersion = this.curveVersions.get(curveId);
+            long version = previousVersion == null ? 1 : previousVersion.getVersion() + 1;
+            synchronized (this.publishLock) {
+                this.curveVersions.put(curveId, new CurveVersion(curveId, version, bootstrappedCurve));
+                this.publishLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * An instrument of a curve, its rate type and maturity
+     */
+    private static final class Instrument {
+        private final RateType rateType;
+        private final LocalDate maturity;
+
+        private Instrument(RateType rateType, LocalDate maturity) {
+            this.rateType = rateType;
+            this.maturity = maturity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if (!(o instanceof Instrument)) {
+                return false;
+            }
+
+            Instrument object = (Instrument) o;
+
+            return this.rateType == object.rateType && this.maturity.equals(object.maturity);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.rateType.hashCode() + this.maturity.hashCode();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.beans.Swap;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.enums.RateBasis;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.IncrementalInterpolation;
+import com.company.interfaces.Interpolation;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BootstrapEngineTest {
+    private double[] terms = new double[]{0.25, 0.5, 1, 2, 3, 5, 7, 10, 15, 20};
+    private double[] values = new double[]{0.010, 0.012, 0.015, 0.019, 0.022, 0.025, 0.026, 0.027, 0.026, 0.028};
+
+    private RatesCurve getRatesCurve(int size) {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int i = 0; i < size; i++) {
+            ratesCurve.add(new RatePoint(this.terms[i], this.values[i], RateBasis.ANNUALIZED));
+        }
+        return ratesCurve;
+    }
+
+    private void assertSameCurve(Interpolation expected, Interpolation actual) throws InterpolationException {
+        assertEquals(expected.getLastTerm(), actual.getLastTerm(), 0);
+        for (double term = 0; term <= expected.getLastTerm() + 5; term += 0.05) {
+            assertEquals(expected.getModeledRate(term), actual.getModeledRate(term), 1e-13);
+        }
+    }
+
+    private void assertAppendMatchesCalibration(ModelType modelType) throws InterpolationException {
+        IncrementalInterpolation interpolation = (IncrementalInterpolation) ModelFactory.createModel(modelType, this.getRatesCurve(3));
+        for (int i = 3; i < this.terms.length; i++) {
+            interpolation = interpolation.appendKnot(this.terms[i], this.values[i]);
+        }
+        this.assertSameCurve(ModelFactory.createModel(modelType, this.getRatesCurve(this.terms.length)), interpolation);
+    }
+
+    @Test
+    public void cubicSplinesAppendMatchesCalibration() throws InterpolationException {
+        this.assertAppendMatchesCalibration(ModelType.CUBIC_SPLINES);
+    }
+
+    @Test
+    public void monotoneConvexAppendMatchesCalibration() throws InterpolationException {
+        this.assertAppendMatchesCalibration(ModelType.MONOTONE_CONVEX);
+    }
+
+    @Test(expected = InterpolationException.class)
+    public void appendBeforeLastTermFails() throws InterpolationException {
+        ((IncrementalInterpolation) ModelFactory.createModel(ModelType.CUBIC_SPLINES, this.getRatesCurve(5))).appendKnot(1.5, 0.02);
+    }
+
+    @Test
+    public void bootstrapMatchesFullRecalibration() throws InterpolationException, IOException {
+        List<DataPoint> dataPointList = RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv");
+        for (ModelType modelType : new ModelType[]{ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX}) {
+            RatesCurve zeroRateCurve = new RatesCurve(dataPointList, RateType.CASH);
+            Interpolation interpolator = ModelFactory.createModel(modelType, zeroRateCurve);
+            RatesCurve swapsRatesCurve = new RatesCurve(dataPointList, RateType.SWAP);
+            RatesCurve fullSwapCurve = RatesCurveUtils.getFullSwapsCurveAfterInterpolatingMissingMaturities(swapsRatesCurve, ModelFactory.createModel(modelType, swapsRatesCurve));
+            for (int index = 0; index < fullSwapCurve.size(); index++) {
+                Swap swap = new Swap(fullSwapCurve.getMaturity(index), fullSwapCurve.getRate(index), fullSwapCurve.getCashFlowYearlyFrequency());
+                zeroRateCurve.add(new RatePoint(swap.getSwapTermInYears(), swap.bootStrapAndGetZeroRate(interpolator), RateBasis.CONTINOUS));
+                interpolator = ModelFactory.createModel(modelType, zeroRateCurve);
+            }
+
+            this.assertSameCurve(interpolator, new BootstrapEngine(modelType).bootstrap(dataPointList).getInterpolation());
+        }
+    }
+}
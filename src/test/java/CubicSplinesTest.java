@@ -0,0 +1,75 @@
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.RateBasis;
+import com.company.exceptions.InterpolationException;
+import com.company.interpolation.CubicSplines;
+import com.company.interpolation.SegmentCursor;
+import com.company.interpolation.SplineKnotGrid;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CubicSplinesTest {
+    private double[] terms = new double[]{0.25, 0.5, 1, 2, 3, 5, 7, 10};
+    private double[] values = new double[]{0.010, 0.012, 0.015, 0.019, 0.022, 0.025, 0.026, 0.027};
+
+    private CubicSplines getCubicSplines() {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int i = 0; i < this.terms.length; i++) {
+            ratesCurve.add(new RatePoint(this.terms[i], this.values[i], RateBasis.ANNUALIZED));
+        }
+        return new CubicSplines(ratesCurve);
+    }
+
+    private double getLogCapitalization(CubicSplines cubicSplines, double term) throws InterpolationException {
+        return term * Math.log(1 + cubicSplines.getModeledRate(term));
+    }
+
+    @Test
+    public void forwardRateMatchesCentralDifference() throws InterpolationException {
+        CubicSplines cubicSplines = this.getCubicSplines();
+        double epsilon = 1e-5;
+        for (double term = 0.3; term < 12; term += 0.1) {
+            double derivative = (this.getLogCapitalization(cubicSplines, term + epsilon) - this.getLogCapitalization(cubicSplines, term - epsilon)) / (2 * epsilon);
+            assertEquals(Math.exp(derivative) - 1, cubicSplines.getForwardRate(term), 1e-9);
+        }
+    }
+
+    @Test
+    public void periodForwardRateMatchesCapitalizationRatio() throws InterpolationException {
+        CubicSplines cubicSplines = this.getCubicSplines();
+        SegmentCursor cursor = new SegmentCursor();
+        for (double startTerm = 0; startTerm < 11; startTerm += 0.25) {
+            double endTerm = startTerm + 0.25;
+            double expected = Math.pow(Math.pow(1 + cubicSplines.getModeledRate(endTerm), endTerm)
+                    / Math.pow(1 + cubicSplines.getModeledRate(startTerm), startTerm), 1 / (endTerm - startTerm)) - 1;
+            assertEquals(expected, cubicSplines.getForwardRate(startTerm, endTerm), 1e-12);
+            assertEquals(expected, cubicSplines.getForwardRate(startTerm, endTerm, cursor), 1e-12);
+        }
+        assertEquals(cubicSplines.getForwardRate(2.5), cubicSplines.getForwardRate(2.5, 2.5), 0);
+    }
+
+    @Test
+    public void sharedKnotGridMatchesFreshCalibration() throws InterpolationException {
+        SplineKnotGrid knotGrid = this.getCubicSplines().getKnotGrid();
+        double[][] rateScenarios = new double[3][];
+        for (int k = 0; k < rateScenarios.length; k++) {
+            rateScenarios[k] = this.values.clone();
+            rateScenarios[k][k + 2] += 0.0001 * (k + 1);
+        }
+
+        CubicSplines[] calibrated = CubicSplines.calibrate(knotGrid, rateScenarios);
+        for (int k = 0; k < rateScenarios.length; k++) {
+            RatesCurve ratesCurve = new RatesCurve();
+            for (int i = 0; i < this.terms.length; i++) {
+                ratesCurve.add(new RatePoint(this.terms[i], rateScenarios[k][i], RateBasis.ANNUALIZED));
+            }
+            CubicSplines expected = new CubicSplines(ratesCurve);
+            CubicSplines single = new CubicSplines(knotGrid, rateScenarios[k]);
+            for (double term = 0; term < 12; term += 0.1) {
+                assertEquals(expected.getModeledRate(term), calibrated[k].getModeledRate(term), 0);
+                assertEquals(expected.getModeledRate(term), single.getModeledRate(term), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.application.CurveBatchApplication;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.service.CurveGridWriter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CurveBatchApplicationTest {
+    private final double[] tenors = {0.25, 0.5, 1, 2, 5, 10, 30, 50};
+
+    private int run(String... args) {
+        PrintStream stream = new PrintStream(new ByteArrayOutputStream());
+        return CurveBatchApplication.run(args, stream, stream);
+    }
+
+    @Test
+    public void writesCsvAndBinaryGrids() throws IOException, InterpolationException {
+        Path output = Files.createTempDirectory("curves");
+        assertEquals(0, this.run("--model", "CUBIC_SPLINES", "--tenors", "0.25,0.5,1,2,5,10,30,50", "--output", output.toString(),
+                "src/resources/GBPRates.csv", "src/resources/ZARRates.csv"));
+        assertEquals(0, this.run("--model", "CUBIC_SPLINES", "--tenors", "0.25,0.5,1,2,5,10,30,50", "--format", "BINARY",
+                "--output", output.toString(), "src/resources/GBPRates.csv", "src/resources/ZARRates.csv"));
+
+        for (String curve : new String[]{"GBP", "ZAR"}) {
+            Interpolation interpolation = new BootstrapEngine(ModelType.CUBIC_SPLINES)
+                    .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/" + curve + "Rates.csv")).getInterpolation();
+
+            List<String> lines = Files.readAllLines(output.resolve(curve + "Rates.CUBIC_SPLINES.csv"), StandardCharsets.UTF_8);
+            assertEquals(this.tenors.length + 1, lines.size());
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(output.resolve(curve + "Rates.CUBIC_SPLINES.bin"))).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(CurveGridWriter.MAGIC, buffer.getInt(0));
+            assertEquals(this.tenors.length, buffer.getInt(8));
+
+            for (int i = 0; i < this.tenors.length; i++) {
+                double[] expected = {this.tenors[i], interpolation.getModeledRate(this.tenors[i]),
+                        interpolation.getDiscountFactor(this.tenors[i]), interpolation.getForwardRate(this.tenors[i])};
+                String[] fields = lines.get(i + 1).split(",");
+                for (int column = 0; column < expected.length; column++) {
+                    assertEquals(expected[column], Double.parseDouble(fields[column]), 0);
+                    int offset = CurveGridWriter.HEADER_BYTES + Double.BYTES * (column * this.tenors.length + i);
+                    assertEquals(expected[column], buffer.getDouble(offset), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void reportsInvalidArgumentsAndFailedCurves() throws IOException {
+        assertEquals(2, this.run("--model", "LINEAR", "src/resources/GBPRates.csv"));
+        assertEquals(2, this.run("--tenors", "1,0.5", "src/resources/GBPRates.csv"));
+        assertEquals(2, this.run("src/resources/NoSuchRates.csv"));
+
+        Path input = Files.createTempFile("broken", ".csv");
+        Files.write(input, "Type,Settle\nCash,garbage\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, this.run("--output", Files.createTempDirectory("curves").toString(), input.toString(), "src/resources/GBPRates.csv"));
+    }
+
+    @Test
+    public void failsInputsWithTheSameFileName() throws IOException, InterpolationException {
+        Path input = Files.createTempDirectory("rates");
+        Files.createDirectories(input.resolve("a"));
+        Files.createDirectories(input.resolve("b"));
+        Files.copy(Paths.get("src/resources/GBPRates.csv"), input.resolve("a/GBPRates.csv"));
+        Files.copy(Paths.get("src/resources/ZARRates.csv"), input.resolve("b/GBPRates.csv"));
+        Path output = Files.createTempDirectory("curves");
+
+        assertEquals(1, this.run("--model", "CUBIC_SPLINES", "--tenors", "1,2", "--output", output.toString(),
+                input.resolve("a/GBPRates.csv").toString(), input.resolve("b/GBPRates.csv").toString()));
+        List<String> lines = Files.readAllLines(output.resolve("GBPRates.CUBIC_SPLINES.csv"), StandardCharsets.UTF_8);
+        Interpolation interpolation = new BootstrapEngine(ModelType.CUBIC_SPLINES)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        assertEquals(interpolation.getModeledRate(1), Double.parseDouble(lines.get(1).split(",")[1]), 0);
+    }
+
+    @Test
+    public void stepGridEndsOnTheLastTerm() throws IOException, InterpolationException {
+        Path output = Files.createTempDirectory("curves");
+        assertEquals(0, this.run("--model", "CUBIC_SPLINES", "--step", "0.7", "--output", output.toString(), "src/resources/GBPRates.csv"));
+
+        Interpolation interpolation = new BootstrapEngine(ModelType.CUBIC_SPLINES)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        double lastTerm = interpolation.getLastTerm();
+        List<String> lines = Files.readAllLines(output.resolve("GBPRates.CUBIC_SPLINES.csv"), StandardCharsets.UTF_8);
+        assertEquals((int) Math.floor(lastTerm / 0.7) + 2, lines.size());
+        assertEquals(0.7, Double.parseDouble(lines.get(1).split(",")[0]), 1e-12);
+        assertEquals(lastTerm, Double.parseDouble(lines.get(lines.size() - 1).split(",")[0]), 0);
+    }
+}
@@ -0,0 +1,54 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.service.CurveBuildResults;
+import com.company.service.CurveBuildService;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CurveBuildServiceTest {
+    private static final String[] CURVES = {"GBP", "CHF", "ZAR", "GBPAdj", "MCTestSet1"};
+
+    @Test
+    public void parallelBuildMatchesSequentialBuild() throws IOException, InterpolationException {
+        Map<String, Path> curveFiles = new LinkedHashMap<>();
+        for (String curve : CURVES) {
+            curveFiles.put(curve, Paths.get("src/resources/" + curve + "Rates.csv"));
+        }
+        curveFiles.put("USD", Paths.get("src/resources/USDRates.csv"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (ModelType modelType : new ModelType[]{ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX}) {
+                CurveBuildResults results = new CurveBuildService(modelType, executor).buildFromFiles(curveFiles);
+
+                assertEquals(curveFiles.size(), results.getResults().size());
+                assertEquals(CURVES.length, results.getCurves().size());
+                assertTrue(results.getErrors().get("USD") instanceof IOException);
+                for (String curve : CURVES) {
+                    Interpolation expected = new BootstrapEngine(modelType).bootstrap(
+                            RatesCurveUtils.getDataPointsFromFile("src/resources/" + curve + "Rates.csv")).getInterpolation();
+                    Interpolation actual = results.getCurves().get(curve);
+                    assertTrue(results.getResults().get(curve).getBuildNanos() > 0);
+                    for (double term = 0.1; term < 30; term += 0.5) {
+                        assertEquals(curve, expected.getModeledRate(term), actual.getModeledRate(term), 0);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatesCurve;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.server.CurveQueryServer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CurveQueryServerTest {
+
+    private static String[] request(CurveQueryServer server, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (InputStream inputStream = status == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+        }
+        return new String[]{Integer.toString(status), new String(response.toByteArray(), StandardCharsets.UTF_8)};
+    }
+
+    @Test
+    public void answersSingleAndBatchQueries() throws IOException, InterpolationException {
+        Interpolation curve = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        try (CurveQueryServer server = new CurveQueryServer(0, 2, 16)) {
+            server.publish("GBP", curve);
+
+            assertEquals(curve.getModeledRate(2), Double.parseDouble(request(server, "/rate?curve=GBP&t=2", null)[1].trim()), 0);
+            String[] discountFactors = request(server, "/discount?curve=GBP&t=0.5,1,10", null)[1].split("\n");
+            assertEquals(3, discountFactors.length);
+            assertEquals(curve.getDiscountFactor(10), Double.parseDouble(discountFactors[2]), 0);
+            String[] forwardRates = request(server, "/forward?curve=GBP", "1\n2:3\n5")[1].split("\n");
+            assertEquals(curve.getForwardRate(1), Double.parseDouble(forwardRates[0]), 0);
+            assertEquals(curve.getForwardRate(2, 3), Double.parseDouble(forwardRates[1]), 0);
+            assertEquals(curve.getForwardRate(5), Double.parseDouble(forwardRates[2]), 0);
+
+            assertEquals("404", request(server, "/rate?curve=USD&t=1", null)[0]);
+            assertEquals("400", request(server, "/rate?curve=GBP&t=one", null)[0]);
+            assertEquals("GBP\n", request(server, "/curves", null)[1]);
+            assertEquals(2, server.getErrors());
+            assertEquals(8, server.getQueries());
+            assertTrue(request(server, "/stats", null)[1].contains("p99_micros="));
+            assertTrue(server.getLatencyHistogram().getPercentile(50) <= server.getLatencyHistogram().getPercentile(99));
+        }
+    }
+
+    @Test
+    public void hotSwapDoesNotDropRequests() throws Exception {
+        List<RatesCurve> ratesCurves = new ArrayList<>();
+        for (String curve : new String[]{"GBP", "CHF"}) {
+            ratesCurves.add(new RatesCurve(RatesCurveUtils.getDataPointsFromFile("src/resources/" + curve + "Rates.csv"), RateType.CASH));
+        }
+        Interpolation first = ModelFactory.createModel(ModelType.CUBIC_SPLINES, ratesCurves.get(0));
+        Interpolation second = ModelFactory.createModel(ModelType.CUBIC_SPLINES, ratesCurves.get(1));
+        double[] expected = {first.getModeledRate(0.5), second.getModeledRate(0.5)};
+
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        AtomicBoolean swapping = new AtomicBoolean(true);
+        try (CurveQueryServer server = new CurveQueryServer(0, 2, 4)) {
+            server.publish("curve", first);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int client = 0; client < 4; client++) {
+                futures.add(clients.submit(() -> {
+                    int answered = 0;
+                    while (swapping.get() || answered < 50) {
+                        String[] response = request(server, "/rate?curve=curve&t=0.5", null);
+                        assertEquals("200", response[0]);
+                        double rate = Double.parseDouble(response[1].trim());
+                        assertTrue(rate == expected[0] || rate == expected[1]);
+                        answered++;
+                    }
+                    return answered;
+                }));
+            }
+            for (int swap = 0; swap < 200; swap++) {
+                server.publish("curve", swap % 2 == 0 ? second : first);
+                Thread.sleep(1);
+            }
+            swapping.set(false);
+            long answered = 0;
+            for (Future<Integer> future : futures) {
+                answered += future.get();
+            }
+            assertEquals(answered, server.getRequests());
+            assertEquals(0, server.getErrors());
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    public void rejectsOverloadAndLargeBodies() throws Exception {
+        Interpolation curve = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Interpolation blockingCurve = (Interpolation) Proxy.newProxyInstance(Interpolation.class.getClassLoader(),
+                new Class<?>[]{Interpolation.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getModeledRates")) {
+                        entered.countDown();
+                        release.await();
+                    }
+                    return method.invoke(curve, args);
+                });
+
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try (CurveQueryServer server = new CurveQueryServer(0, 1, 1, 64)) {
+            server.publish("GBP", curve);
+            server.publish("blocking", blockingCurve);
+            assertEquals("413", request(server, "/rate?curve=GBP", String.join(",", Collections.nCopies(100, "1")))[0]);
+            assertEquals("200", request(server, "/rate?curve=GBP", "1,2,3")[0]);
+
+            List<Future<String[]>> futures = new ArrayList<>();
+            futures.add(clients.submit(() -> request(server, "/rate?curve=blocking&t=1", null)));
+            entered.await();
+            futures.add(clients.submit(() -> request(server, "/rate?curve=blocking&t=2", null)));
+            while (server.getQueueDepth() == 0) {
+                Thread.sleep(1);
+            }
+            assertEquals("503", request(server, "/curves", null)[0]);
+            release.countDown();
+            assertEquals(curve.getModeledRate(1), Double.parseDouble(futures.get(0).get()[1].trim()), 0);
+            assertEquals(curve.getModeledRate(2), Double.parseDouble(futures.get(1).get()[1].trim()), 0);
+            assertEquals(1, server.getRejected());
+            assertEquals("200", request(server, "/curves", null)[0]);
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
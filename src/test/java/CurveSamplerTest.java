@@ -0,0 +1,82 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.CurveMeasure;
+import com.company.enums.ModelType;
+import com.company.enums.RateBasis;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.service.CurveSampler;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CurveSamplerTest {
+
+    @Test
+    public void samplesWithinBudget() throws Exception {
+        Interpolation interpolation = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        double[][] samples = new CurveSampler(400).sample(interpolation, CurveMeasure.FORWARD_RATE, 0.01, 30, () -> false);
+
+        assertTrue(samples[0].length <= 400);
+        assertEquals(0.01, samples[0][0], 0);
+        assertEquals(30, samples[0][samples[0].length - 1], 0);
+        for (int i = 0; i < samples[0].length; i++) {
+            assertTrue(i == 0 || samples[0][i] > samples[0][i - 1]);
+            assertEquals(interpolation.getForwardRate(samples[0][i]), samples[1][i], 0);
+        }
+    }
+
+    @Test
+    public void straightCurveKeepsCoarseGrid() throws Exception {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (double term : new double[]{1, 2, 5, 10}) {
+            ratesCurve.add(new RatePoint(term, 0.02, RateBasis.ANNUALIZED));
+        }
+        Interpolation interpolation = ModelFactory.createModel(ModelType.CUBIC_SPLINES, ratesCurve);
+        double[][] samples = new CurveSampler(400).sample(interpolation, CurveMeasure.ZERO_RATE, 1, 10, () -> false);
+        assertEquals(100, samples[0].length);
+    }
+
+    @Test
+    public void adaptiveBeatsUniformSampling() throws Exception {
+        Interpolation interpolation = new BootstrapEngine(ModelType.CUBIC_SPLINES)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        double[][] adaptive = new CurveSampler(200).sample(interpolation, CurveMeasure.FORWARD_RATE, 0.01, 30, () -> false);
+        int points = adaptive[0].length;
+        double[][] uniform = new double[][]{new double[points], new double[points]};
+        for (int i = 0; i < points; i++) {
+            uniform[0][i] = 0.01 + i * (30 - 0.01) / (points - 1);
+            uniform[1][i] = interpolation.getForwardRate(uniform[0][i]);
+        }
+        assertTrue(getMaxError(interpolation, adaptive) < getMaxError(interpolation, uniform));
+    }
+
+    @Test
+    public void cancelledSamplingReturnsNull() throws Exception {
+        Interpolation interpolation = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        assertNull(new CurveSampler().sample(interpolation, CurveMeasure.FORWARD_RATE, 0.01, 30, () -> true));
+    }
+
+    /**
+     * Largest gap between the curve and the polyline through the samples
+     */
+    private static double getMaxError(Interpolation interpolation, double[][] samples) throws InterpolationException {
+        double maxError = 0;
+        for (int i = 0; i < samples[0].length - 1; i++) {
+            for (int j = 1; j < 20; j++) {
+                double weight = j / 20.0;
+                double term = samples[0][i] + weight * (samples[0][i + 1] - samples[0][i]);
+                double polyline = samples[1][i] + weight * (samples[1][i + 1] - samples[1][i]);
+                maxError = Math.max(maxError, Math.abs(interpolation.getForwardRate(term) - polyline));
+            }
+        }
+        return maxError;
+    }
+}
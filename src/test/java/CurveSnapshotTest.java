@@ -0,0 +1,94 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatesCurve;
+import com.company.enums.ExtrapolationPolicy;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.MonotoneConvex;
+import com.company.snapshot.CurveSnapshotReader;
+import com.company.snapshot.CurveSnapshotWriter;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CurveSnapshotTest {
+    private static final String[] CURVES = {"GBP", "CHF", "ZAR", "MCTestSet1"};
+    private static final ModelType[] MODEL_TYPES = {ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX};
+
+    @Test
+    public void mappedCurvesKeepTheExtrapolationPolicy() throws IOException, InterpolationException {
+        RatesCurve ratesCurve = new RatesCurve(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv"), RateType.CASH);
+        CurveSnapshotWriter writer = new CurveSnapshotWriter();
+        Map<String, Interpolation> curves = new HashMap<>();
+        for (ExtrapolationPolicy extrapolationPolicy : ExtrapolationPolicy.values()) {
+            Interpolation interpolation = new MonotoneConvex(ratesCurve, extrapolationPolicy);
+            curves.put(extrapolationPolicy.name(), interpolation);
+            writer.add(extrapolationPolicy.name(), interpolation);
+        }
+        Path path = Files.createTempFile("curves", ".snapshot");
+        writer.write(path);
+
+        CurveSnapshotReader reader = CurveSnapshotReader.open(path);
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            Interpolation calibrated = entry.getValue();
+            Interpolation mapped = reader.getCurve(entry.getKey());
+            for (double maturity = calibrated.getLastTerm(); maturity < 60; maturity += 0.5) {
+                assertEquals(entry.getKey(), calibrated.getModeledRate(maturity), mapped.getModeledRate(maturity), 0);
+                assertEquals(entry.getKey(), calibrated.getForwardRate(maturity), mapped.getForwardRate(maturity), 0);
+            }
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void mappedCurvesMatchCalibratedCurves() throws IOException, InterpolationException {
+        CurveSnapshotWriter writer = new CurveSnapshotWriter();
+        Map<String, Interpolation> curves = new HashMap<>();
+        for (String curve : CURVES) {
+            RatesCurve ratesCurve = new RatesCurve(RatesCurveUtils.getDataPointsFromFile("src/resources/" + curve + "Rates.csv"), RateType.CASH);
+            for (ModelType modelType : MODEL_TYPES) {
+                Interpolation interpolation = ModelFactory.createModel(modelType, ratesCurve);
+                curves.put(curve + "/" + modelType, interpolation);
+                writer.add(curve + "/" + modelType, interpolation);
+            }
+        }
+        Path path = Files.createTempFile("curves", ".snapshot");
+        writer.write(path);
+
+        CurveSnapshotReader reader = CurveSnapshotReader.open(path);
+        assertEquals(curves.size(), reader.getCurveCount());
+        assertNull(reader.getCurve("USD/" + ModelType.CUBIC_SPLINES));
+        double[] maturities = new double[200];
+        double[] expected = new double[maturities.length];
+        double[] actual = new double[maturities.length];
+        for (int i = 0; i < maturities.length; i++) {
+            maturities[i] = i * 0.01;
+        }
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            Interpolation calibrated = entry.getValue();
+            Interpolation mapped = reader.getCurve(entry.getKey());
+            assertEquals(calibrated.getLastTerm(), mapped.getLastTerm(), 0);
+            for (double maturity : maturities) {
+                assertEquals(entry.getKey(), calibrated.getModeledRate(maturity), mapped.getModeledRate(maturity), 0);
+                assertEquals(entry.getKey(), calibrated.getDiscountFactor(maturity), mapped.getDiscountFactor(maturity), 0);
+                assertEquals(entry.getKey(), calibrated.getForwardRate(maturity), mapped.getForwardRate(maturity), 0);
+                assertEquals(entry.getKey(), calibrated.getForwardRate(maturity, maturity + 0.25), mapped.getForwardRate(maturity, maturity + 0.25), 0);
+            }
+            calibrated.getForwardRates(maturities, expected);
+            mapped.getForwardRates(maturities, actual);
+            for (int i = 0; i < maturities.length; i++) {
+                assertEquals(entry.getKey(), expected[i], actual[i], 0);
+            }
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,110 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatesCurve;
+import com.company.beans.Swap;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.risk.HistoricalVaREngine;
+import com.company.risk.HistoricalVaRReport;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistoricalVaREngineTest {
+    private final double[] tenors = {0.25, 0.5, 1, 2, 3, 5, 7, 10, 15, 20, 30};
+    private final double[] shifts = {0, 0.0001, 0.0003, 0.0002, -0.0001, 0.0004};
+
+    private Path writeHistory() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        List<String> lines = Files.readAllLines(Paths.get("src/resources/GBPRates.csv"), StandardCharsets.UTF_8);
+        for (int day = 0; day < this.shifts.length; day++) {
+            List<String> dayLines = new ArrayList<>();
+            dayLines.add(lines.get(0));
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split(",");
+                fields[4] = Double.toString(Double.parseDouble(fields[4]) + this.shifts[day]);
+                dayLines.add(String.join(",", fields));
+            }
+            Files.write(directory.resolve("2016-10-0" + (day + 1) + "_GBPRates.csv"), dayLines, StandardCharsets.UTF_8);
+        }
+        Files.write(directory.resolve("2016-10-03a_GBPRates.csv"), Arrays.asList("Type,Settle", "Cash,garbage"), StandardCharsets.UTF_8);
+        return directory;
+    }
+
+    private double getPresentValue(Interpolation interpolation, List<Swap> swaps, double[] notionals) throws InterpolationException {
+        double presentValue = 0;
+        for (int k = 0; k < swaps.size(); k++) {
+            presentValue += notionals[k] * swaps.get(k).getPresentValue(interpolation);
+        }
+        return presentValue;
+    }
+
+    private Interpolation getGridCurve(ModelType modelType, double[] rates) {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int j = 0; j < this.tenors.length; j++) {
+            ratesCurve.add(this.tenors[j], rates[j]);
+        }
+        return ModelFactory.createModel(modelType, ratesCurve);
+    }
+
+    @Test
+    public void matchesFullRevaluation() throws IOException, InterpolationException {
+        Path directory = this.writeHistory();
+        List<Swap> swaps = Arrays.asList(new Swap(10, 0.008, 2), new Swap(5, 0.006, 2), new Swap(30, 0.01, 2));
+        double[] notionals = {1e6, -5e5, 2e5};
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (ModelType modelType : new ModelType[]{ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX}) {
+                HistoricalVaRReport report = new HistoricalVaREngine(modelType, this.tenors, executor, 2).run(directory, swaps, notionals);
+                assertEquals(this.shifts.length, report.getDays().size());
+                assertEquals(1, report.getFailedDays().size());
+                assertEquals(this.shifts.length - 1, report.getNumberOfScenarios());
+
+                List<double[]> dayRates = new ArrayList<>();
+                for (String day : report.getDays()) {
+                    Interpolation curve = new BootstrapEngine(modelType)
+                            .bootstrap(RatesCurveUtils.getDataPointsFromFile(directory.resolve(day + ".csv").toString())).getInterpolation();
+                    double[] rates = new double[this.tenors.length];
+                    curve.getModeledRates(this.tenors, rates);
+                    dayRates.add(rates);
+                }
+                double[] baseRates = dayRates.get(dayRates.size() - 1);
+                double basePresentValue = this.getPresentValue(this.getGridCurve(modelType, baseRates), swaps, notionals);
+                assertEquals(basePresentValue, report.getBasePresentValue(), 1e-9);
+
+                double[] profitAndLoss = report.getProfitAndLoss();
+                for (int i = 0; i < report.getNumberOfScenarios(); i++) {
+                    double[] scenarioRates = new double[this.tenors.length];
+                    for (int j = 0; j < this.tenors.length; j++) {
+                        scenarioRates[j] = baseRates[j] + dayRates.get(i + 1)[j] - dayRates.get(i)[j];
+                    }
+                    double expected = this.getPresentValue(this.getGridCurve(modelType, scenarioRates), swaps, notionals) - basePresentValue;
+                    assertEquals(expected, profitAndLoss[i], 1e-9);
+                }
+
+                double[] sorted = profitAndLoss.clone();
+                Arrays.sort(sorted);
+                assertEquals(-sorted[1], report.getValueAtRisk(0.6), 0);
+                assertEquals(-(sorted[0] + sorted[1]) / 2, report.getExpectedShortfall(0.6), 1e-12);
+                assertEquals(-sorted[0], report.getValueAtRisk(0.99), 0);
+                assertTrue(report.getScenariosPerSecond() > 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
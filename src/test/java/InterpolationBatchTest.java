@@ -0,0 +1,79 @@
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.RateBasis;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.CubicSplines;
+import com.company.interpolation.LinearInterpolation;
+import com.company.interpolation.MonotoneConvex;
+import com.company.interpolation.SegmentCursor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class InterpolationBatchTest {
+    private double[] terms = new double[]{0.25, 0.5, 1, 2, 3, 5, 7, 10};
+    private double[] values = new double[]{0.010, 0.012, 0.015, 0.019, 0.022, 0.025, 0.026, 0.027};
+
+    private RatesCurve getRatesCurve() {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int i = 0; i < this.terms.length; i++) {
+            ratesCurve.add(new RatePoint(this.terms[i], this.values[i], RateBasis.ANNUALIZED));
+        }
+        return ratesCurve;
+    }
+
+    private double[] getMaturities(boolean sorted) {
+        double[] maturities = new double[200];
+        for (int i = 0; i < maturities.length; i++) {
+            maturities[i] = sorted ? i * 0.06 : ((i * 37) % maturities.length) * 0.06;
+        }
+        return maturities;
+    }
+
+    private void assertBatchMatchesScalar(Interpolation interpolation) throws InterpolationException {
+        for (boolean sorted : new boolean[]{true, false}) {
+            double[] maturities = this.getMaturities(sorted);
+            double[] rates = new double[maturities.length];
+            double[] discountFactors = new double[maturities.length];
+            double[] forwardRates = new double[maturities.length];
+            interpolation.getModeledRates(maturities, rates);
+            interpolation.getDiscountFactors(maturities, discountFactors);
+            interpolation.getForwardRates(maturities, forwardRates);
+
+            for (int i = 0; i < maturities.length; i++) {
+                assertEquals(interpolation.getModeledRate(maturities[i]), rates[i], 1e-14);
+                assertEquals(interpolation.getDiscountFactor(maturities[i]), discountFactors[i], 1e-14);
+                assertEquals(interpolation.getForwardRate(maturities[i]), forwardRates[i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void cubicSplinesBatchMatchesScalar() throws InterpolationException {
+        this.assertBatchMatchesScalar(new CubicSplines(this.getRatesCurve()));
+    }
+
+    @Test
+    public void cubicSplinesCursorMatchesScalar() throws InterpolationException {
+        CubicSplines cubicSplines = new CubicSplines(this.getRatesCurve());
+        SegmentCursor cursor = new SegmentCursor();
+        for (boolean sorted : new boolean[]{true, false}) {
+            for (double maturity : this.getMaturities(sorted)) {
+                assertEquals(cubicSplines.getModeledRate(maturity), cubicSplines.getModeledRate(maturity, cursor), 1e-15);
+                assertEquals(cubicSplines.getDiscountFactor(maturity), cubicSplines.getDiscountFactor(maturity, cursor), 1e-15);
+            }
+        }
+    }
+
+    @Test
+    public void monotoneConvexBatchMatchesScalar() throws InterpolationException {
+        this.assertBatchMatchesScalar(new MonotoneConvex(this.getRatesCurve()));
+    }
+
+    @Test
+    public void linearInterpolationBatchMatchesScalar() throws InterpolationException {
+        RatesCurve ratesCurve = this.getRatesCurve();
+        this.assertBatchMatchesScalar(new LinearInterpolation(ratesCurve.getRatePointsList().get(1), ratesCurve.getRatePointsList().get(4)));
+    }
+}
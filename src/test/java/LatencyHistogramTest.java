@@ -0,0 +1,30 @@
+import com.company.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000000; value++) {
+            latencyHistogram.record(value);
+        }
+        assertEquals(1000000, latencyHistogram.getCount());
+        assertEquals(1000000, latencyHistogram.getMax());
+        assertEquals(500000.5, latencyHistogram.getMean(), 1e-9);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            double expected = percentile * 10000;
+            long actual = latencyHistogram.getPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * (1 + 1.0 / 64));
+        }
+        assertEquals(1000000, latencyHistogram.getPercentile(100));
+
+        latencyHistogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, latencyHistogram.getPercentile(100));
+        latencyHistogram.reset();
+        assertEquals(0, latencyHistogram.getPercentile(50));
+    }
+}
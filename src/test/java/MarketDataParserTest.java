@@ -0,0 +1,110 @@
+import com.company.beans.DataPoint;
+import com.company.enums.Basis;
+import com.company.enums.RateType;
+import com.company.exceptions.MarketDataParseException;
+import com.company.marketdata.MarketDataColumns;
+import com.company.marketdata.MarketDataParser;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class MarketDataParserTest {
+    private static final String[] CURVES = {"GBP", "CHF", "ZAR", "GBPAdj", "MCTestSet1"};
+
+    private List<DataPoint> getDataPointsWithBuilder(String fileName) throws IOException {
+        List<DataPoint> dataPointList = new ArrayList<>();
+        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(fileName))) {
+            bufferedReader.readLine();
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                String[] splitLine = line.split(",");
+                dataPointList.add(new DataPoint.Builder()
+                        .withType(splitLine[0])
+                        .withSettle(splitLine[1])
+                        .withRollDate(splitLine[2])
+                        .withMaturity(splitLine[3])
+                        .withRate(splitLine[4])
+                        .withBasis(splitLine[5])
+                        .withFrequency(splitLine[6])
+                        .withCouponBase(splitLine[7])
+                        .build());
+            }
+        }
+        return dataPointList;
+    }
+
+    @Test
+    public void matchesBuilderOnResourceFiles() throws IOException {
+        MarketDataParser parser = new MarketDataParser();
+        MarketDataColumns columns = new MarketDataColumns();
+        for (String curve : CURVES) {
+            String fileName = "src/resources/" + curve + "Rates.csv";
+            List<DataPoint> expected = this.getDataPointsWithBuilder(fileName);
+            parser.parse(Paths.get(fileName), columns);
+            List<DataPoint> actual = columns.getDataPoints();
+
+            assertEquals(curve, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(curve, expected.get(i).getType(), actual.get(i).getType());
+                assertEquals(curve, expected.get(i).getSettle(), actual.get(i).getSettle());
+                assertEquals(curve, expected.get(i).getRollDate(), actual.get(i).getRollDate());
+                assertEquals(curve, expected.get(i).getMaturity(), actual.get(i).getMaturity());
+                assertEquals(curve, expected.get(i).getRate(), actual.get(i).getRate(), 0);
+                assertEquals(curve, expected.get(i).getBasis(), actual.get(i).getBasis());
+                assertEquals(curve, expected.get(i).getFrequency(), actual.get(i).getFrequency(), 0);
+                assertEquals(curve, expected.get(i).getCouponBase(), actual.get(i).getCouponBase(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void acceptsBomPaddedHeaderAndCrlf() throws MarketDataParseException {
+        String csv = "\uFEFFType,Settle, RollDate ,Maturity ,Rate,Basis,Frequency,CouponBasis\r\n"
+                + "Swap,20160928,20160928,20240229,-0.00125,ACT/365,2,0.5\r\n"
+                + "\r\n";
+        MarketDataColumns columns = new MarketDataColumns();
+        new MarketDataParser().parse(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), columns);
+
+        assertEquals(1, columns.size());
+        assertEquals(RateType.SWAP, columns.getType(0));
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), columns.getMaturity(0));
+        assertEquals(-0.0025, columns.getRate(0), 0);
+        assertEquals(Basis.ACT365, columns.getBasis(0));
+    }
+
+    @Test
+    public void reportsLineOfMalformedRow() {
+        String csv = "Type,Settle,RollDate,Maturity,Rate,Basis,Frequency,CouponBasis\n"
+                + "Cash,20160926,N/A,20160928,0.0022875,ACT/365,N/A,1\n"
+                + "Cash,20160926,N/A,20160231,0.0022875,ACT/365,N/A,1\n";
+        try {
+            new MarketDataParser().parse(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), new MarketDataColumns());
+            fail();
+        } catch (MarketDataParseException e) {
+            assertEquals(3, e.getLineNumber());
+        }
+    }
+
+    @Test
+    public void unknownBasisIsNull() throws MarketDataParseException {
+        String csv = "Type,Settle,RollDate,Maturity,Rate,Basis,Frequency,CouponBasis\n"
+                + "Cash,20160926,N/A,20160928,1.5e-3,ACT/360,N/A,1\n";
+        MarketDataColumns columns = new MarketDataColumns();
+        new MarketDataParser().parse(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), columns);
+
+        assertNull(columns.getBasis(0));
+        assertEquals(1.5e-3, columns.getRate(0), 0);
+    }
+}
@@ -0,0 +1,71 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.MetricPhase;
+import com.company.enums.ModelType;
+import com.company.interfaces.Interpolation;
+import com.company.metrics.Metrics;
+import com.company.metrics.MetricsRegistry;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void recordsPhasesAndQueries() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.record(MetricPhase.CALIBRATION, 2000);
+        metricsRegistry.record(MetricPhase.CALIBRATION, 4000);
+        metricsRegistry.countQueries(ModelType.CUBIC_SPLINES, 10);
+        metricsRegistry.countQueries(ModelType.CUBIC_SPLINES, 5);
+
+        assertEquals(2, metricsRegistry.getPhaseHistogram(MetricPhase.CALIBRATION).getCount());
+        assertEquals(4000, metricsRegistry.getPhaseHistogram(MetricPhase.CALIBRATION).getMax());
+        assertEquals(0, metricsRegistry.getPhaseHistogram(MetricPhase.CSV_LOAD).getCount());
+        assertEquals(15, metricsRegistry.getQueryCount(ModelType.CUBIC_SPLINES));
+        assertEquals(0, metricsRegistry.getQueryCount(ModelType.MONOTONE_CONVEX));
+
+        String dump = metricsRegistry.dump();
+        assertTrue(dump.contains("CALIBRATION"));
+        assertTrue(dump.contains("CUBIC_SPLINES"));
+
+        metricsRegistry.reset();
+        assertEquals(0, metricsRegistry.getPhaseHistogram(MetricPhase.CALIBRATION).getCount());
+        assertEquals(0, metricsRegistry.getQueryCount(ModelType.CUBIC_SPLINES));
+    }
+
+    @Test
+    public void exposesMBeans() throws Exception {
+        MetricsRegistry metricsRegistry = Metrics.getRegistry();
+        metricsRegistry.registerMBeans();
+        metricsRegistry.registerMBeans();
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        long count = metricsRegistry.getPhaseHistogram(MetricPhase.SWAP_BOOTSTRAP).getCount();
+        assertEquals(count, mBeanServer.getAttribute(MetricsRegistry.getObjectName("Phase", "SWAP_BOOTSTRAP"), "Count"));
+        long queries = metricsRegistry.getQueryCount(ModelType.MONOTONE_CONVEX);
+        assertEquals(queries, mBeanServer.getAttribute(MetricsRegistry.getObjectName("Queries", "MONOTONE_CONVEX"), "Queries"));
+    }
+
+    @Test
+    public void instrumentsCurveBuildWhenEnabled() throws Exception {
+        assumeTrue("run by the metrics-test execution with -Dcurves.metrics=true", Metrics.ENABLED);
+        MetricsRegistry metricsRegistry = Metrics.getRegistry();
+        long curveBuilds = metricsRegistry.getPhaseHistogram(MetricPhase.CURVE_BUILD).getCount();
+        long calibrations = metricsRegistry.getPhaseHistogram(MetricPhase.CALIBRATION).getCount();
+        Interpolation interpolation = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        assertEquals(curveBuilds + 1, metricsRegistry.getPhaseHistogram(MetricPhase.CURVE_BUILD).getCount());
+        assertTrue(metricsRegistry.getPhaseHistogram(MetricPhase.CALIBRATION).getCount() > calibrations);
+
+        long queries = metricsRegistry.getQueryCount(ModelType.MONOTONE_CONVEX);
+        interpolation.getDiscountFactor(1);
+        interpolation.getDiscountFactors(new double[]{1, 2, 3}, new double[3]);
+        assertEquals(queries + 4, metricsRegistry.getQueryCount(ModelType.MONOTONE_CONVEX));
+    }
+}
@@ -0,0 +1,85 @@
+import com.company.ModelFactory;
+import com.company.beans.RatesCurve;
+import com.company.cache.CurveKey;
+import com.company.cache.ModelCache;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ModelCacheTest {
+
+    private RatesCurve getRatesCurve(double shift) {
+        RatesCurve ratesCurve = new RatesCurve();
+        double[] terms = {0.5, 1, 2, 5, 10};
+        for (double term : terms) {
+            ratesCurve.add(term, 0.01 + 0.002 * term + shift);
+        }
+        return ratesCurve;
+    }
+
+    @Test
+    public void curvesWithTheSameContentsShareTheModel() throws InterpolationException {
+        ModelCache modelCache = new ModelCache(4);
+        RatesCurve ratesCurve = this.getRatesCurve(0);
+        Interpolation model = modelCache.getModel(new CurveKey(ModelType.CUBIC_SPLINES, ratesCurve),
+                () -> ModelFactory.createModel(ModelType.CUBIC_SPLINES, ratesCurve));
+
+        RatesCurve sameRatesCurve = this.getRatesCurve(0);
+        assertSame(model, modelCache.getModel(new CurveKey(ModelType.CUBIC_SPLINES, sameRatesCurve),
+                () -> ModelFactory.createModel(ModelType.CUBIC_SPLINES, sameRatesCurve)));
+        assertNotSame(model, modelCache.getModel(new CurveKey(ModelType.MONOTONE_CONVEX, sameRatesCurve),
+                () -> ModelFactory.createModel(ModelType.MONOTONE_CONVEX, sameRatesCurve)));
+        assertEquals(1, modelCache.getHits());
+        assertEquals(2, modelCache.getMisses());
+
+        ratesCurve.setRate(0.05, 0);
+        assertNotSame(model, modelCache.getModel(new CurveKey(ModelType.CUBIC_SPLINES, ratesCurve),
+                () -> ModelFactory.createModel(ModelType.CUBIC_SPLINES, ratesCurve)));
+    }
+
+    @Test
+    public void swapsFrequencyIsPartOfTheKey() {
+        RatesCurve swapsRatesCurve = this.getRatesCurve(0.01);
+        swapsRatesCurve.setCashFlowYearlyFrequency(1.0);
+        RatesCurve sameSwapsRatesCurve = this.getRatesCurve(0.01);
+        sameSwapsRatesCurve.setCashFlowYearlyFrequency(1.0);
+        RatesCurve semiannualSwapsRatesCurve = this.getRatesCurve(0.01);
+        semiannualSwapsRatesCurve.setCashFlowYearlyFrequency(2.0);
+
+        CurveKey curveKey = new CurveKey(ModelType.MONOTONE_CONVEX, this.getRatesCurve(0), swapsRatesCurve);
+        assertEquals(curveKey, new CurveKey(ModelType.MONOTONE_CONVEX, this.getRatesCurve(0), sameSwapsRatesCurve));
+        assertNotEquals(curveKey, new CurveKey(ModelType.MONOTONE_CONVEX, this.getRatesCurve(0), semiannualSwapsRatesCurve));
+        assertNotEquals(curveKey.hashCode(), new CurveKey(ModelType.MONOTONE_CONVEX, this.getRatesCurve(0), semiannualSwapsRatesCurve).hashCode());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedAndInvalidates() throws InterpolationException {
+        ModelCache modelCache = new ModelCache(2);
+        CurveKey[] curveKeys = new CurveKey[3];
+        for (int i = 0; i < curveKeys.length; i++) {
+            RatesCurve ratesCurve = this.getRatesCurve(i * 0.001);
+            curveKeys[i] = new CurveKey(ModelType.MONOTONE_CONVEX, ratesCurve);
+            modelCache.getModel(curveKeys[i], () -> ModelFactory.createModel(ModelType.MONOTONE_CONVEX, ratesCurve));
+            if (i == 1) {
+                modelCache.getModel(curveKeys[0], () -> null);
+            }
+        }
+        assertEquals(2, modelCache.size());
+        assertEquals(1, modelCache.getEvictions());
+        assertEquals(1, modelCache.getHits());
+
+        modelCache.getModel(curveKeys[0], () -> null);
+        assertEquals(2, modelCache.getHits());
+
+        modelCache.invalidate(curveKeys[0]);
+        assertEquals(1, modelCache.size());
+        modelCache.invalidateAll();
+        assertEquals(0, modelCache.size());
+    }
+}
@@ -1,7 +1,19 @@
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.ExtrapolationPolicy;
+import com.company.enums.RateBasis;
 import com.company.exceptions.InterpolationException;
 import com.company.interpolation.MonotoneConvex;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
 public class MonotoneConvexTest {
     private double[] values = new double[]{0.03, 0.03, 0.05, 0.047, 0.06, 0.06};
     private double[] terms = new double[]{0, 1, 2, 3, 4, 5};
@@ -16,4 +28,107 @@ public class MonotoneConvexTest {
             i += 0.01;
         }
     }
+
+    @Test
+    public void precomputedSegmentsMatchSegmentFunctions() throws InterpolationException {
+        MonotoneConvex monotoneConvex = new MonotoneConvex(this.values, this.terms).appendKnot(6, 0.058).appendKnot(7, 0.062);
+        double[] terms = monotoneConvex.getTerms();
+        double[] forwardRates = monotoneConvex.getForwardRates();
+        double[] discreteForwardRates = monotoneConvex.getDiscreteForwardRates();
+        double[] discreteInterpolationNode = monotoneConvex.getDiscreteInterpolationNode();
+        for (int i = 0; i < terms.length - 1; i++) {
+            for (int step = 0; step <= 100; step++) {
+                double term = terms[i] + step * (terms[i + 1] - terms[i]) / 100;
+                if (term <= 0) {
+                    continue;
+                }
+                assertEquals(MonotoneConvex.interpolate(term, terms[i], terms[i + 1], forwardRates[i], forwardRates[i + 1],
+                        discreteForwardRates[i + 1], discreteInterpolationNode[i]), monotoneConvex.getModeledRate(term), 1e-15);
+                assertEquals(MonotoneConvex.forward(term, terms[i], terms[i + 1], forwardRates[i], forwardRates[i + 1],
+                        discreteForwardRates[i + 1]), monotoneConvex.getForwardRate(term), 1e-15);
+            }
+        }
+    }
+
+    /**
+     * The segment [1, 2] is in zone four with g1 = 0, so eta = 0;
+     * expected values from the implementation before the per segment
+     * precomputation
+     */
+    @Test
+    public void zoneFourWithEtaZero() throws InterpolationException {
+        RatesCurve ratesCurve = new RatesCurve();
+        ratesCurve.add(new RatePoint(1, 0.03, RateBasis.ANNUALIZED));
+        ratesCurve.add(new RatePoint(2, 0.04, RateBasis.ANNUALIZED));
+        ratesCurve.add(new RatePoint(3, 0.04333, RateBasis.ANNUALIZED));
+        ratesCurve.add(new RatePoint(4, 0.0475, RateBasis.ANNUALIZED));
+        MonotoneConvex monotoneConvex = new MonotoneConvex(ratesCurve);
+        assertEquals(0.03399962471889062, monotoneConvex.getModeledRate(1.25), 1e-15);
+        assertEquals(0.03666694423614583, monotoneConvex.getModeledRate(1.5), 1e-15);
+        assertEquals(0.03857181540922991, monotoneConvex.getModeledRate(1.75), 1e-15);
+        assertEquals(0.9464847538804816, monotoneConvex.getDiscountFactor(1.5), 1e-15);
+        assertEquals(0.05000250062468751, monotoneConvex.getForwardRate(1.5), 1e-15);
+
+        //g0 = -0.01, g1 = 0: g is 0 after eta = 0, the rate is (1 * 0.03 + 0.5 * 0.05) / 1.5
+        assertEquals(0.055 / 1.5, MonotoneConvex.interpolate(1.5, 1, 2, 0.04, 0.05, 0.05, 0.03), 1e-15);
+        assertEquals(0.05, MonotoneConvex.forward(1.5, 1, 2, 0.04, 0.05, 0.05), 1e-15);
+    }
+
+    @Test
+    public void extrapolatesFromTheLastTerm() throws InterpolationException {
+        MonotoneConvex flatForward = new MonotoneConvex(this.values, this.terms).appendKnot(6, 0.058);
+        MonotoneConvex flatRate = new MonotoneConvex(this.values, this.terms, ExtrapolationPolicy.FLAT_RATE).appendKnot(6, 0.058);
+        assertEquals(ExtrapolationPolicy.FLAT_RATE, flatRate.getExtrapolationPolicy());
+        double lastRate = flatForward.getModeledRate(6);
+        double lastForwardRate = flatForward.getForwardRate(6);
+        double[] maturities = new double[]{6.5, 10, 40, 60};
+        double[] rates = new double[maturities.length];
+        double[] forwardRates = new double[maturities.length];
+        flatForward.getModeledRates(maturities, rates);
+        flatForward.getForwardRates(maturities, forwardRates);
+        for (int i = 0; i < maturities.length; i++) {
+            double maturity = maturities[i];
+            double expected = lastRate * 6 / maturity + lastForwardRate * (1 - 6 / maturity);
+            assertEquals(expected, flatForward.getModeledRate(maturity), 1e-15);
+            assertEquals(expected, rates[i], 1e-15);
+            assertEquals(lastForwardRate, flatForward.getForwardRate(maturity), 0);
+            assertEquals(lastForwardRate, forwardRates[i], 0);
+            assertEquals(Math.exp(-expected * maturity), flatForward.getDiscountFactor(maturity), 1e-15);
+
+            assertEquals(lastRate, flatRate.getModeledRate(maturity), 0);
+            assertEquals(lastRate, flatRate.getForwardRate(maturity), 0);
+        }
+    }
+
+    @Test
+    public void concurrentQueriesMatchSequential() throws Exception {
+        MonotoneConvex monotoneConvex = new MonotoneConvex(this.values, this.terms);
+        double[] maturities = new double[2000];
+        double[] expected = new double[maturities.length];
+        for (int i = 0; i < maturities.length; i++) {
+            maturities[i] = ((i * 7919) % maturities.length) * 0.003;
+            expected[i] = monotoneConvex.getModeledRate(maturities[i]);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<double[]>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executorService.submit(() -> {
+                double[] rates = new double[maturities.length];
+                for (int repeat = 0; repeat < 50; repeat++) {
+                    for (int i = 0; i < maturities.length; i++) {
+                        rates[i] = monotoneConvex.getModeledRate(maturities[i]);
+                    }
+                }
+                return rates;
+            }));
+        }
+        for (Future<double[]> future : futures) {
+            double[] rates = future.get();
+            for (int i = 0; i < maturities.length; i++) {
+                assertEquals(expected[i], rates[i], 0);
+            }
+        }
+        executorService.shutdown();
+    }
 }
@@ -0,0 +1,142 @@
+import com.company.ModelFactory;
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.RatesCurve;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.snapshot.OffHeapCurveStore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapCurveStoreTest {
+    private static final String[] CURVES = {"GBP", "CHF", "ZAR", "MCTestSet1"};
+    private static final ModelType[] MODEL_TYPES = {ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX};
+    private static final double[] MATURITIES = new double[]{0.1, 0.5, 1, 2.5, 5, 10, 30};
+
+    /**
+     * One curve per currency, model and scenario, the scenario shifting
+     * every rate
+     */
+    private Map<String, Interpolation> getCurves(int scenarios) throws Exception {
+        Map<String, Interpolation> curves = new HashMap<>();
+        for (String curve : CURVES) {
+            RatesCurve ratesCurve = new RatesCurve(RatesCurveUtils.getDataPointsFromFile("src/resources/" + curve + "Rates.csv"), RateType.CASH);
+            for (int scenario = 0; scenario < scenarios; scenario++) {
+                RatesCurve shiftedCurve = new RatesCurve();
+                for (int i = 0; i < ratesCurve.size(); i++) {
+                    shiftedCurve.add(ratesCurve.getMaturity(i), ratesCurve.getRate(i) + scenario * 1e-5);
+                }
+                for (ModelType modelType : MODEL_TYPES) {
+                    curves.put(curve + "/" + modelType + "/scenario-" + scenario, ModelFactory.createModel(modelType, shiftedCurve));
+                }
+            }
+        }
+        return curves;
+    }
+
+    private void assertSameCurve(String curveId, Interpolation expected, Interpolation actual) throws InterpolationException {
+        assertEquals(curveId, expected.getLastTerm(), actual.getLastTerm(), 0);
+        for (double maturity : MATURITIES) {
+            assertEquals(curveId, expected.getModeledRate(maturity), actual.getModeledRate(maturity), 0);
+            assertEquals(curveId, expected.getDiscountFactor(maturity), actual.getDiscountFactor(maturity), 0);
+            assertEquals(curveId, expected.getForwardRate(maturity), actual.getForwardRate(maturity), 0);
+        }
+    }
+
+    @Test
+    public void storedCurvesMatchCalibratedCurves() throws Exception {
+        Map<String, Interpolation> curves = this.getCurves(250);
+        OffHeapCurveStore store = new OffHeapCurveStore(64 * 1024);
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            store.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(curves.size(), store.size());
+        assertTrue(store.getAllocatedBytes() > 64 * 1024);
+        assertEquals(0, store.getGarbageBytes());
+        assertNull(store.getCurve("USD/" + ModelType.CUBIC_SPLINES + "/scenario-0"));
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            this.assertSameCurve(entry.getKey(), entry.getValue(), store.getCurve(entry.getKey()));
+        }
+
+        store.put("GBP/\u20acuro desk", curves.get("ZAR/MONOTONE_CONVEX/scenario-3"));
+        this.assertSameCurve("GBP/\u20acuro desk", curves.get("ZAR/MONOTONE_CONVEX/scenario-3"), store.getCurve("GBP/\u20acuro desk"));
+        assertNull(store.getCurve("GBP/\u20acuro"));
+    }
+
+    @Test
+    public void replacedAndRemovedCurvesAreCompacted() throws Exception {
+        Map<String, Interpolation> curves = this.getCurves(20);
+        OffHeapCurveStore store = new OffHeapCurveStore(16 * 1024);
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            store.put(entry.getKey(), entry.getValue());
+        }
+        long usedBytes = store.getUsedBytes();
+
+        Interpolation view = store.getCurve("GBP/CUBIC_SPLINES/scenario-0");
+        store.put("GBP/CUBIC_SPLINES/scenario-0", curves.get("CHF/CUBIC_SPLINES/scenario-0"));
+        assertTrue(store.remove("ZAR/MONOTONE_CONVEX/scenario-5"));
+        assertTrue(!store.remove("ZAR/MONOTONE_CONVEX/scenario-5"));
+        assertEquals(curves.size() - 1, store.size());
+        assertTrue(store.getGarbageBytes() > 0);
+        assertNull(store.getCurve("ZAR/MONOTONE_CONVEX/scenario-5"));
+
+        store.compact();
+        assertEquals(0, store.getGarbageBytes());
+        assertTrue(store.getUsedBytes() < usedBytes);
+        assertEquals(curves.size() - 1, store.size());
+        curves.put("GBP/CUBIC_SPLINES/scenario-0", curves.get("CHF/CUBIC_SPLINES/scenario-0"));
+        curves.remove("ZAR/MONOTONE_CONVEX/scenario-5");
+        for (Map.Entry<String, Interpolation> entry : curves.entrySet()) {
+            this.assertSameCurve(entry.getKey(), entry.getValue(), store.getCurve(entry.getKey()));
+        }
+        this.assertSameCurve("view", this.getCurves(1).get("GBP/CUBIC_SPLINES/scenario-0"), view);
+    }
+
+    @Test
+    public void concurrentReadsDuringWrites() throws Exception {
+        Map<String, Interpolation> curves = this.getCurves(40);
+        List<String> curveIds = new ArrayList<>(curves.keySet());
+        OffHeapCurveStore store = new OffHeapCurveStore(32 * 1024);
+        for (int i = 0; i < curveIds.size() / 2; i++) {
+            store.put(curveIds.get(i), curves.get(curveIds.get(i)));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(executorService.submit(() -> {
+                int found = 0;
+                for (int repeat = 0; repeat < 20; repeat++) {
+                    for (String curveId : curveIds) {
+                        Interpolation curve = store.getCurve(curveId);
+                        if (curve != null) {
+                            assertEquals(curves.get(curveId).getModeledRate(5), curve.getModeledRate(5), 0);
+                            found++;
+                        }
+                    }
+                }
+                return found;
+            }));
+        }
+        for (int i = curveIds.size() / 2; i < curveIds.size(); i++) {
+            store.put(curveIds.get(i), curves.get(curveIds.get(i)));
+        }
+        for (Future<Integer> future : futures) {
+            assertTrue(future.get() >= 20 * curveIds.size() / 2);
+        }
+        executorService.shutdown();
+        assertEquals(curveIds.size(), store.size());
+    }
+}
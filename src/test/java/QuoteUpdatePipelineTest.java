@@ -0,0 +1,65 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.enums.RateType;
+import com.company.interfaces.Interpolation;
+import com.company.streaming.CurveVersion;
+import com.company.streaming.QuoteFeed;
+import com.company.streaming.QuoteUpdate;
+import com.company.streaming.QuoteUpdatePipeline;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class QuoteUpdatePipelineTest {
+
+    @Test
+    public void coalescesUpdatesAndPublishesNewVersion() throws Exception {
+        List<DataPoint> gbpQuotes = RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv");
+        Map<String, List<DataPoint>> initialQuotes = new HashMap<>();
+        initialQuotes.put("GBP", gbpQuotes);
+        initialQuotes.put("CHF", RatesCurveUtils.getDataPointsFromFile("src/resources/CHFRates.csv"));
+        DataPoint swap = gbpQuotes.get(gbpQuotes.size() - 1);
+
+        Path feedFile = Files.createTempFile("quotes", ".csv");
+        Files.write(feedFile, Arrays.asList("Currency,Type,Maturity,Rate",
+                "GBP,Swap," + swap.getMaturity().toString().replace("-", "") + ",0.02",
+                "USD,Swap,20260928,0.02"), StandardCharsets.UTF_8);
+        QuoteFeed quoteFeed = QuoteFeed.fromFile(feedFile);
+        Files.delete(feedFile);
+
+        try (QuoteUpdatePipeline quoteUpdatePipeline = new QuoteUpdatePipeline(ModelType.MONOTONE_CONVEX, initialQuotes, 200, TimeUnit.MILLISECONDS, 16)) {
+            Interpolation chfCurve = quoteUpdatePipeline.getCurve("CHF");
+            quoteUpdatePipeline.submit(new QuoteUpdate("GBP", RateType.SWAP, swap.getMaturity(), 0.03));
+            assertEquals(2, quoteFeed.replay(quoteUpdatePipeline));
+
+            CurveVersion curveVersion = quoteUpdatePipeline.awaitVersion("GBP", 2, 5, TimeUnit.SECONDS);
+            assertNotNull(curveVersion);
+            assertEquals(1, quoteUpdatePipeline.getMergedUpdates());
+            assertEquals(1, quoteUpdatePipeline.getDroppedUpdates());
+            assertEquals(1, quoteUpdatePipeline.getRecalibrations());
+            assertEquals(chfCurve, quoteUpdatePipeline.getCurve("CHF"));
+
+            List<DataPoint> updatedQuotes = new ArrayList<>(gbpQuotes);
+            updatedQuotes.set(gbpQuotes.size() - 1, new DataPoint.Builder().withType(swap.getType()).withSettle(swap.getSettle())
+                    .withRollDate(swap.getRollDate()).withMaturity(swap.getMaturity()).withRate(0.02)
+                    .withBasis(swap.getBasis()).withFrequency(swap.getFrequency()).withCouponBase(swap.getCouponBase()).build());
+            Interpolation expected = new BootstrapEngine(ModelType.MONOTONE_CONVEX).bootstrap(updatedQuotes).getInterpolation();
+            for (double term = 0.5; term < 30; term += 0.5) {
+                assertEquals(expected.getModeledRate(term), curveVersion.getInterpolation().getModeledRate(term), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import com.company.beans.RatesCurve;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RatesCurveTest {
+
+    @Test
+    public void unorderedInsertionKeepsMaturitiesSorted() {
+        RatesCurve ratesCurve = new RatesCurve();
+        double[] maturities = {5, 1, 10, 0.5, 2, 30};
+        for (double maturity : maturities) {
+            ratesCurve.add(maturity, maturity / 100);
+        }
+
+        assertEquals(maturities.length, ratesCurve.size());
+        assertEquals(0.5, ratesCurve.firstTermInCurve(), 0);
+        assertEquals(30, ratesCurve.lastTermInCurve(), 0);
+        for (int i = 0; i < ratesCurve.size() - 1; i++) {
+            assertTrue(ratesCurve.getMaturity(i) < ratesCurve.getMaturity(i + 1));
+            assertEquals(ratesCurve.getMaturity(i) / 100, ratesCurve.getRate(i), 0);
+            assertEquals(ratesCurve.getMaturity(i + 1) - ratesCurve.getMaturity(i), ratesCurve.getCapitalX(i), 0);
+        }
+        assertEquals(0, ratesCurve.getCapitalX(ratesCurve.size() - 1), 0);
+    }
+
+    @Test
+    public void addIfAbsentSkipsPointsWithinHalfADay() {
+        RatesCurve ratesCurve = new RatesCurve();
+        assertTrue(ratesCurve.addIfAbsent(1, 0.01));
+        assertTrue(ratesCurve.addIfAbsent(2, 0.02));
+        assertFalse(ratesCurve.addIfAbsent(1 + 0.4 / 365, 0.05));
+        assertFalse(ratesCurve.addIfAbsent(2 - 0.4 / 365, 0.05));
+        assertTrue(ratesCurve.addIfAbsent(1 + 1.0 / 365, 0.011));
+
+        assertEquals(3, ratesCurve.size());
+        assertEquals(0.01, ratesCurve.getRate(0), 0);
+        assertEquals(0.02, ratesCurve.getRate(2), 0);
+    }
+}
@@ -0,0 +1,48 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.DataPoint;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.risk.CurveSensitivities;
+import com.company.risk.SensitivityEngine;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SensitivityEngineTest {
+    private static final double BUMP = 0.0001;
+    private final double[] tenors = {0.25, 0.5, 1, 2, 3, 5, 7, 10, 15, 20, 30};
+
+    @Test
+    public void matchesBruteForceBumping() throws IOException, InterpolationException {
+        List<DataPoint> quotes = RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (ModelType modelType : new ModelType[]{ModelType.CUBIC_SPLINES, ModelType.MONOTONE_CONVEX}) {
+                CurveSensitivities curveSensitivities = new SensitivityEngine(modelType, executor, BUMP).compute(quotes, this.tenors);
+                Interpolation base = new BootstrapEngine(modelType).bootstrap(quotes).getInterpolation();
+
+                for (int i = 0; i < quotes.size(); i++) {
+                    List<DataPoint> bumpedQuotes = new ArrayList<>(quotes);
+                    bumpedQuotes.set(i, new DataPoint.Builder(quotes.get(i)).withRate(quotes.get(i).getQuote() + BUMP).build());
+                    Interpolation bumped = new BootstrapEngine(modelType).bootstrap(bumpedQuotes).getInterpolation();
+                    for (int j = 0; j < this.tenors.length; j++) {
+                        double zeroRateSensitivity = (bumped.getModeledRate(this.tenors[j]) - base.getModeledRate(this.tenors[j])) / BUMP;
+                        double discountFactorSensitivity = (bumped.getDiscountFactor(this.tenors[j]) - base.getDiscountFactor(this.tenors[j])) / BUMP;
+                        assertEquals(zeroRateSensitivity, curveSensitivities.getZeroRateSensitivity(i, j), 1e-12);
+                        assertEquals(discountFactorSensitivity, curveSensitivities.getDiscountFactorSensitivity(i, j), 1e-12);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import com.company.Utils.RatesCurveUtils;
+import com.company.beans.Swap;
+import com.company.bootstrap.BootstrapEngine;
+import com.company.enums.ModelType;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.pricing.SwapPortfolio;
+import com.company.pricing.SwapPricingEngine;
+import com.company.pricing.SwapValuations;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwapPricingEngineTest {
+
+    @Test
+    public void matchesSwapPresentValue() throws IOException, InterpolationException {
+        Interpolation curve = new BootstrapEngine(ModelType.MONOTONE_CONVEX)
+                .bootstrap(RatesCurveUtils.getDataPointsFromFile("src/resources/GBPRates.csv")).getInterpolation();
+        Random random = new Random(5);
+        List<Swap> swaps = new ArrayList<>();
+        double[] notionals = new double[20000];
+        double[] frequencies = {1, 2, 4};
+        for (int k = 0; k < notionals.length; k++) {
+            double term = 1 + random.nextInt(30 * 12) / 12.0;
+            swaps.add(new Swap(term, 0.002 + 0.01 * random.nextDouble(), frequencies[random.nextInt(frequencies.length)]));
+            notionals[k] = (random.nextDouble() - 0.5) * 1e7;
+        }
+        SwapPortfolio swapPortfolio = new SwapPortfolio(swaps, notionals);
+        assertTrue(swapPortfolio.getTerms().length < swapPortfolio.getNumberOfCashFlows() / 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            SwapValuations swapValuations = new SwapPricingEngine(executor).price(swapPortfolio, curve);
+            double totalPresentValue = 0;
+            for (int k = 0; k < swaps.size(); k++) {
+                Swap swap = swaps.get(k);
+                double presentValue = notionals[k] * swap.getPresentValue(curve);
+                assertEquals(presentValue, swapValuations.getPresentValue(k), 1e-12 * Math.abs(notionals[k]));
+                totalPresentValue += presentValue;
+
+                double annuity = 0;
+                for (double term : swap.getCashFlowTerms()) {
+                    annuity += curve.getDiscountFactor(term) / swap.getYearlyFrequency();
+                }
+                assertEquals(annuity, swapValuations.getAnnuity(k), 1e-12);
+
+                Swap parSwap = new Swap(swap.getSwapTermInYears(), swapValuations.getParRate(k), swap.getYearlyFrequency());
+                assertEquals(0, parSwap.getPresentValue(curve), 1e-12);
+            }
+            assertEquals(totalPresentValue, swapValuations.getTotalPresentValue(), 1e-6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sharesCashFlowTerms() {
+        List<Swap> swaps = new ArrayList<>(Collections.nCopies(3, new Swap(5, 0.01, 2)));
+        swaps.add(new Swap(10, 0.01, 2));
+        SwapPortfolio swapPortfolio = new SwapPortfolio(swaps, new double[]{1, 1, 1, 1});
+        assertEquals(50, swapPortfolio.getNumberOfCashFlows());
+        assertEquals(20, swapPortfolio.getTerms().length);
+    }
+}
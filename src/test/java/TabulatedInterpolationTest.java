@@ -0,0 +1,79 @@
+import com.company.ModelFactory;
+import com.company.beans.RatePoint;
+import com.company.beans.RatesCurve;
+import com.company.enums.ModelType;
+import com.company.enums.RateBasis;
+import com.company.enums.TabulationMode;
+import com.company.exceptions.InterpolationException;
+import com.company.interfaces.Interpolation;
+import com.company.interpolation.TabulatedInterpolation;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TabulatedInterpolationTest {
+    private double[] terms = new double[]{0.25, 0.5, 1, 2, 3, 5, 7, 10};
+    private double[] values = new double[]{0.010, 0.012, 0.015, 0.019, 0.022, 0.025, 0.026, 0.027};
+
+    private Interpolation getModel(ModelType modelType) {
+        RatesCurve ratesCurve = new RatesCurve();
+        for (int i = 0; i < this.terms.length; i++) {
+            ratesCurve.add(new RatePoint(this.terms[i], this.values[i], RateBasis.ANNUALIZED));
+        }
+        return ModelFactory.createModel(modelType, ratesCurve);
+    }
+
+    private void assertWithinTolerance(Interpolation source, TabulatedInterpolation tabulated, double tolerance) throws InterpolationException {
+        assertTrue(tabulated.getMaxRateError() <= tolerance);
+        assertTrue(tabulated.getMaxDiscountFactorError() <= tolerance);
+        assertTrue(tabulated.getMaxForwardRateError() <= tolerance);
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            double term = tabulated.getFirstTerm() + random.nextDouble() * (source.getLastTerm() - tabulated.getFirstTerm());
+            assertEquals(source.getModeledRate(term), tabulated.getModeledRate(term), tolerance);
+            assertEquals(source.getDiscountFactor(term), tabulated.getDiscountFactor(term), tolerance);
+            assertEquals(source.getForwardRate(term), tabulated.getForwardRate(term), tolerance);
+        }
+    }
+
+    @Test
+    public void cubicHermiteTableMatchesCubicSplines() throws InterpolationException {
+        Interpolation cubicSplines = this.getModel(ModelType.CUBIC_SPLINES);
+        TabulatedInterpolation tabulated = new TabulatedInterpolation(cubicSplines, this.terms[0], 1 / 365.0,
+                TabulationMode.CUBIC_HERMITE, TabulatedInterpolation.DEFAULT_TOLERANCE);
+        this.assertWithinTolerance(cubicSplines, tabulated, TabulatedInterpolation.DEFAULT_TOLERANCE);
+    }
+
+    @Test
+    public void linearTableMatchesMonotoneConvex() throws InterpolationException {
+        Interpolation monotoneConvex = this.getModel(ModelType.MONOTONE_CONVEX);
+        TabulatedInterpolation tabulated = new TabulatedInterpolation(monotoneConvex, 1 / 2000.0, TabulationMode.LINEAR);
+        this.assertWithinTolerance(monotoneConvex, tabulated, TabulatedInterpolation.DEFAULT_TOLERANCE);
+    }
+
+    @Test
+    public void termsOutsideTheTableUseTheSource() throws InterpolationException {
+        Interpolation cubicSplines = this.getModel(ModelType.CUBIC_SPLINES);
+        TabulatedInterpolation tabulated = new TabulatedInterpolation(cubicSplines, this.terms[0], 1 / 52.0, TabulationMode.LINEAR, 1e-4);
+        for (double term : new double[]{0, 0.1, 10.5, 30}) {
+            assertEquals(cubicSplines.getModeledRate(term), tabulated.getModeledRate(term), 0);
+            assertEquals(cubicSplines.getDiscountFactor(term), tabulated.getDiscountFactor(term), 0);
+            assertEquals(cubicSplines.getForwardRate(term), tabulated.getForwardRate(term), 0);
+        }
+    }
+
+    @Test
+    public void rejectsTableAboveTolerance() {
+        try {
+            // the CubicSplines forward rate jumps at the first knot
+            new TabulatedInterpolation(this.getModel(ModelType.CUBIC_SPLINES), 1 / 52.0, TabulationMode.CUBIC_HERMITE);
+            fail();
+        } catch (InterpolationException e) {
+            assertTrue(e.getMessage().startsWith("Tabulation error above"));
+        }
+    }
+}
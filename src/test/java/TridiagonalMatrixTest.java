@@ -0,0 +1,109 @@
+import com.company.linearequationsystem.GaussMatrix;
+import com.company.linearequationsystem.LUDecomposition;
+import com.company.linearequationsystem.TridiagonalLU;
+import com.company.linearequationsystem.TridiagonalMatrix;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TridiagonalMatrixTest {
+
+    @Test
+    public void matchesGaussElimination() {
+        int equations = 50;
+        Random random = new Random(42);
+        double[][] coefficientMatrix = new double[equations][equations];
+        double[] constants = new double[equations];
+        TridiagonalMatrix tridiagonalMatrix = new TridiagonalMatrix(equations);
+
+        for (int row = 0; row < equations; row++) {
+            double lower = row > 0 ? random.nextDouble() : 0;
+            double upper = row < equations - 1 ? random.nextDouble() : 0;
+            double diagonal = 2 + random.nextDouble();
+            constants[row] = random.nextDouble() - 0.5;
+            if (row > 0) coefficientMatrix[row][row - 1] = lower;
+            if (row < equations - 1) coefficientMatrix[row][row + 1] = upper;
+            coefficientMatrix[row][row] = diagonal;
+            tridiagonalMatrix.setRow(row, lower, diagonal, upper, constants[row]);
+        }
+
+        GaussMatrix gaussMatrix = new GaussMatrix(equations);
+        gaussMatrix.setCoefficientMatrix(coefficientMatrix);
+        gaussMatrix.setConstants(constants);
+        gaussMatrix.findSolution();
+        tridiagonalMatrix.findSolution();
+
+        for (int i = 0; i < equations; i++) {
+            assertEquals(gaussMatrix.getSolution()[i], tridiagonalMatrix.getSolution()[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void luDecompositionMatchesGaussElimination() {
+        int equations = 30;
+        Random random = new Random(7);
+        double[][] coefficientMatrix = new double[equations][equations];
+        double[][] constants = new double[5][equations];
+        for (int row = 0; row < equations; row++) {
+            for (int column = 0; column < equations; column++) {
+                coefficientMatrix[row][column] = random.nextDouble() - 0.5 + (row == column ? 4 : 0);
+            }
+            for (double[] rightHandSide : constants) {
+                rightHandSide[row] = random.nextDouble() - 0.5;
+            }
+        }
+
+        GaussMatrix gaussMatrix = new GaussMatrix(equations);
+        gaussMatrix.setCoefficientMatrix(coefficientMatrix);
+        LUDecomposition luDecomposition = gaussMatrix.factor();
+        double[][] solutions = luDecomposition.solve(constants);
+
+        for (int k = 0; k < constants.length; k++) {
+            double[][] matrixCopy = new double[equations][];
+            for (int row = 0; row < equations; row++) {
+                matrixCopy[row] = coefficientMatrix[row].clone();
+            }
+            GaussMatrix expected = new GaussMatrix(equations);
+            expected.setCoefficientMatrix(matrixCopy);
+            expected.setConstants(constants[k].clone());
+            expected.findSolution();
+            for (int i = 0; i < equations; i++) {
+                assertEquals(expected.getSolution()[i], solutions[k][i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void tridiagonalLUSolvesEveryRightHandSide() {
+        int equations = 40;
+        Random random = new Random(11);
+        double[] lower = new double[equations];
+        double[] diagonal = new double[equations];
+        double[] upper = new double[equations];
+        for (int row = 0; row < equations; row++) {
+            lower[row] = row > 0 ? random.nextDouble() : 0;
+            upper[row] = row < equations - 1 ? random.nextDouble() : 0;
+            diagonal[row] = 2 + random.nextDouble();
+        }
+        TridiagonalLU tridiagonalLU = new TridiagonalLU(lower, diagonal, upper);
+
+        double[][] constants = new double[4][equations];
+        for (double[] rightHandSide : constants) {
+            for (int row = 0; row < equations; row++) {
+                rightHandSide[row] = random.nextDouble() - 0.5;
+            }
+        }
+        double[][] solutions = tridiagonalLU.solve(constants);
+
+        for (int k = 0; k < constants.length; k++) {
+            for (int row = 0; row < equations; row++) {
+                double product = diagonal[row] * solutions[k][row];
+                if (row > 0) product += lower[row] * solutions[k][row - 1];
+                if (row < equations - 1) product += upper[row] * solutions[k][row + 1];
+                assertEquals(constants[k][row], product, 1e-12);
+            }
+        }
+    }
+}